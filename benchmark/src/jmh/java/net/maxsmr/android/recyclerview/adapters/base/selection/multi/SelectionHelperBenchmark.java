@@ -0,0 +1,118 @@
+package net.maxsmr.android.recyclerview.adapters.base.selection.multi;
+
+import net.maxsmr.android.recyclerview.adapters.base.BaseRecyclerViewAdapter;
+import net.maxsmr.android.recyclerview.adapters.base.selection.BaseSelectionRecyclerViewAdapter;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bulk operations of {@link SelectionHelper}, which is package-private, so benchmark is placed in its package.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SelectionHelperBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int size;
+
+    private List<Integer> positions;
+    private SelectionHelper helper;
+
+    @Setup
+    public void setUp() {
+        positions = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            positions.add(i);
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void setUpHelper() {
+        helper = new SelectionHelper(new NoOpHolderClickListener(), new NoOpSelectionListener());
+        // half of items are selected before every operation
+        for (int i = 0; i < size; i += 2) {
+            helper.setItemSelectedByPosition(i, i, true, false, false);
+        }
+    }
+
+    @Benchmark
+    public boolean selectAll() {
+        return helper.setItemsSelectedByPositions(positions, true, false, true);
+    }
+
+    @Benchmark
+    public boolean toggleAll() {
+        return helper.toggleItemsSelectedByPositions(positions, false);
+    }
+
+    @Benchmark
+    public int clearSelection() {
+        helper.clearSelection(false);
+        return helper.getSelectedItemsCount();
+    }
+
+    @Benchmark
+    public int getSelectedItems() {
+        return helper.getSelectedItems().size();
+    }
+
+    private static final class NoOpHolderClickListener implements HolderClickListener {
+
+        @Override
+        public void onHolderClick(int position, BaseRecyclerViewAdapter.ViewHolder holder) {
+        }
+
+        @Override
+        public boolean onHolderLongClick(int position, BaseRecyclerViewAdapter.ViewHolder holder) {
+            return false;
+        }
+    }
+
+    private static final class NoOpSelectionListener implements SelectionListener {
+
+        @Override
+        public int getListPosition(int position) {
+            return position;
+        }
+
+        @Override
+        public boolean canSelectAtPosition(int position) {
+            return true;
+        }
+
+        @Override
+        public void onSelectionChanged(int position, @Nullable BaseSelectionRecyclerViewAdapter.ViewHolder<?> holder, boolean isSelected, boolean fromUser) {
+        }
+
+        @Override
+        public void onReselected(int position, @Nullable BaseSelectionRecyclerViewAdapter.ViewHolder<?> holder, boolean fromUser) {
+        }
+
+        @Override
+        public void onSelectableChanged(boolean isSelectable) {
+        }
+
+        @Override
+        public void onAllowResetSelectionChanged(boolean isAllowed) {
+        }
+
+        @Override
+        public void handleSelected(@NotNull BaseSelectionRecyclerViewAdapter.ViewHolder<?> holder, boolean isSelected) {
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package net.maxsmr.jugglerhelper.fragments.loading;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link BaseListLoadingJugglerFragment#removeDuplicateItemsFromList(List)}, measured through {@link DuplicateItemsHelper},
+ * with default reference equality and with {@link Object#equals(Object)} of loaded items.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DuplicateItemsBenchmark {
+
+    /**
+     * Removal is quadratic, so sizes are smaller than in the other benchmarks
+     */
+    @Param({"100", "1000", "5000"})
+    public int size;
+
+    /**
+     * Share of duplicates in loaded list, percents
+     */
+    @Param({"0", "10"})
+    public int duplicatesPercent;
+
+    private List<String> source;
+    private List<String> items;
+
+    @Setup
+    public void setUp() {
+        final int uniqueCount = size - size * duplicatesPercent / 100;
+        final List<String> uniqueItems = new ArrayList<>(uniqueCount);
+        for (int i = 0; i < uniqueCount; i++) {
+            uniqueItems.add(String.valueOf(i));
+        }
+        // duplicates are the same instances, so they are found by both checkers
+        source = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            source.add(uniqueItems.get(i % uniqueCount));
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void copyItems() {
+        // list is modified by removal
+        items = new ArrayList<>(source);
+    }
+
+    @Benchmark
+    public List<String> removeByReference() {
+        return DuplicateItemsHelper.removeDuplicateItems(items, (one, another) -> one == another);
+    }
+
+    @Benchmark
+    public List<String> removeByEquals() {
+        return DuplicateItemsHelper.removeDuplicateItems(items, (one, another) -> one != null && one.equals(another));
+    }
+}
@@ -0,0 +1,32 @@
+package ru.surfstudio.android.easyadapter.benchmark;
+
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.ListUpdateCallback;
+
+/**
+ * {@link ListUpdateCallback} which only counts operations instead of notifying an adapter
+ */
+final class CountingUpdateCallback implements ListUpdateCallback {
+
+    int operationsCount = 0;
+
+    @Override
+    public void onInserted(int position, int count) {
+        operationsCount++;
+    }
+
+    @Override
+    public void onRemoved(int position, int count) {
+        operationsCount++;
+    }
+
+    @Override
+    public void onMoved(int fromPosition, int toPosition) {
+        operationsCount++;
+    }
+
+    @Override
+    public void onChanged(int position, int count, @Nullable Object payload) {
+        operationsCount++;
+    }
+}
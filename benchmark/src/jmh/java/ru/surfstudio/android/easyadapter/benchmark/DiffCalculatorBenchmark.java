@@ -0,0 +1,157 @@
+package ru.surfstudio.android.easyadapter.benchmark;
+
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListUpdateCallback;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import ru.surfstudio.android.easyadapter.EasyAdapter;
+import ru.surfstudio.android.easyadapter.diff.AutoNotifyDiffCallback;
+import ru.surfstudio.android.easyadapter.diff.DiffCancellationToken;
+import ru.surfstudio.android.easyadapter.diff.InfiniteScrollUpdateCallback;
+import ru.surfstudio.android.easyadapter.diff.KeyedDiffCalculator;
+import ru.surfstudio.android.easyadapter.diff.TrimmingDiffCalculator;
+import ru.surfstudio.android.easyadapter.diff.base.DiffCalculator;
+import ru.surfstudio.android.easyadapter.diff.base.data.ItemInfoListSnapshot;
+import ru.surfstudio.android.easyadapter.diff.base.data.ItemInfoSnapshot;
+import ru.surfstudio.android.easyadapter.diff.base.data.ListDiff;
+import ru.surfstudio.android.easyadapter.item.ItemInfo;
+
+/**
+ * Diff calculation and dispatching over typical update shapes.
+ * <br>
+ * Diff calculators are internal to the library, but compiled Kotlin classes are public,
+ * so they are called here directly.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DiffCalculatorBenchmark {
+
+    public enum Calculator {
+
+        /**
+         * Plain DiffUtil over {@link AutoNotifyDiffCallback}
+         */
+        AUTO_NOTIFY,
+
+        /**
+         * {@link TrimmingDiffCalculator}: DiffUtil only between common prefix and suffix
+         */
+        TRIMMING,
+
+        /**
+         * {@link KeyedDiffCalculator}: hash index of ids, for lists with unique ids
+         */
+        KEYED
+    }
+
+    public enum UpdateShape {
+
+        /**
+         * 10% of new items at the end
+         */
+        APPEND,
+
+        /**
+         * 1% of items moved to random positions
+         */
+        SHUFFLE,
+
+        /**
+         * contents of 1% of items changed
+         */
+        CHANGE
+    }
+
+    @Param({"1000", "10000", "100000"})
+    public int size;
+
+    @Param
+    public UpdateShape shape;
+
+    @Param
+    public Calculator calculator;
+
+    /**
+     * Infinite scroll diff is calculated over the real lists and replicated to every loop,
+     * like adapters do: diff of the expanded lists is quadratic for shifting updates
+     */
+    @Param({"false", "true"})
+    public boolean infiniteScroll;
+
+    private List<ItemInfo> oldItems;
+    private List<ItemInfo> newItems;
+
+    private ItemInfoSnapshot oldSnapshot;
+    private ItemInfoSnapshot newSnapshot;
+
+    @Setup
+    public void setUp() {
+        final Random random = new Random(size);
+        oldItems = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            oldItems.add(new ItemInfo(String.valueOf(i), String.valueOf(i)));
+        }
+        newItems = new ArrayList<>(oldItems);
+        final int affectedCount = Math.max(1, size / 100);
+        switch (shape) {
+            case APPEND:
+                for (int i = size; i < size + size / 10; i++) {
+                    newItems.add(new ItemInfo(String.valueOf(i), String.valueOf(i)));
+                }
+                break;
+            case SHUFFLE:
+                for (int i = 0; i < affectedCount; i++) {
+                    final ItemInfo item = newItems.remove(random.nextInt(newItems.size()));
+                    newItems.add(random.nextInt(newItems.size() + 1), item);
+                }
+                break;
+            case CHANGE:
+                for (int i = 0; i < affectedCount; i++) {
+                    final int position = random.nextInt(size);
+                    newItems.set(position, new ItemInfo(newItems.get(position).getId(), "changed"));
+                }
+                break;
+        }
+        final List<Object> noItems = new ArrayList<>();
+        oldSnapshot = new ItemInfoListSnapshot(oldItems, noItems);
+        newSnapshot = new ItemInfoListSnapshot(newItems, noItems);
+    }
+
+    @Benchmark
+    public int calculateAndDispatch() {
+        final CountingUpdateCallback updateCallback = new CountingUpdateCallback();
+        final ListUpdateCallback targetCallback = infiniteScroll
+                ? new InfiniteScrollUpdateCallback(updateCallback, oldItems.size(), EasyAdapter.INFINITE_SCROLL_LOOPS_COUNT)
+                : updateCallback;
+        switch (calculator) {
+            case AUTO_NOTIFY:
+                DiffUtil.calculateDiff(new AutoNotifyDiffCallback(oldItems, newItems, 0)).dispatchUpdatesTo(targetCallback);
+                break;
+            case TRIMMING:
+                calculate(TrimmingDiffCalculator.INSTANCE).dispatchUpdatesTo(targetCallback);
+                break;
+            case KEYED:
+                calculate(KeyedDiffCalculator.INSTANCE).dispatchUpdatesTo(targetCallback);
+                break;
+        }
+        return updateCallback.operationsCount;
+    }
+
+    private ListDiff calculate(DiffCalculator calculator) {
+        return calculator.calculateDiff(oldSnapshot, newSnapshot, new DiffCancellationToken());
+    }
+}
@@ -0,0 +1,87 @@
+package ru.surfstudio.android.easyadapter.benchmark;
+
+import android.view.View;
+import android.view.ViewGroup;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import ru.surfstudio.android.easyadapter.ItemList;
+import ru.surfstudio.android.easyadapter.controller.BindableItemController;
+import ru.surfstudio.android.easyadapter.holder.BindableViewHolder;
+
+/**
+ * Building of {@link ItemList}: run with gc profiler (enabled by default) to see allocation rate per item.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ItemListBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int size;
+
+    private final StringController controller = new StringController();
+    private List<String> data;
+
+    @Setup
+    public void setUp() {
+        data = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            data.add(String.valueOf(i));
+        }
+    }
+
+    @Benchmark
+    public ItemList create() {
+        return ItemList.create(data, controller);
+    }
+
+    @Benchmark
+    public ItemList addAll() {
+        return ItemList.create().addAll(data, controller);
+    }
+
+    @Benchmark
+    public ItemList addEach() {
+        final ItemList items = ItemList.create();
+        for (String dataItem : data) {
+            items.add(dataItem, controller);
+        }
+        return items;
+    }
+
+    static final class StringHolder extends BindableViewHolder<String> {
+
+        StringHolder(View itemView) {
+            super(itemView);
+        }
+
+        @Override
+        public void bind(String item) {
+        }
+    }
+
+    static final class StringController extends BindableItemController<String, StringHolder> {
+
+        @Override
+        public StringHolder createViewHolder(ViewGroup parent) {
+            throw new UnsupportedOperationException("holders are not created in benchmarks");
+        }
+
+        @Override
+        protected String getItemId(String data) {
+            return data;
+        }
+    }
+}
@@ -16,7 +16,6 @@ import net.maxsmr.jugglerhelper.R;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
@@ -225,34 +224,7 @@ public abstract class BaseListLoadingJugglerFragment<I, Adapter extends BaseRecy
      */
     @NotNull
     protected List<I> removeDuplicateItemsFromList(@Nullable List<I> items) {
-
-        List<I> duplicateItems = new ArrayList<>();
-
-        if (items != null) {
-
-            List<I> filteredItems = new ArrayList<>();
-
-            for (I item : items) {
-                if (item != null) {
-                    boolean isDuplicate = false;
-                    for (I filteredItem : filteredItems) {
-                        if (isDuplicateItems(item, filteredItem)) {
-                            duplicateItems.add(item);
-                            isDuplicate = true;
-                            break;
-                        }
-                    }
-                    if (!isDuplicate) {
-                        filteredItems.add(item);
-                    }
-                }
-            }
-
-            items.clear();
-            items.addAll(filteredItems);
-        }
-
-        return duplicateItems;
+        return DuplicateItemsHelper.removeDuplicateItems(items, this::isDuplicateItems);
     }
 
     @Override
@@ -0,0 +1,62 @@
+package net.maxsmr.jugglerhelper.fragments.loading;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Removal of duplicate items from loaded lists, used by {@link BaseListLoadingJugglerFragment}.
+ * Doesn't depend on Android framework.
+ */
+public final class DuplicateItemsHelper {
+
+    private DuplicateItemsHelper() {
+        throw new AssertionError("no instances.");
+    }
+
+    /**
+     * Remove null items and items, which are duplicates of the previous ones.
+     *
+     * @param items   will be modified if contains duplicate items
+     * @param checker checker of duplicates
+     * @return removed duplicate items
+     */
+    @NotNull
+    public static <I> List<I> removeDuplicateItems(@Nullable List<I> items, @NotNull DuplicateChecker<I> checker) {
+
+        List<I> duplicateItems = new ArrayList<>();
+
+        if (items != null) {
+
+            List<I> filteredItems = new ArrayList<>();
+
+            for (I item : items) {
+                if (item != null) {
+                    boolean isDuplicate = false;
+                    for (I filteredItem : filteredItems) {
+                        if (checker.isDuplicateItems(item, filteredItem)) {
+                            duplicateItems.add(item);
+                            isDuplicate = true;
+                            break;
+                        }
+                    }
+                    if (!isDuplicate) {
+                        filteredItems.add(item);
+                    }
+                }
+            }
+
+            items.clear();
+            items.addAll(filteredItems);
+        }
+
+        return duplicateItems;
+    }
+
+    public interface DuplicateChecker<I> {
+
+        boolean isDuplicateItems(@Nullable I one, @Nullable I another);
+    }
+}
@@ -17,37 +17,59 @@ package ru.surfstudio.android.easyadapter;
 
 
 import android.util.SparseArray;
+import android.util.SparseIntArray;
 import android.view.View;
 import android.view.ViewGroup;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.AdapterListUpdateCallback;
 import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.GridLayoutManager;
+import androidx.recyclerview.widget.ListUpdateCallback;
 import androidx.recyclerview.widget.RecyclerView;
 
-import ru.surfstudio.android.easyadapter.diff.AutoNotifyDiffCallback;
+import ru.surfstudio.android.easyadapter.diff.DiffCancellationToken;
+import ru.surfstudio.android.easyadapter.diff.DiffAlgorithm;
+import ru.surfstudio.android.easyadapter.diff.InfiniteScrollUpdateCallback;
+import ru.surfstudio.android.easyadapter.diff.KeyedDiffCalculator;
+import ru.surfstudio.android.easyadapter.diff.ParallelSnapshotBuilder;
+import ru.surfstudio.android.easyadapter.diff.TrimmingDiffCalculator;
 import ru.surfstudio.android.easyadapter.item.ItemInfo;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.List;
-import java.util.Objects;
 
 import ru.surfstudio.android.easyadapter.diff.DefaultDiffer;
+import ru.surfstudio.android.easyadapter.diff.async.AdaptiveAsyncDiffer;
 import ru.surfstudio.android.easyadapter.diff.async.ApplyLatestAsyncDiffer;
+import ru.surfstudio.android.easyadapter.diff.async.AsyncDiffScheduler;
 import ru.surfstudio.android.easyadapter.diff.async.AsyncDiffStrategy;
+import ru.surfstudio.android.easyadapter.diff.async.CancelStaleAsyncDiffer;
+import ru.surfstudio.android.easyadapter.diff.async.FrameAlignedAsyncDiffer;
+import ru.surfstudio.android.easyadapter.diff.async.FrameAlignedUpdateListener;
 import ru.surfstudio.android.easyadapter.diff.async.base.AsyncDiffer;
+import ru.surfstudio.android.easyadapter.diff.metrics.CountingListUpdateCallback;
+import ru.surfstudio.android.easyadapter.diff.metrics.DiffMetrics;
+import ru.surfstudio.android.easyadapter.diff.metrics.DiffMetricsListener;
+import ru.surfstudio.android.easyadapter.diff.base.DiffCalculator;
 import ru.surfstudio.android.easyadapter.diff.base.Differ;
 import ru.surfstudio.android.easyadapter.diff.base.data.DiffCalculationBundle;
 import ru.surfstudio.android.easyadapter.diff.base.data.DiffResultBundle;
+import ru.surfstudio.android.easyadapter.diff.base.data.ItemInfoListSnapshot;
+import ru.surfstudio.android.easyadapter.diff.base.data.ItemInfoSnapshot;
+import ru.surfstudio.android.easyadapter.diff.base.data.ListDiff;
+import ru.surfstudio.android.easyadapter.diff.base.data.PrimitiveItemInfoSnapshot;
 import ru.surfstudio.android.easyadapter.diff.async.QueueAllAsyncDiffer;
 
 import ru.surfstudio.android.easyadapter.controller.BaseItemController;
 import ru.surfstudio.android.easyadapter.controller.BindableItemController;
+import ru.surfstudio.android.easyadapter.controller.BindableItemPool;
 import ru.surfstudio.android.easyadapter.controller.NoDataItemController;
 import ru.surfstudio.android.easyadapter.holder.BaseViewHolder;
 import ru.surfstudio.android.easyadapter.item.BaseItem;
+import ru.surfstudio.android.easyadapter.profiler.ViewTypeProfiler;
 import ru.surfstudio.android.easyadapter.item.NoDataItem;
 
 /**
@@ -63,9 +85,13 @@ public class EasyAdapter extends RecyclerView.Adapter {
 
     public static final int INFINITE_SCROLL_LOOPS_COUNT = 100;
 
+    /**
+     * Items are never modified in place, but replaced with the new list on each update
+     */
     private List<BaseItem> items = new ArrayList<>();
-    private List<ItemInfo> lastItemsInfo = new ArrayList<>();
+    private ItemInfoSnapshot lastItemsInfo = ItemInfoSnapshot.EMPTY;
     private SparseArray<BaseItemController> supportedItemControllers = new SparseArray<>();
+    private SparseIntArray supportedItemControllerUsages = new SparseIntArray();
     private boolean autoNotifyOnSetItemsEnabled = true;
     private boolean firstInvisibleItemEnabled = false;
     private BaseItem<BaseViewHolder> firstInvisibleItem = new NoDataItem<>(new FirstInvisibleItemController());
@@ -76,10 +102,17 @@ public class EasyAdapter extends RecyclerView.Adapter {
 
     private boolean changeSpanSizeForGridLayoutManager = false;
     private boolean infiniteScroll;
+    private boolean longItemIdsEnabled = false;
+    private BindableItemPool itemPool = null;
 
     private boolean isAsyncDiffCalculationEnabled = false;
-    private Differ defaultDiffer = new DefaultDiffer(this::dispatchDiffResult, this::createDiffCallback);
-    private AsyncDiffer asyncDiffer = new QueueAllAsyncDiffer(this::dispatchDiffResult, this::createDiffCallback);
+    private volatile DiffCalculator diffCalculator = TrimmingDiffCalculator.INSTANCE;
+    private Differ defaultDiffer = new DefaultDiffer(this::dispatchDiffResult, this::calculateListDiff);
+    private AsyncDiffer asyncDiffer = new QueueAllAsyncDiffer(this::dispatchDiffResult, this::calculateListDiff);
+    private AsyncDiffStrategy asyncDiffStrategy = AsyncDiffStrategy.QUEUE_ALL;
+    private FrameAlignedUpdateListener frameAlignedUpdateListener = null;
+    private DiffMetricsListener diffMetricsListener = null;
+    private ViewTypeProfiler profiler = null;
 
     public EasyAdapter() {
         setHasStableIds(true);
@@ -100,6 +133,8 @@ public class EasyAdapter extends RecyclerView.Adapter {
         super.onDetachedFromRecyclerView(recyclerView);
         currentRecyclerView = null;
         setupLayoutManager(false);
+        // release shared diff workers from calculations nobody will see
+        asyncDiffer.cancel();
     }
 
     /**
@@ -107,7 +142,14 @@ public class EasyAdapter extends RecyclerView.Adapter {
      */
     @Override
     public final int getItemViewType(int position) {
-        return items.get(getListPosition(position)).getItemController().viewType();
+        final BaseItemController itemController = items.get(getListPosition(position)).getItemController();
+        final int viewType = itemController.viewType();
+        // kept items may come with new controller instances of the same view type;
+        // RecyclerView asks view type before creating holder for position, so holder is created by its item controller
+        if (supportedItemControllers.get(viewType) != itemController) {
+            supportedItemControllers.put(viewType, itemController);
+        }
+        return viewType;
     }
 
     /**
@@ -115,7 +157,16 @@ public class EasyAdapter extends RecyclerView.Adapter {
      */
     @Override
     public final RecyclerView.ViewHolder onCreateViewHolder(ViewGroup parent, int viewType) {
-        return supportedItemControllers.get(viewType).createViewHolder(parent);
+        final BaseItemController itemController = supportedItemControllers.get(viewType);
+        if (profiler == null) {
+            return itemController.createViewHolder(parent);
+        }
+        final long startTime = profiler.begin(ViewTypeProfiler.Stage.CREATE, viewType, itemController);
+        try {
+            return itemController.createViewHolder(parent);
+        } finally {
+            profiler.end(ViewTypeProfiler.Stage.CREATE, viewType, itemController, startTime);
+        }
     }
 
     /**
@@ -126,21 +177,93 @@ public class EasyAdapter extends RecyclerView.Adapter {
         int position = getListPosition(adapterPosition);
         BaseItem item = items.get(position);
 
+        if (profiler != null) {
+            bindProfiled(holder, item, position, adapterPosition, null);
+            return;
+        }
+
         computeAdditionalItemListParams(item, position, adapterPosition);
 
         item.getItemController().bind(holder, item);
     }
 
+    /**
+     * Binds only changes of item, if change payloads are present.
+     *
+     * @see RecyclerView.Adapter#onBindViewHolder(RecyclerView.ViewHolder, int, List)
+     * @see BaseItemController#getChangePayload(BaseItem, BaseItem)
+     */
+    @Override
+    public final void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder, int adapterPosition, @NonNull List payloads) {
+        if (payloads.isEmpty()) {
+            onBindViewHolder(holder, adapterPosition);
+            return;
+        }
+        int position = getListPosition(adapterPosition);
+        BaseItem item = items.get(position);
+
+        if (profiler != null) {
+            bindProfiled(holder, item, position, adapterPosition, payloads);
+            return;
+        }
+
+        computeAdditionalItemListParams(item, position, adapterPosition);
+
+        item.getItemController().bind(holder, item, payloads);
+    }
+
     @Override
     public void onViewRecycled(@NonNull RecyclerView.ViewHolder holder) {
+        final ViewTypeProfiler profiler = this.profiler;
+        // view types are named by controllers, which may be already removed for holders of removed items
+        final BaseItemController viewTypeController = profiler != null
+                ? supportedItemControllers.get(holder.getItemViewType())
+                : null;
+        final long startTime = profiler != null
+                ? profiler.begin(ViewTypeProfiler.Stage.RECYCLE, holder.getItemViewType(), viewTypeController)
+                : 0L;
         super.onViewRecycled(holder);
         int position = getListPosition(holder.getAdapterPosition());
         if (position != RecyclerView.NO_POSITION) {
             BaseItem item = items.get(position);
-            item.getItemController().unbind(holder, item);
+            if (profiler != null) {
+                final int viewType = holder.getItemViewType();
+                final BaseItemController itemController = item.getItemController();
+                final long unbindStartTime = profiler.begin(ViewTypeProfiler.Stage.UNBIND, viewType, itemController);
+                itemController.unbind(holder, item);
+                profiler.end(ViewTypeProfiler.Stage.UNBIND, viewType, itemController, unbindStartTime);
+            } else {
+                item.getItemController().unbind(holder, item);
+            }
+        }
+        if (profiler != null) {
+            profiler.end(ViewTypeProfiler.Stage.RECYCLE, holder.getItemViewType(), viewTypeController, startTime);
         }
     }
 
+    /**
+     * Bind item measuring every stage with {@link #profiler}
+     *
+     * @param payloads change payloads or null for full binding
+     */
+    private void bindProfiled(RecyclerView.ViewHolder holder, BaseItem item, int position, int adapterPosition, List payloads) {
+        final int viewType = holder.getItemViewType();
+        final BaseItemController itemController = item.getItemController();
+
+        final long paramsStartTime = profiler.begin(ViewTypeProfiler.Stage.COMPUTE_PARAMS, viewType, itemController);
+        computeAdditionalItemListParams(item, position, adapterPosition);
+        profiler.end(ViewTypeProfiler.Stage.COMPUTE_PARAMS, viewType, itemController, paramsStartTime);
+
+        final ViewTypeProfiler.Stage stage = payloads == null ? ViewTypeProfiler.Stage.BIND : ViewTypeProfiler.Stage.PARTIAL_BIND;
+        final long bindStartTime = profiler.begin(stage, viewType, itemController);
+        if (payloads == null) {
+            itemController.bind(holder, item);
+        } else {
+            itemController.bind(holder, item, payloads);
+        }
+        profiler.end(stage, viewType, itemController, bindStartTime);
+    }
+
     /**
      * @see RecyclerView.Adapter#getItemCount()
      */
@@ -154,6 +277,9 @@ public class EasyAdapter extends RecyclerView.Adapter {
      */
     @Override
     public final long getItemId(int position) {
+        if (longItemIdsEnabled) {
+            return getItemLongIdInternal(items, position);
+        }
         return getItemStringId(position).hashCode();
     }
 
@@ -189,15 +315,72 @@ public class EasyAdapter extends RecyclerView.Adapter {
     /**
      * Set {@link AsyncDiffStrategy} which will be used for asynchronous {@link DiffUtil.DiffResult} calculation
      * <p>
-     * By default, {@link DiffUtil.DiffResult} calculates using {@link AsyncDiffStrategy#QUEUE_ALL} strategy
+     * By default, {@link DiffUtil.DiffResult} calculates using {@link AsyncDiffStrategy#QUEUE_ALL} strategy.
+     * Calculations are executed on shared {@link AsyncDiffScheduler#getExecutor()}
      *
      * @param asyncDiffStrategy strategy of diff result calculation
      */
     public final void setAsyncDiffStrategy(AsyncDiffStrategy asyncDiffStrategy) {
+        asyncDiffer.cancel();
+        this.asyncDiffStrategy = asyncDiffStrategy;
         if (asyncDiffStrategy == AsyncDiffStrategy.APPLY_LATEST) {
-            asyncDiffer = new ApplyLatestAsyncDiffer(this::dispatchDiffResult, this::createDiffCallback);
+            asyncDiffer = new ApplyLatestAsyncDiffer(this::dispatchDiffResult, this::calculateListDiff);
+        } else if (asyncDiffStrategy == AsyncDiffStrategy.CANCEL_STALE) {
+            asyncDiffer = new CancelStaleAsyncDiffer(this::dispatchDiffResult, this::calculateListDiff);
+        } else if (asyncDiffStrategy == AsyncDiffStrategy.FRAME_ALIGNED) {
+            asyncDiffer = new FrameAlignedAsyncDiffer(this::dispatchDiffResult, this::calculateListDiff);
+        } else if (asyncDiffStrategy == AsyncDiffStrategy.ADAPTIVE) {
+            asyncDiffer = new AdaptiveAsyncDiffer(this::dispatchDiffResult, this::calculateListDiff);
         } else {
-            asyncDiffer = new QueueAllAsyncDiffer(this::dispatchDiffResult, this::createDiffCallback);
+            asyncDiffer = new QueueAllAsyncDiffer(this::dispatchDiffResult, this::calculateListDiff);
+        }
+    }
+
+    /**
+     * Set listener of updates applied with {@link AsyncDiffStrategy#FRAME_ALIGNED} strategy,
+     * which receives amount of item lists skipped within a frame.
+     *
+     * @param frameAlignedUpdateListener listener or null to remove it
+     */
+    public void setFrameAlignedUpdateListener(FrameAlignedUpdateListener frameAlignedUpdateListener) {
+        this.frameAlignedUpdateListener = frameAlignedUpdateListener;
+    }
+
+    /**
+     * Set listener of {@link DiffMetrics}, which is notified after every update dispatched by adapter.
+     *
+     * @param diffMetricsListener listener or null to remove it
+     * @see ru.surfstudio.android.easyadapter.diff.metrics.HistogramDiffMetricsListener
+     */
+    public void setDiffMetricsListener(DiffMetricsListener diffMetricsListener) {
+        this.diffMetricsListener = diffMetricsListener;
+    }
+
+    /**
+     * Set profiler of ViewHolder creation, binding and recycling, which measures every view type separately.
+     * Profiling adds overhead, so it's better to enable it only in debug builds and tests.
+     *
+     * @param profiler profiler or null to disable profiling
+     */
+    public void setProfiler(ViewTypeProfiler profiler) {
+        if (profiler != null) {
+            profiler.setAdapterName(ViewTypeProfiler.DEFAULT_ADAPTER_NAME);
+        }
+        this.profiler = profiler;
+    }
+
+    /**
+     * Set {@link DiffAlgorithm} which will be used for both synchronous and asynchronous diff calculation
+     * <p>
+     * By default, {@link DiffAlgorithm#DIFF_UTIL} is used.
+     *
+     * @param diffAlgorithm algorithm of diff calculation
+     */
+    public final void setDiffAlgorithm(DiffAlgorithm diffAlgorithm) {
+        if (diffAlgorithm == DiffAlgorithm.KEYED) {
+            diffCalculator = KeyedDiffCalculator.INSTANCE;
+        } else {
+            diffCalculator = TrimmingDiffCalculator.INSTANCE;
         }
     }
 
@@ -230,6 +413,41 @@ public class EasyAdapter extends RecyclerView.Adapter {
         }
     }
 
+    /**
+     * Set if 64-bit {@link BaseItemController#getItemLongId(BaseItem)} and {@link BaseItemController#getItemContentHash(BaseItem)}
+     * should be used instead of String ones for diff calculation and stable ids.
+     * <p>
+     * Default long ids are still hashes of String ids, so Strings are allocated for every item on every update
+     * unless controllers override {@link BaseItemController#getItemLongId(BaseItem)}
+     * (or {@link BindableItemController#getItemLongId(Object)}) to return real long ids.
+     * It is recommended for big lists with such controllers.
+     * Should be set before items are set.
+     * <p>
+     * By default, long item ids are disabled
+     */
+    public void setLongItemIdsEnabled(boolean longItemIdsEnabled) {
+        if (this.longItemIdsEnabled != longItemIdsEnabled) {
+            this.longItemIdsEnabled = longItemIdsEnabled;
+            lastItemsInfo = extractRealItemInfo();
+        }
+    }
+
+    /**
+     * Set if items of the previous list should be reused by {@link #setData(Collection, BindableItemController)}.
+     * <p>
+     * Item is reused if it has the same controller, the same long id and equal data,
+     * so steady-state updates don't allocate items for unchanged data.
+     * Reuse is most efficient with {@link #setLongItemIdsEnabled(boolean)},
+     * because ids of the previous items are taken from the last snapshot.
+     * <p>
+     * By default, item reuse is disabled
+     *
+     * @see BindableItemPool
+     */
+    public void setItemReuseEnabled(boolean itemReuseEnabled) {
+        itemPool = itemReuseEnabled ? new BindableItemPool() : null;
+    }
+
     /**
      * Set if the infinite scroll enabled.
      *
@@ -243,10 +461,28 @@ public class EasyAdapter extends RecyclerView.Adapter {
      * Automatically call necessary notify... methods.
      */
     public void autoNotify() {
-        final List<ItemInfo> newItemInfo = extractRealItemInfo();
-        DiffUtil.DiffResult diffResult = DiffUtil.calculateDiff(
-                new AutoNotifyDiffCallback(lastItemsInfo, newItemInfo, infiniteScroll ? INFINITE_SCROLL_LOOPS_COUNT : 0));
-        diffResult.dispatchUpdatesTo(this);
+        final long startTime = System.nanoTime();
+        final ItemInfoSnapshot newItemInfo = extractRealItemInfo();
+        final long extractionEndTime = System.nanoTime();
+        final ListDiff listDiff = calculateListDiff(lastItemsInfo, newItemInfo, new DiffCancellationToken());
+        final long diffEndTime = System.nanoTime();
+        final ListUpdateCallback updateCallback = createUpdateCallback();
+        dispatchUpdates(listDiff, lastItemsInfo.getSize(), updateCallback);
+        if (diffMetricsListener != null) {
+            reportDiffMetrics(
+                    lastItemsInfo.getSize(),
+                    newItemInfo.getSize(),
+                    new DiffResultBundle(
+                            listDiff,
+                            new DiffCalculationBundle((List) items, lastItemsInfo, () -> newItemInfo, startTime),
+                            0L,
+                            extractionEndTime - startTime,
+                            diffEndTime - extractionEndTime
+                    ),
+                    updateCallback,
+                    System.nanoTime() - diffEndTime
+            );
+        }
         lastItemsInfo = newItemInfo;
     }
 
@@ -259,7 +495,19 @@ public class EasyAdapter extends RecyclerView.Adapter {
      * @param <T>            data type
      */
     public <T> void setData(@NonNull Collection<T> data, @NonNull BindableItemController<T, ? extends RecyclerView.ViewHolder> itemController) {
-        setItems(ItemList.create(data, itemController));
+        if (itemPool == null) {
+            setItems(ItemList.create(data, itemController));
+            return;
+        }
+        final long[] ids = lastItemsInfo instanceof PrimitiveItemInfoSnapshot && (List) lastItemsInfo.getItems() == items
+                ? ((PrimitiveItemInfoSnapshot) lastItemsInfo).getIds()
+                : null;
+        final ItemList newItems = itemPool.obtainItems(items, ids, data, itemController, 1);
+        if (firstInvisibleItemEnabled) {
+            newItems.add(0, firstInvisibleItem);
+        }
+        // list is created by adapter, so it can be used without copying
+        setOwnItems(newItems, autoNotifyOnSetItemsEnabled);
     }
 
     /**
@@ -269,10 +517,33 @@ public class EasyAdapter extends RecyclerView.Adapter {
      * @param autoNotify should we need to call {@link #autoNotify()}
      */
     protected void setItems(@NonNull ItemList newItems, boolean autoNotify) {
+        // adapter and differ must own the list, so the caller may continue to modify its one
+        final ItemList ownItems = new ItemList(newItems.size() + 1);
+        if (firstInvisibleItemEnabled && (newItems.isEmpty() || newItems.get(0) != firstInvisibleItem)) {
+            ownItems.add(firstInvisibleItem);
+        }
+        ownItems.addAll(newItems);
+        setOwnItems(ownItems, autoNotify);
+    }
+
+    /**
+     * Set the immutable list of items and display it in {@link RecyclerView}.
+     * Unlike {@link #setItems(ItemList, boolean)}, list is used without copying.
+     *
+     * @param newItems   items to display
+     * @param autoNotify should we need to call {@link #autoNotify()}
+     */
+    protected void setItems(@NonNull PersistentItemList newItems, boolean autoNotify) {
         if (firstInvisibleItemEnabled && (newItems.isEmpty() || newItems.get(0) != firstInvisibleItem)) {
-            newItems.insert(0, firstInvisibleItem);
+            newItems = newItems.insert(0, firstInvisibleItem);
         }
+        setOwnItems(newItems, autoNotify);
+    }
 
+    /**
+     * @param newItems items, which are never modified after this call
+     */
+    private void setOwnItems(List<BaseItem> newItems, boolean autoNotify) {
         if (isAsyncDiffCalculationEnabled) {
             calculateDiff(asyncDiffer, newItems);
         } else if (autoNotify) {
@@ -282,9 +553,9 @@ public class EasyAdapter extends RecyclerView.Adapter {
                     new DiffResultBundle(
                             null,
                             new DiffCalculationBundle(
-                                    newItems,
-                                    Collections.emptyList(),
-                                    Collections.emptyList()
+                                    (List) newItems,
+                                    ItemInfoSnapshot.EMPTY,
+                                    () -> ItemInfoSnapshot.EMPTY
                             )
                     )
             );
@@ -301,6 +572,19 @@ public class EasyAdapter extends RecyclerView.Adapter {
         setItems(items, autoNotifyOnSetItemsEnabled);
     }
 
+    /**
+     * Set the immutable list of items and display it in {@link RecyclerView}.
+     * Adapter automatically calls necessary notify... methods if {@link #autoNotifyOnSetItemsEnabled} is set.
+     * <p>
+     * List is used without copying, so it's the cheapest way to update adapter frequently:
+     * derive the next version of list from the previous one and set it.
+     *
+     * @param items items to display
+     */
+    public void setItems(@NonNull PersistentItemList items) {
+        setItems(items, autoNotifyOnSetItemsEnabled);
+    }
+
     /**
      * Get the items of adapter.
      *
@@ -310,37 +594,157 @@ public class EasyAdapter extends RecyclerView.Adapter {
         return new ItemList(items);
     }
 
-    private void calculateDiff(Differ differ, ItemList newItems) {
-        final List<ItemInfo> newItemInfo = extractRealItemInfo(newItems);
-        final DiffCalculationBundle diffCalculationBundle = new DiffCalculationBundle(newItems, lastItemsInfo, newItemInfo);
+    private void calculateDiff(Differ differ, List<BaseItem> newItems) {
+        // snapshot of new items is extracted by differ, possibly in a worker thread,
+        // so it must not touch the adapter fields
+        final boolean longItemIds = longItemIdsEnabled;
+        final DiffCalculationBundle diffCalculationBundle = new DiffCalculationBundle(
+                (List) newItems,
+                lastItemsInfo,
+                () -> extractRealItemInfo(newItems, longItemIds)
+        );
         differ.calculateDiff(diffCalculationBundle);
     }
 
-    private DiffUtil.Callback createDiffCallback(List<ItemInfo> oldItems, List<ItemInfo> newItems) {
-        return new AutoNotifyDiffCallback(oldItems, newItems, infiniteScroll ? INFINITE_SCROLL_LOOPS_COUNT : 0);
+    private ListDiff calculateListDiff(ItemInfoSnapshot oldItems,
+                                       ItemInfoSnapshot newItems,
+                                       DiffCancellationToken cancellationToken) {
+        // infinite scroll loops are handled on dispatch, see dispatchUpdates
+        return diffCalculator.calculateDiff(oldItems, newItems, cancellationToken);
     }
 
     private void dispatchDiffResult(DiffResultBundle diffResultBundle) {
-        final ItemList newItems = diffResultBundle.getItems();
+        final List<BaseItem> oldItems = items;
+        final ItemInfoSnapshot oldItemInfo = diffResultBundle.getCalculationBundle().getOldItemInfo();
+        final ListDiff listDiff = diffResultBundle.getDiffResult();
 
-        items.clear();
-        items.addAll(newItems);
+        // bundle owns its copy of items, so it can be used without copying
+        items = (List) diffResultBundle.getItems();
+
+        if (listDiff != null && (List) oldItemInfo.getItems() == oldItems) {
+            updateSupportedItemControllers(listDiff, oldItems, items);
+        } else {
+            updateSupportedItemControllers(items);
+        }
 
         if (isAsyncDiffCalculationEnabled || autoNotifyOnSetItemsEnabled) {
-            final DiffUtil.DiffResult diffResult = diffResultBundle.getDiffResult();
-            Objects.requireNonNull(diffResult);
-            diffResult.dispatchUpdatesTo(this);
+            final long dispatchStartTime = System.nanoTime();
+            final ListUpdateCallback updateCallback = createUpdateCallback();
+            if (listDiff != null) {
+                dispatchUpdates(listDiff, oldItemInfo.getSize(), updateCallback);
+            } else {
+                // calculation was cancelled or skipped as pointless
+                notifyDataSetChanged();
+            }
             lastItemsInfo = diffResultBundle.getNewItemInfo();
+            reportDiffMetrics(
+                    oldItemInfo.getSize(),
+                    lastItemsInfo.getSize(),
+                    diffResultBundle,
+                    updateCallback,
+                    System.nanoTime() - dispatchStartTime
+            );
         }
 
-        updateSupportedItemControllers(items);
+        if (frameAlignedUpdateListener != null
+                && isAsyncDiffCalculationEnabled
+                && asyncDiffStrategy == AsyncDiffStrategy.FRAME_ALIGNED) {
+            frameAlignedUpdateListener.onUpdateApplied(
+                    diffResultBundle.getCalculationBundle().getSkippedSnapshotsCount()
+            );
+        }
     }
 
+    /**
+     * Dispatch {@link ListDiff} calculated over the real item lists,
+     * replicating updates to every loop if infinite scroll is enabled.
+     */
+    private void dispatchUpdates(ListDiff listDiff, int oldItemsCount, ListUpdateCallback updateCallback) {
+        if (infiniteScroll) {
+            listDiff.dispatchUpdatesTo(new InfiniteScrollUpdateCallback(
+                    updateCallback,
+                    oldItemsCount,
+                    INFINITE_SCROLL_LOOPS_COUNT
+            ));
+        } else {
+            listDiff.dispatchUpdatesTo(updateCallback);
+        }
+    }
+
+    /**
+     * @return callback, which notifies adapter and counts operations, if metrics are collected
+     */
+    private ListUpdateCallback createUpdateCallback() {
+        final ListUpdateCallback adapterCallback = new AdapterListUpdateCallback(this);
+        return diffMetricsListener != null ? new CountingListUpdateCallback(adapterCallback) : adapterCallback;
+    }
+
+    private void reportDiffMetrics(int oldItemsCount,
+                                   int newItemsCount,
+                                   DiffResultBundle diffResultBundle,
+                                   ListUpdateCallback updateCallback,
+                                   long dispatchTimeNanos) {
+        if (diffMetricsListener == null || !(updateCallback instanceof CountingListUpdateCallback)) return;
+        final CountingListUpdateCallback countingCallback = (CountingListUpdateCallback) updateCallback;
+        diffMetricsListener.onUpdateDispatched(new DiffMetrics(
+                oldItemsCount,
+                newItemsCount,
+                diffResultBundle.getQueueWaitTimeNanos(),
+                diffResultBundle.getExtractionTimeNanos(),
+                diffResultBundle.getDiffTimeNanos(),
+                dispatchTimeNanos,
+                diffResultBundle.getCalculationBundle().getSkippedSnapshotsCount(),
+                diffResultBundle.getDiffResult() != null,
+                countingCallback.getInsertionsCount(),
+                countingCallback.getRemovalsCount(),
+                countingCallback.getMovesCount(),
+                countingCallback.getChangesCount()
+        ));
+    }
+
+    /**
+     * Rebuild index of controllers from scratch
+     */
     private void updateSupportedItemControllers(List<BaseItem> items) {
         supportedItemControllers.clear();
+        supportedItemControllerUsages.clear();
         for (BaseItem item : items) {
-            BaseItemController itemController = item.getItemController();
-            supportedItemControllers.put(itemController.viewType(), itemController);
+            addSupportedItemController(item.getItemController());
+        }
+    }
+
+    /**
+     * Update index of controllers only with items, which enter or leave the list.
+     * New controller instances of kept items are registered in {@link #getItemViewType(int)}
+     */
+    private void updateSupportedItemControllers(ListDiff listDiff, List<BaseItem> oldItems, List<BaseItem> newItems) {
+        listDiff.dispatchMembershipChangesTo(new ListDiff.MembershipCallback() {
+            @Override
+            public void onRemoved(int oldPosition) {
+                removeSupportedItemController(oldItems.get(oldPosition).getItemController());
+            }
+
+            @Override
+            public void onInserted(int newPosition) {
+                addSupportedItemController(newItems.get(newPosition).getItemController());
+            }
+        });
+    }
+
+    private void addSupportedItemController(BaseItemController itemController) {
+        int viewType = itemController.viewType();
+        supportedItemControllers.put(viewType, itemController);
+        supportedItemControllerUsages.put(viewType, supportedItemControllerUsages.get(viewType) + 1);
+    }
+
+    private void removeSupportedItemController(BaseItemController itemController) {
+        int viewType = itemController.viewType();
+        int usages = supportedItemControllerUsages.get(viewType) - 1;
+        if (usages > 0) {
+            supportedItemControllerUsages.put(viewType, usages);
+        } else {
+            supportedItemControllerUsages.delete(viewType);
+            supportedItemControllers.delete(viewType);
         }
     }
 
@@ -379,22 +783,42 @@ public class EasyAdapter extends RecyclerView.Adapter {
     /**
      * Extract real items info, despite of infinite or ordinary scroll.
      */
-    private List<ItemInfo> extractRealItemInfo() {
-        return extractRealItemInfo(items);
+    private ItemInfoSnapshot extractRealItemInfo() {
+        return extractRealItemInfo(items, longItemIdsEnabled);
     }
 
-    private List<ItemInfo> extractRealItemInfo(List<BaseItem> items) {
+    private static ItemInfoSnapshot extractRealItemInfo(List<BaseItem> items, boolean longItemIds) {
         int itemCount = items.size();
-        List<ItemInfo> extractedItemsInfo = new ArrayList<>(itemCount);
-        for (int i = 0; i < itemCount; i++) {
-            extractedItemsInfo.add(
-                    new ItemInfo(
-                            getItemStringIdInternal(items, i),
-                            getItemHashInternal(items, i)
-                    )
-            );
+        if (longItemIds) {
+            long[] ids = new long[itemCount];
+            long[] contentHashes = new long[itemCount];
+            ParallelSnapshotBuilder.forEachRange(itemCount, (fromIndex, toIndex) -> {
+                for (int i = fromIndex; i < toIndex; i++) {
+                    BaseItem item = items.get(i);
+                    BaseItemController itemController = item.getItemController();
+                    ids[i] = itemController.getItemLongId(item);
+                    contentHashes[i] = itemController.getItemContentHash(item);
+                }
+            });
+            return new PrimitiveItemInfoSnapshot(ids, contentHashes, (List) items);
         }
-        return extractedItemsInfo;
+        ItemInfo[] extractedItemsInfo = new ItemInfo[itemCount];
+        ParallelSnapshotBuilder.forEachRange(itemCount, (fromIndex, toIndex) -> {
+            for (int i = fromIndex; i < toIndex; i++) {
+                BaseItem item = items.get(i);
+                BaseItemController itemController = item.getItemController();
+                extractedItemsInfo[i] = new ItemInfo(
+                        itemController.getItemId(item),
+                        itemController.getItemHash(item)
+                );
+            }
+        });
+        return new ItemInfoListSnapshot(Arrays.asList(extractedItemsInfo), (List) items);
+    }
+
+    private long getItemLongIdInternal(List<BaseItem> items, int position) {
+        BaseItem item = items.get(getListPosition(items, position));
+        return item.getItemController().getItemLongId(item);
     }
 
     private String getItemStringIdInternal(List<BaseItem> items, int position) {
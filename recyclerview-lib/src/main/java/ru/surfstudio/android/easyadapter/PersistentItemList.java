@@ -0,0 +1,465 @@
+/*
+  Copyright (c) 2018-present, SurfStudio LLC, Maxim Tuev.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package ru.surfstudio.android.easyadapter;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.RandomAccess;
+
+import ru.surfstudio.android.easyadapter.controller.BindableItemController;
+import ru.surfstudio.android.easyadapter.item.BaseItem;
+import ru.surfstudio.android.easyadapter.item.BindableItem;
+
+/**
+ * Immutable list of items for RecyclerView, used with {@link EasyAdapter}.
+ * <br>
+ * Every modification returns a new list, which shares all untouched chunks of items with the previous one,
+ * so deriving the next version takes O(log n) time and memory instead of copying the whole list.
+ * Any version can be safely held by the adapter and by the diff worker at the same time,
+ * so {@link EasyAdapter#setItems(PersistentItemList)} never copies it.
+ * <br>
+ * Internally it is a B-tree of chunks with up to {@link #CHUNK_SIZE} items,
+ * with the size of every subtree stored in its parent.
+ * Nodes left less than half full by deletion are merged with a sibling,
+ * so many deletes don't leave the tree of sparse chunks.
+ *
+ * @see ItemList
+ */
+public final class PersistentItemList extends AbstractList<BaseItem> implements RandomAccess {
+
+    static final int CHUNK_SIZE = 32;
+
+    private static final int MIN_CHUNK_SIZE = CHUNK_SIZE / 2;
+
+    private static final PersistentItemList EMPTY = new PersistentItemList(new Leaf(new Object[0]));
+
+    private final Node root;
+
+    private PersistentItemList(Node root) {
+        this.root = root;
+    }
+
+    /**
+     * @return empty list
+     */
+    public static PersistentItemList empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Create list with items in O(n)
+     *
+     * @param items items of list
+     * @return list with items
+     */
+    public static PersistentItemList of(@NonNull Collection<? extends BaseItem> items) {
+        if (items.isEmpty()) {
+            return EMPTY;
+        }
+        Object[] source = items.toArray();
+        Node[] level = new Node[(source.length + CHUNK_SIZE - 1) / CHUNK_SIZE];
+        for (int i = 0; i < level.length; i++) {
+            int from = i * CHUNK_SIZE;
+            Object[] chunk = new Object[Math.min(CHUNK_SIZE, source.length - from)];
+            System.arraycopy(source, from, chunk, 0, chunk.length);
+            level[i] = new Leaf(chunk);
+        }
+        while (level.length > 1) {
+            Node[] upperLevel = new Node[(level.length + CHUNK_SIZE - 1) / CHUNK_SIZE];
+            for (int i = 0; i < upperLevel.length; i++) {
+                int from = i * CHUNK_SIZE;
+                Node[] children = new Node[Math.min(CHUNK_SIZE, level.length - from)];
+                System.arraycopy(level, from, children, 0, children.length);
+                upperLevel[i] = new Branch(children);
+            }
+            level = upperLevel;
+        }
+        return new PersistentItemList(level[0]);
+    }
+
+    @Override
+    public BaseItem get(int index) {
+        checkIndex(index, root.size);
+        return root.get(index);
+    }
+
+    @Override
+    public int size() {
+        return root.size;
+    }
+
+    /**
+     * @param item item to add
+     * @return new list with item added to the end
+     */
+    public PersistentItemList append(@NonNull BaseItem item) {
+        return insert(root.size, item);
+    }
+
+    /**
+     * @param data           data to add
+     * @param itemController controller to handle data and process it to {@link RecyclerView}
+     * @param <T>            data type
+     * @return new list with data added to the end
+     */
+    public <T> PersistentItemList append(T data,
+                                         BindableItemController<T, ? extends RecyclerView.ViewHolder> itemController) {
+        return append(new BindableItem<>(data, itemController));
+    }
+
+    /**
+     * @param items items to add
+     * @return new list with items added to the end
+     */
+    public PersistentItemList appendAll(@NonNull Collection<? extends BaseItem> items) {
+        if (root.size == 0) {
+            return of(items);
+        }
+        PersistentItemList result = this;
+        for (BaseItem item : items) {
+            result = result.append(item);
+        }
+        return result;
+    }
+
+    /**
+     * @param index position to insert item at
+     * @param item  item to insert
+     * @return new list with inserted item
+     */
+    public PersistentItemList insert(int index, @NonNull BaseItem item) {
+        if (index < 0 || index > root.size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + root.size);
+        }
+        Node[] nodes = root.insert(index, item);
+        return new PersistentItemList(nodes.length == 1 ? nodes[0] : new Branch(nodes));
+    }
+
+    /**
+     * @param index          position to insert data at
+     * @param data           data to insert
+     * @param itemController controller to handle data and process it to {@link RecyclerView}
+     * @param <T>            data type
+     * @return new list with inserted data
+     */
+    public <T> PersistentItemList insert(int index,
+                                         T data,
+                                         BindableItemController<T, ? extends RecyclerView.ViewHolder> itemController) {
+        return insert(index, new BindableItem<>(data, itemController));
+    }
+
+    /**
+     * @param index position of item to replace
+     * @param item  new item
+     * @return new list with replaced item
+     */
+    public PersistentItemList replace(int index, @NonNull BaseItem item) {
+        checkIndex(index, root.size);
+        return new PersistentItemList(root.replace(index, item));
+    }
+
+    /**
+     * @param index position of item to remove
+     * @return new list without item
+     */
+    public PersistentItemList delete(int index) {
+        checkIndex(index, root.size);
+        Node newRoot = root.delete(index);
+        if (newRoot == null) {
+            return EMPTY;
+        }
+        while (newRoot instanceof Branch && ((Branch) newRoot).children.length == 1) {
+            newRoot = ((Branch) newRoot).children[0];
+        }
+        return new PersistentItemList(newRoot);
+    }
+
+    /**
+     * @return mutable copy of this list
+     */
+    public ItemList toItemList() {
+        return new ItemList(this);
+    }
+
+    /**
+     * @return amount of chunks with items
+     */
+    int chunksCount() {
+        return root.chunksCount();
+    }
+
+    private static void checkIndex(int index, int size) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    private abstract static class Node {
+
+        final int size;
+
+        Node(int size) {
+            this.size = size;
+        }
+
+        abstract BaseItem get(int index);
+
+        /**
+         * @return amount of items in leaf or children in branch
+         */
+        abstract int width();
+
+        abstract int chunksCount();
+
+        abstract Node replace(int index, BaseItem item);
+
+        /**
+         * @return one node, or two nodes if this one was split
+         */
+        abstract Node[] insert(int index, BaseItem item);
+
+        /**
+         * @return new node or null if it became empty
+         */
+        abstract Node delete(int index);
+
+        /**
+         * @param next following node of the same depth
+         * @return one node, or two nodes if contents of both don't fit into one
+         */
+        abstract Node[] merge(Node next);
+    }
+
+    private static final class Leaf extends Node {
+
+        final Object[] items;
+
+        Leaf(Object[] items) {
+            super(items.length);
+            this.items = items;
+        }
+
+        @Override
+        BaseItem get(int index) {
+            return (BaseItem) items[index];
+        }
+
+        @Override
+        int width() {
+            return items.length;
+        }
+
+        @Override
+        int chunksCount() {
+            return 1;
+        }
+
+        @Override
+        Node replace(int index, BaseItem item) {
+            Object[] newItems = items.clone();
+            newItems[index] = item;
+            return new Leaf(newItems);
+        }
+
+        @Override
+        Node[] insert(int index, BaseItem item) {
+            Object[] newItems = new Object[items.length + 1];
+            System.arraycopy(items, 0, newItems, 0, index);
+            newItems[index] = item;
+            System.arraycopy(items, index, newItems, index + 1, items.length - index);
+            return split(newItems);
+        }
+
+        @Override
+        Node delete(int index) {
+            if (items.length == 1) {
+                return null;
+            }
+            Object[] newItems = new Object[items.length - 1];
+            System.arraycopy(items, 0, newItems, 0, index);
+            System.arraycopy(items, index + 1, newItems, index, newItems.length - index);
+            return new Leaf(newItems);
+        }
+
+        @Override
+        Node[] merge(Node next) {
+            Object[] nextItems = ((Leaf) next).items;
+            Object[] newItems = new Object[items.length + nextItems.length];
+            System.arraycopy(items, 0, newItems, 0, items.length);
+            System.arraycopy(nextItems, 0, newItems, items.length, nextItems.length);
+            return split(newItems);
+        }
+
+        /**
+         * @return one leaf, or two halves if items don't fit into one
+         */
+        private static Node[] split(Object[] items) {
+            if (items.length <= CHUNK_SIZE) {
+                return new Node[]{new Leaf(items)};
+            }
+            int half = items.length / 2;
+            Object[] left = new Object[half];
+            Object[] right = new Object[items.length - half];
+            System.arraycopy(items, 0, left, 0, left.length);
+            System.arraycopy(items, half, right, 0, right.length);
+            return new Node[]{new Leaf(left), new Leaf(right)};
+        }
+    }
+
+    private static final class Branch extends Node {
+
+        final Node[] children;
+
+        /**
+         * Amount of items in children before each child
+         */
+        final int[] offsets;
+
+        Branch(Node[] children) {
+            this(children, computeOffsets(children));
+        }
+
+        private Branch(Node[] children, int[] offsets) {
+            super(offsets[children.length]);
+            this.children = children;
+            this.offsets = offsets;
+        }
+
+        private static int[] computeOffsets(Node[] children) {
+            int[] offsets = new int[children.length + 1];
+            for (int i = 0; i < children.length; i++) {
+                offsets[i + 1] = offsets[i] + children[i].size;
+            }
+            return offsets;
+        }
+
+        /**
+         * @return index of child, which contains item at index, or the last child for index == size
+         */
+        private int childIndex(int index) {
+            int low = 0;
+            int high = children.length - 1;
+            while (low < high) {
+                int middle = (low + high + 1) >>> 1;
+                if (offsets[middle] <= index) {
+                    low = middle;
+                } else {
+                    high = middle - 1;
+                }
+            }
+            return low;
+        }
+
+        @Override
+        BaseItem get(int index) {
+            int child = childIndex(index);
+            return children[child].get(index - offsets[child]);
+        }
+
+        @Override
+        int width() {
+            return children.length;
+        }
+
+        @Override
+        int chunksCount() {
+            int count = 0;
+            for (Node child : children) {
+                count += child.chunksCount();
+            }
+            return count;
+        }
+
+        @Override
+        Node replace(int index, BaseItem item) {
+            int child = childIndex(index);
+            Node[] newChildren = children.clone();
+            newChildren[child] = children[child].replace(index - offsets[child], item);
+            return new Branch(newChildren, offsets);
+        }
+
+        @Override
+        Node[] insert(int index, BaseItem item) {
+            int child = childIndex(index);
+            Node[] inserted = children[child].insert(index - offsets[child], item);
+            return split(replaceChildren(child, 1, inserted));
+        }
+
+        @Override
+        Node delete(int index) {
+            int child = childIndex(index);
+            Node newChild = children[child].delete(index - offsets[child]);
+            if (newChild == null) {
+                if (children.length == 1) {
+                    return null;
+                }
+                return new Branch(replaceChildren(child, 1));
+            }
+            if (newChild.width() >= MIN_CHUNK_SIZE || children.length == 1) {
+                Node[] newChildren = children.clone();
+                newChildren[child] = newChild;
+                return new Branch(newChildren);
+            }
+            // underfull child is merged with a sibling, otherwise deletes would leave a sparse tree
+            Node[] merged;
+            if (child > 0) {
+                child--;
+                merged = children[child].merge(newChild);
+            } else {
+                merged = newChild.merge(children[1]);
+            }
+            return new Branch(replaceChildren(child, 2, merged));
+        }
+
+        @Override
+        Node[] merge(Node next) {
+            Node[] nextChildren = ((Branch) next).children;
+            Node[] newChildren = new Node[children.length + nextChildren.length];
+            System.arraycopy(children, 0, newChildren, 0, children.length);
+            System.arraycopy(nextChildren, 0, newChildren, children.length, nextChildren.length);
+            return split(newChildren);
+        }
+
+        /**
+         * @return copy of children, where count of them starting from index are replaced with nodes
+         */
+        private Node[] replaceChildren(int index, int count, Node... nodes) {
+            Node[] newChildren = new Node[children.length - count + nodes.length];
+            System.arraycopy(children, 0, newChildren, 0, index);
+            System.arraycopy(nodes, 0, newChildren, index, nodes.length);
+            System.arraycopy(children, index + count, newChildren, index + nodes.length, children.length - index - count);
+            return newChildren;
+        }
+
+        /**
+         * @return one branch, or two halves if children don't fit into one
+         */
+        private static Node[] split(Node[] children) {
+            if (children.length <= CHUNK_SIZE) {
+                return new Node[]{new Branch(children)};
+            }
+            int half = children.length / 2;
+            Node[] left = new Node[half];
+            Node[] right = new Node[children.length - half];
+            System.arraycopy(children, 0, left, 0, left.length);
+            System.arraycopy(children, half, right, 0, right.length);
+            return new Node[]{new Branch(left), new Branch(right)};
+        }
+    }
+}
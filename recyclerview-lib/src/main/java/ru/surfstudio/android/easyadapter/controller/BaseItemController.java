@@ -19,9 +19,7 @@ import android.view.ViewGroup;
 
 import androidx.recyclerview.widget.RecyclerView;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Random;
+import java.util.List;
 
 import ru.surfstudio.android.easyadapter.EasyAdapter;
 import ru.surfstudio.android.easyadapter.ItemList;
@@ -40,7 +38,12 @@ public abstract class BaseItemController<H extends RecyclerView.ViewHolder, I ex
 
     public static final long NO_ID = RecyclerView.NO_ID;
 
-    private final static Map<Class<? extends BaseItemController>, Integer> viewTypeIdsMap = new HashMap<>();
+    private static final int VIEW_TYPE_UNDEFINED = 0;
+
+    /**
+     * Cached view type from {@link ViewTypeRegistry}
+     */
+    private int typeHashCode = VIEW_TYPE_UNDEFINED;
 
     /**
      * Bind base item to holder
@@ -50,6 +53,20 @@ public abstract class BaseItemController<H extends RecyclerView.ViewHolder, I ex
      */
     public abstract void bind(H holder, I item);
 
+    /**
+     * Bind changes of base item to holder.
+     * Called instead of {@link #bind(RecyclerView.ViewHolder, BaseItem)} when item's contents were changed
+     * and {@link #getChangePayload(BaseItem, BaseItem)} returned payload, so only changed views could be updated.
+     * By default, binds the whole item.
+     *
+     * @param holder   holder to retrieve item
+     * @param item     item to bind
+     * @param payloads non-empty list of payloads, returned by {@link #getChangePayload(BaseItem, BaseItem)}
+     */
+    public void bind(H holder, I item, List<Object> payloads) {
+        bind(holder, item);
+    }
+
     /**
      * Create holder inside parent
      *
@@ -71,6 +88,10 @@ public abstract class BaseItemController<H extends RecyclerView.ViewHolder, I ex
     /**
      * Get the unique id for item.
      * Method is used for automatically call notify... methods, see {@link EasyAdapter}.
+     * <p>
+     * It is called in a worker thread if asynchronous diff calculation is enabled
+     * or if snapshot of items is built in parallel, see {@code ParallelSnapshotBuilder.parallelThreshold},
+     * so it must not touch views or mutable state without synchronization.
      *
      * @param item item
      * @return unique id retrieved from item
@@ -81,7 +102,8 @@ public abstract class BaseItemController<H extends RecyclerView.ViewHolder, I ex
 
     /**
      * Get the item hashcode.
-     * Method is used for automatically call notify... methods, see {@link EasyAdapter}
+     * Method is used for automatically call notify... methods, see {@link EasyAdapter}.
+     * It is called in the same threads as {@link #getItemId(BaseItem)}.
      *
      * @param item item
      * @return hashcode of the item
@@ -89,29 +111,82 @@ public abstract class BaseItemController<H extends RecyclerView.ViewHolder, I ex
     public abstract String getItemHash(I item);
 
     /**
-     * @return hash code for this {@link BaseItemController} type
+     * Get the unique 64-bit id for item.
+     * Method is used instead of {@link #getItemId(BaseItem)} when long item ids are enabled,
+     * see {@link EasyAdapter#setLongItemIdsEnabled(boolean)}.
+     * <p>
+     * By default it is a 64-bit hash of {@link #getItemId(BaseItem)}, so it is less collision-prone
+     * than {@link String#hashCode()}, but still builds the String id and allocates as much.
+     * Override it to return real long id, e.g. a database key, to avoid allocations.
+     * It is called in the same threads as {@link #getItemId(BaseItem)}.
+     *
+     * @param item item
+     * @return unique id retrieved from item
+     */
+    public long getItemLongId(I item) {
+        return longHashCode(getItemId(item));
+    }
+
+    /**
+     * Get the item 64-bit content hash.
+     * Method is used instead of {@link #getItemHash(BaseItem)} when long item ids are enabled,
+     * see {@link EasyAdapter#setLongItemIdsEnabled(boolean)}.
+     * <p>
+     * By default it is a 64-bit hash of {@link #getItemHash(BaseItem)}, so it still builds the String hash;
+     * override it to avoid allocations.
+     * It is called in the same threads as {@link #getItemId(BaseItem)}.
+     *
+     * @param item item
+     * @return content hash of the item
+     */
+    public long getItemContentHash(I item) {
+        return longHashCode(getItemHash(item));
+    }
+
+    /**
+     * Get the payload of changes between two versions of the same item.
+     * Method is called when items have the same ids, but different hashes, see {@link EasyAdapter}.
+     * It may be called in a worker thread if asynchronous diff calculation is enabled.
+     *
+     * @param oldItem previous version of item
+     * @param newItem current version of item
+     * @return payload, passed to {@link #bind(RecyclerView.ViewHolder, BaseItem, List)},
+     * or null to rebind the whole item
+     */
+    public Object getChangePayload(I oldItem, I newItem) {
+        return null;
+    }
+
+    /**
+     * @return hash code for this {@link BaseItemController} type, unique and stable within the process
+     * @see ViewTypeRegistry
      */
     protected int getTypeHashCode() {
-        final Class<? extends BaseItemController> clazz = getClass();
-        Integer id = viewTypeIdsMap.get(clazz);
-        if (id == null) {
-            id = new Random().nextInt();
-            boolean hasId = false;
-            for (Map.Entry<Class<? extends BaseItemController>, Integer> e : viewTypeIdsMap.entrySet()) {
-                if (id.equals(e.getValue())) {
-                    hasId = true;
-                    break;
-                }
-            }
-            if (hasId) {
-                return getTypeHashCode();
-            }
-            viewTypeIdsMap.put(clazz, id);
+        int typeHashCode = this.typeHashCode;
+        if (typeHashCode == VIEW_TYPE_UNDEFINED) {
+            // benign race: every thread gets the same value from registry
+            typeHashCode = ViewTypeRegistry.getViewType(getClass());
+            this.typeHashCode = typeHashCode;
         }
-        return id;
+        return typeHashCode;
     }
 
     protected String getTypeStringHashCode() {
         return String.valueOf(getTypeHashCode());
     }
+
+    /**
+     * @return 64-bit FNV-1a hash of the value, which is far less collision-prone than {@link String#hashCode()}
+     */
+    protected static long longHashCode(String value) {
+        if (value == null) {
+            return 0;
+        }
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
 }
@@ -16,6 +16,8 @@
 package ru.surfstudio.android.easyadapter.controller;
 
 
+import java.util.List;
+
 import ru.surfstudio.android.easyadapter.EasyAdapter;
 import ru.surfstudio.android.easyadapter.ItemList;
 import ru.surfstudio.android.easyadapter.holder.BindableViewHolder;
@@ -55,6 +57,22 @@ public abstract class BindableItemController<T, H extends BindableViewHolder<T>>
         holder.bind(data);
     }
 
+    @Override
+    public final void bind(H holder, BindableItem<T, H> item, List<Object> payloads) {
+        bind(holder, item.getData(), payloads);
+    }
+
+    /**
+     * Bind changes of data to holder
+     *
+     * @param holder   holder to retrieve item
+     * @param data     data to bind
+     * @param payloads non-empty list of payloads, returned by {@link #getChangePayload(Object, Object)}
+     */
+    public void bind(H holder, T data, List<Object> payloads) {
+        holder.bind(data, payloads);
+    }
+
     @Override
     public final String getItemId(BindableItem<T, H> item) {
         return getItemId(item.getData());
@@ -65,9 +83,26 @@ public abstract class BindableItemController<T, H extends BindableViewHolder<T>>
         return getItemHash(item.getData());
     }
 
+    @Override
+    public final long getItemLongId(BindableItem<T, H> item) {
+        return getItemLongId(item.getData());
+    }
+
+    @Override
+    public final long getItemContentHash(BindableItem<T, H> item) {
+        return getItemContentHash(item.getData());
+    }
+
+    @Override
+    public final Object getChangePayload(BindableItem<T, H> oldItem, BindableItem<T, H> newItem) {
+        return getChangePayload(oldItem.getData(), newItem.getData());
+    }
+
     /**
      * Get the unique id for data.
      * Method is used for automatically call notify... methods, see {@link EasyAdapter}.
+     * Like other ids and hashes getters, it may be called in a worker thread,
+     * see {@link BaseItemController#getItemId}.
      *
      * @param data data
      * @return unique id retrieved from data
@@ -84,4 +119,44 @@ public abstract class BindableItemController<T, H extends BindableViewHolder<T>>
     protected String getItemHash(T data) {
         return String.valueOf(data == null ? 0 : data.hashCode());
     }
+
+    /**
+     * Get the unique 64-bit id for data.
+     * Method is used when long item ids are enabled, see {@link EasyAdapter#setLongItemIdsEnabled(boolean)}.
+     * <p>
+     * By default it is a 64-bit hash of {@link #getItemId(Object)}, so it still builds the String id;
+     * override it to return real long id of data without allocations.
+     *
+     * @param data data
+     * @return unique id retrieved from data
+     */
+    protected long getItemLongId(T data) {
+        return longHashCode(getItemId(data));
+    }
+
+    /**
+     * Get the data 64-bit content hash.
+     * Method is used when long item ids are enabled, see {@link EasyAdapter#setLongItemIdsEnabled(boolean)}
+     * <p>
+     * By default it is {@link Object#hashCode()} of data widened to long, so it doesn't allocate,
+     * but it is as collision-prone as the 32-bit hash; override it to hash all fields of data into 64 bits.
+     *
+     * @param data data
+     * @return content hash of the data
+     */
+    protected long getItemContentHash(T data) {
+        return data == null ? 0 : data.hashCode();
+    }
+
+    /**
+     * Get the payload of changes between two versions of data with the same id.
+     * It may be called in a worker thread if asynchronous diff calculation is enabled.
+     *
+     * @param oldData previous version of data
+     * @param newData current version of data
+     * @return payload, passed to {@link #bind(BindableViewHolder, Object, List)}, or null to rebind the whole data
+     */
+    protected Object getChangePayload(T oldData, T newData) {
+        return null;
+    }
 }
@@ -0,0 +1,137 @@
+/*
+  Copyright (c) 2018-present, SurfStudio LLC, Maxim Tuev.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package ru.surfstudio.android.easyadapter.controller;
+
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.RecyclerView;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import ru.surfstudio.android.easyadapter.EasyAdapter;
+import ru.surfstudio.android.easyadapter.ItemList;
+import ru.surfstudio.android.easyadapter.item.BaseItem;
+import ru.surfstudio.android.easyadapter.item.BindableItem;
+
+/**
+ * Pool of {@link BindableItem}s of the previous item list generation, used by {@link EasyAdapter} in item reuse mode.
+ * <p>
+ * Item of the previous generation is reused, if it has the same controller and the same 64-bit id
+ * (see {@link BindableItemController#getItemLongId(Object)}) and equal data, so unchanged items are never allocated again.
+ * Items with changed data are created anew, because previous generation may still be displayed
+ * or compared with the new one during diff calculation.
+ * <p>
+ * Index of the previous generation is built in preallocated arrays, so steady-state updates
+ * allocate objects only for changed items and for the resulting list.
+ */
+public final class BindableItemPool {
+
+    private static final int EMPTY_SLOT = 0;
+    private static final int REUSED_SLOT = -1;
+
+    /**
+     * Open addressing hash table of previous items positions, shifted by one
+     */
+    private int[] table = new int[0];
+    private long[] previousIds = new long[0];
+
+    /**
+     * Create items for data, reusing items of previous generation.
+     *
+     * @param previousItems  items of previous generation
+     * @param ids            64-bit ids of previous items if they are already known, or null
+     * @param data           new data
+     * @param itemController controller of new items
+     * @param extraCapacity  amount of items, which will be added to the resulting list
+     * @param <T>            data type
+     * @return new list of items
+     */
+    @SuppressWarnings("unchecked")
+    public <T> ItemList obtainItems(List<BaseItem> previousItems,
+                                    @Nullable long[] ids,
+                                    Collection<T> data,
+                                    BindableItemController<T, ? extends RecyclerView.ViewHolder> itemController,
+                                    int extraCapacity) {
+        final BindableItemController<T, ?> controller = (BindableItemController<T, ?>) itemController;
+        final int previousCount = previousItems.size();
+        final int mask = prepareTable(previousCount);
+        final long[] previousIds = ids != null ? ids : this.previousIds;
+        for (int i = 0; i < previousCount; i++) {
+            BaseItem item = previousItems.get(i);
+            BaseItemController previousController = item.getItemController();
+            if (previousController != controller) continue;
+            if (ids == null) {
+                previousIds[i] = previousController.getItemLongId(item);
+            }
+            int slot = mix(previousIds[i]) & mask;
+            while (table[slot] != EMPTY_SLOT) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = i + 1;
+        }
+
+        ItemList items = new ItemList(data.size() + extraCapacity);
+        for (T newData : data) {
+            BaseItem item = findPreviousItem(previousItems, previousIds, mask, controller.getItemLongId(newData), newData);
+            items.add(item != null ? item : new BindableItem<>(newData, itemController));
+        }
+        return items;
+    }
+
+    private <T> BaseItem findPreviousItem(List<BaseItem> previousItems, long[] previousIds, int mask, long id, T data) {
+        int slot = mix(id) & mask;
+        while (table[slot] != EMPTY_SLOT) {
+            int position = table[slot] - 1;
+            if (position >= 0 && previousIds[position] == id) {
+                BindableItem<T, ?> item = (BindableItem<T, ?>) previousItems.get(position);
+                T previousData = item.getData();
+                if (previousData == data || previousData != null && previousData.equals(data)) {
+                    // the same item must not be used twice
+                    table[slot] = REUSED_SLOT;
+                    return item;
+                }
+                return null;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * @return mask of table for the amount of items
+     */
+    private int prepareTable(int count) {
+        int capacity = 2;
+        while (capacity < count * 2) {
+            capacity <<= 1;
+        }
+        if (table.length < capacity) {
+            table = new int[capacity];
+        } else {
+            Arrays.fill(table, 0, capacity, EMPTY_SLOT);
+        }
+        if (previousIds.length < count) {
+            previousIds = new long[capacity / 2];
+        }
+        return capacity - 1;
+    }
+
+    private static int mix(long id) {
+        int hash = (int) (id ^ (id >>> 32)) * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -15,6 +15,8 @@
  */
 package ru.surfstudio.android.easyadapter.controller;
 
+import java.util.List;
+
 import ru.surfstudio.android.easyadapter.EasyAdapter;
 import ru.surfstudio.android.easyadapter.ItemList;
 import ru.surfstudio.android.easyadapter.holder.DoubleBindableViewHolder;
@@ -55,6 +57,23 @@ public abstract class DoubleBindableItemController<T1, T2, H extends DoubleBinda
         holder.bind(firstData, secondData);
     }
 
+    @Override
+    public final void bind(H holder, DoubleBindableItem<T1, T2, H> item, List<Object> payloads) {
+        bind(holder, item.getFirstData(), item.getSecondData(), payloads);
+    }
+
+    /**
+     * Bind changes of two blocks of data to holder
+     *
+     * @param holder     holder to retrieve item
+     * @param firstData  first data to bind
+     * @param secondData second data to bind
+     * @param payloads   non-empty list of payloads, returned by {@link #getChangePayload(Object, Object, Object, Object)}
+     */
+    public void bind(H holder, T1 firstData, T2 secondData, List<Object> payloads) {
+        holder.bind(firstData, secondData, payloads);
+    }
+
     @Override
     public final String getItemId(DoubleBindableItem<T1, T2, H> item) {
         return getItemId(item.getFirstData(), item.getSecondData());
@@ -65,9 +84,31 @@ public abstract class DoubleBindableItemController<T1, T2, H extends DoubleBinda
         return getItemHash(item.getFirstData(), item.getSecondData());
     }
 
+    @Override
+    public final long getItemLongId(DoubleBindableItem<T1, T2, H> item) {
+        return getItemLongId(item.getFirstData(), item.getSecondData());
+    }
+
+    @Override
+    public final long getItemContentHash(DoubleBindableItem<T1, T2, H> item) {
+        return getItemContentHash(item.getFirstData(), item.getSecondData());
+    }
+
+    @Override
+    public final Object getChangePayload(DoubleBindableItem<T1, T2, H> oldItem, DoubleBindableItem<T1, T2, H> newItem) {
+        return getChangePayload(
+                oldItem.getFirstData(),
+                oldItem.getSecondData(),
+                newItem.getFirstData(),
+                newItem.getSecondData()
+        );
+    }
+
     /**
      * Get the unique id for two blocks of data
      * Method is used for automatically call notify... methods, see {@link EasyAdapter}.
+     * Like other ids and hashes getters, it may be called in a worker thread,
+     * see {@link BaseItemController#getItemId}.
      *
      * @param firstData  first data
      * @param secondData second data
@@ -89,4 +130,50 @@ public abstract class DoubleBindableItemController<T1, T2, H extends DoubleBinda
                 firstData == null ? 0 : firstData.hashCode() +
                         (secondData == null ? 0 : secondData.hashCode()));
     }
+
+    /**
+     * Get the unique 64-bit id for two blocks of data.
+     * Method is used when long item ids are enabled, see {@link EasyAdapter#setLongItemIdsEnabled(boolean)}.
+     * <p>
+     * By default it is a 64-bit hash of {@link #getItemId(Object, Object)}, so it still builds the String id;
+     * override it to return real long id of data without allocations.
+     *
+     * @param firstData  first data
+     * @param secondData second data
+     * @return unique id retrieved from two blocks of data
+     */
+    protected long getItemLongId(T1 firstData, T2 secondData) {
+        return longHashCode(getItemId(firstData, secondData));
+    }
+
+    /**
+     * Get the data 64-bit content hash.
+     * Method is used when long item ids are enabled, see {@link EasyAdapter#setLongItemIdsEnabled(boolean)}
+     * <p>
+     * By default it combines {@link Object#hashCode()} of both data, so it doesn't allocate,
+     * but every part is only a 32-bit hash; override it to hash all fields of data into 64 bits.
+     *
+     * @param firstData  first data
+     * @param secondData second data
+     * @return content hash of data
+     */
+    protected long getItemContentHash(T1 firstData, T2 secondData) {
+        return 31L * (firstData == null ? 0 : firstData.hashCode())
+                + (secondData == null ? 0 : secondData.hashCode());
+    }
+
+    /**
+     * Get the payload of changes between two versions of two blocks of data with the same id.
+     * It may be called in a worker thread if asynchronous diff calculation is enabled.
+     *
+     * @param oldFirstData  previous version of first data
+     * @param oldSecondData previous version of second data
+     * @param newFirstData  current version of first data
+     * @param newSecondData current version of second data
+     * @return payload, passed to {@link #bind(DoubleBindableViewHolder, Object, Object, List)},
+     * or null to rebind the whole data
+     */
+    protected Object getChangePayload(T1 oldFirstData, T2 oldSecondData, T1 newFirstData, T2 newSecondData) {
+        return null;
+    }
 }
@@ -36,9 +36,24 @@ import ru.surfstudio.android.easyadapter.item.NoDataItem;
 public abstract class NoDataItemController<H extends RecyclerView.ViewHolder>
         extends BaseItemController<H, NoDataItem<H>> {
 
+    private static final String ITEM_ID_PREFIX = "NoData:";
+
+    private String itemId;
+
+    /**
+     * Id is built from the controller class name, so it never matches ids of data items,
+     * unlike view type, which is a small sequential number, see {@link ViewTypeRegistry}.
+     * Long id is a hash of this one, see {@link BaseItemController#getItemLongId(BaseItem)}.
+     */
     @Override
     public String getItemId(NoDataItem<H> item) {
-        return getTypeStringHashCode();
+        String itemId = this.itemId;
+        if (itemId == null) {
+            // benign race: every thread builds the same value
+            itemId = ITEM_ID_PREFIX + getClass().getName();
+            this.itemId = itemId;
+        }
+        return itemId;
     }
 
     /**
@@ -63,4 +78,9 @@ public abstract class NoDataItemController<H extends RecyclerView.ViewHolder>
     public String getItemHash(NoDataItem<H> item) {
         return "0";
     }
+
+    @Override
+    public long getItemContentHash(NoDataItem<H> item) {
+        return 0;
+    }
 }
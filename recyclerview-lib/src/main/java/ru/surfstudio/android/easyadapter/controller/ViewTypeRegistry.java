@@ -0,0 +1,62 @@
+/*
+  Copyright (c) 2018-present, SurfStudio LLC, Maxim Tuev.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package ru.surfstudio.android.easyadapter.controller;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process-wide registry of view types for {@link BaseItemController} classes.
+ * <p>
+ * View types are compact and sequential, assigned in order of the first request for the class,
+ * so every adapter gets the same view type for the same controller class
+ * and {@link androidx.recyclerview.widget.RecyclerView.RecycledViewPool} can be shared between them.
+ * <p>
+ * Lookup of already registered class is lock-free, registration of a new one is synchronized.
+ */
+public final class ViewTypeRegistry {
+
+    /**
+     * View type of the first registered controller class
+     */
+    public static final int FIRST_VIEW_TYPE = 1;
+
+    private static final ConcurrentHashMap<Class<?>, Integer> viewTypes = new ConcurrentHashMap<>();
+    private static int nextViewType = FIRST_VIEW_TYPE;
+
+    private ViewTypeRegistry() {
+    }
+
+    /**
+     * Get the view type of controller class, registering it if necessary
+     *
+     * @param controllerClass class of controller
+     * @return view type of controller class
+     */
+    public static int getViewType(Class<? extends BaseItemController> controllerClass) {
+        Integer viewType = viewTypes.get(controllerClass);
+        if (viewType != null) {
+            return viewType;
+        }
+        synchronized (viewTypes) {
+            viewType = viewTypes.get(controllerClass);
+            if (viewType == null) {
+                viewType = nextViewType++;
+                viewTypes.put(controllerClass, viewType);
+            }
+            return viewType;
+        }
+    }
+}
@@ -17,7 +17,7 @@ package ru.surfstudio.android.easyadapter.diff
 
 import ru.surfstudio.android.easyadapter.diff.base.Differ
 import ru.surfstudio.android.easyadapter.diff.base.BaseDiffer
-import ru.surfstudio.android.easyadapter.diff.base.DiffCallbackCreator
+import ru.surfstudio.android.easyadapter.diff.base.DiffCalculator
 import ru.surfstudio.android.easyadapter.diff.base.DiffResultApplier
 import androidx.recyclerview.widget.DiffUtil.DiffResult
 
@@ -26,5 +26,5 @@ import androidx.recyclerview.widget.DiffUtil.DiffResult
  */
 internal class DefaultDiffer(
         diffResultApplier: DiffResultApplier,
-        diffCallbackCreator: DiffCallbackCreator
-) : BaseDiffer(diffResultApplier, diffCallbackCreator)
\ No newline at end of file
+        diffCalculator: DiffCalculator
+) : BaseDiffer(diffResultApplier, diffCalculator)
\ No newline at end of file
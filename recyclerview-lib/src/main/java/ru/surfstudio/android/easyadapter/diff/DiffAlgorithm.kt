@@ -0,0 +1,38 @@
+/*
+  Copyright (c) 2018-present, SurfStudio LLC, Maxim Tuev.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package ru.surfstudio.android.easyadapter.diff
+
+import androidx.recyclerview.widget.DiffUtil
+
+/**
+ * Enum with algorithms of difference calculation between old and new item lists.
+ */
+enum class DiffAlgorithm {
+
+    /**
+     * [DiffUtil] with move detection, applied to the part of lists
+     * which remains after trimming of common prefix and suffix.
+     * Suitable for any lists.
+     */
+    DIFF_UTIL,
+
+    /**
+     * Linear hash-map based diff with moves approximated by longest increasing subsequence.
+     * Much faster than [DIFF_UTIL] on large lists with many changes (for example, sorting),
+     * but requires unique item ids: falls back to [DIFF_UTIL] if duplicates are detected.
+     */
+    KEYED
+}
\ No newline at end of file
@@ -0,0 +1,136 @@
+/*
+  Copyright (c) 2018-present, SurfStudio LLC, Maxim Tuev.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package ru.surfstudio.android.easyadapter.diff.async
+
+import ru.surfstudio.android.easyadapter.diff.EditDistanceEstimator
+import ru.surfstudio.android.easyadapter.diff.async.base.AsyncDiffer
+import ru.surfstudio.android.easyadapter.diff.async.base.BaseAsyncDiffer
+import ru.surfstudio.android.easyadapter.diff.base.DiffCalculator
+import ru.surfstudio.android.easyadapter.diff.base.DiffResultApplier
+import ru.surfstudio.android.easyadapter.diff.base.data.DiffCalculationBundle
+import ru.surfstudio.android.easyadapter.diff.base.data.DiffResultBundle
+import java.util.*
+
+/**
+ * [AsyncDiffer], which uses [AsyncDiffStrategy.ADAPTIVE] strategy to handle
+ * pending updates of a RecyclerView adapter backing item list.
+ *
+ * Expected cost of update is the total amount of old and new items multiplied by
+ * exponential moving average of calculation duration per item of this adapter.
+ * Updates cheaper than [INLINE_BUDGET_NANOS] are calculated in the main thread when nothing is pending,
+ * the rest are handled like in [ApplyLatestAsyncDiffer].
+ */
+internal class AdaptiveAsyncDiffer(
+        diffResultApplier: DiffResultApplier,
+        diffCalculator: DiffCalculator
+) : BaseAsyncDiffer(diffResultApplier, diffCalculator) {
+
+    private val pendingUpdates: Deque<DiffCalculationBundle> = ArrayDeque()
+
+    @Volatile
+    private var nanosPerItem = INITIAL_NANOS_PER_ITEM
+
+    override fun calculateDiffInternal(diffCalculationBundle: DiffCalculationBundle) {
+        pendingUpdates.push(diffCalculationBundle)
+        if (pendingUpdates.size > 1) return
+
+        if (getExpectedCostNanos(diffCalculationBundle) < INLINE_BUDGET_NANOS) {
+            val diffResultBundle = calculateDiffResult(diffCalculationBundle) ?: return
+            // result is posted like in DefaultDiffer, so adapter isn't notified during layout;
+            // it is dropped after cancel like results of async calculations
+            val taskGeneration = generation
+            postToMainThread {
+                if (taskGeneration == generation) {
+                    applyDiffResult(diffResultBundle)
+                }
+            }
+        } else {
+            startDiffCalculation(diffCalculationBundle)
+        }
+    }
+
+    override fun shouldCalculateDiff(diffCalculationBundle: DiffCalculationBundle): Boolean {
+        if (getExpectedCostNanos(diffCalculationBundle) < INLINE_BUDGET_NANOS) return true
+        val oldItemInfo = diffCalculationBundle.oldItemInfo
+        val newItemInfo = diffCalculationBundle.newItemInfo
+        // first fill and clear are linear and keep insert and remove animations
+        if (oldItemInfo.size == 0 || newItemInfo.size == 0) return true
+        val estimatedDistance = EditDistanceEstimator.estimate(oldItemInfo, newItemInfo)
+        return estimatedDistance < (oldItemInfo.size + newItemInfo.size) * MAX_EDIT_DISTANCE_RATIO
+    }
+
+    override fun applyDiffResult(diffResultBundle: DiffResultBundle) {
+        updateCostModel(diffResultBundle)
+        pendingUpdates.remove(diffResultBundle.calculationBundle)
+        if (pendingUpdates.isNotEmpty()) {
+            val latest = pendingUpdates.pop()
+            // calculated update and the rest of pending ones are never displayed
+            latest.skippedSnapshotsCount += pendingUpdates.size + 1 + diffResultBundle.calculationBundle.skippedSnapshotsCount
+            pendingUpdates.clear()
+            startDiffCalculation(latest)
+        } else {
+            diffResultApplier.apply(diffResultBundle)
+        }
+    }
+
+    override fun dropPendingUpdates(): DiffCalculationBundle? {
+        val latest = pendingUpdates.peekFirst()
+        // the oldest one may be calculated right now
+        pendingUpdates.forEach { it.cancellationToken.cancel() }
+        pendingUpdates.clear()
+        return latest
+    }
+
+    private fun getExpectedCostNanos(diffCalculationBundle: DiffCalculationBundle): Double =
+            getItemsCount(diffCalculationBundle) * nanosPerItem
+
+    private fun getItemsCount(diffCalculationBundle: DiffCalculationBundle): Int =
+            diffCalculationBundle.oldItemInfo.size + diffCalculationBundle.items.size
+
+    private fun updateCostModel(diffResultBundle: DiffResultBundle) {
+        // skipped calculations say nothing about cost of diff
+        if (diffResultBundle.diffResult == null) return
+        val itemsCount = getItemsCount(diffResultBundle.calculationBundle)
+        if (itemsCount < MIN_MEASURED_ITEMS_COUNT) return
+        val sample = diffResultBundle.calculationTimeNanos.toDouble() / itemsCount
+        nanosPerItem += (sample - nanosPerItem) * SMOOTHING_FACTOR
+    }
+
+    private companion object {
+
+        /**
+         * Maximum expected duration of update calculated in the main thread
+         */
+        const val INLINE_BUDGET_NANOS = 2_000_000.0
+
+        /**
+         * Pessimistic estimation used before the first measured calculation
+         */
+        const val INITIAL_NANOS_PER_ITEM = 1_000.0
+
+        const val SMOOTHING_FACTOR = 0.25
+
+        /**
+         * Measurements of tiny lists are dominated by constant overhead
+         */
+        const val MIN_MEASURED_ITEMS_COUNT = 64
+
+        /**
+         * Share of inserted and removed items of all items, starting from which diff is not calculated
+         */
+        const val MAX_EDIT_DISTANCE_RATIO = 0.5
+    }
+}
\ No newline at end of file
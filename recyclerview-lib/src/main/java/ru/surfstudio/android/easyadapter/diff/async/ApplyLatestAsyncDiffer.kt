@@ -17,7 +17,7 @@ package ru.surfstudio.android.easyadapter.diff.async
 
 import ru.surfstudio.android.easyadapter.diff.async.base.AsyncDiffer
 import ru.surfstudio.android.easyadapter.diff.async.base.BaseAsyncDiffer
-import ru.surfstudio.android.easyadapter.diff.base.DiffCallbackCreator
+import ru.surfstudio.android.easyadapter.diff.base.DiffCalculator
 import ru.surfstudio.android.easyadapter.diff.base.DiffResultApplier
 import ru.surfstudio.android.easyadapter.diff.base.data.DiffCalculationBundle
 import ru.surfstudio.android.easyadapter.diff.base.data.DiffResultBundle
@@ -29,8 +29,8 @@ import java.util.*
  */
 internal class ApplyLatestAsyncDiffer(
         diffResultApplier: DiffResultApplier,
-        diffCallbackCreator: DiffCallbackCreator
-) : BaseAsyncDiffer(diffResultApplier, diffCallbackCreator) {
+        diffCalculator: DiffCalculator
+) : BaseAsyncDiffer(diffResultApplier, diffCalculator) {
 
     private val pendingUpdates: Deque<DiffCalculationBundle> = ArrayDeque()
 
@@ -45,10 +45,18 @@ internal class ApplyLatestAsyncDiffer(
         pendingUpdates.remove(diffResultBundle.calculationBundle)
         if (pendingUpdates.isNotEmpty()) {
             val latest = pendingUpdates.pop()
+            // calculated update and the rest of pending ones are never displayed
+            latest.skippedSnapshotsCount += pendingUpdates.size + 1 + diffResultBundle.calculationBundle.skippedSnapshotsCount
             pendingUpdates.clear()
             startDiffCalculation(latest)
         } else {
             diffResultApplier.apply(diffResultBundle)
         }
     }
+
+    override fun dropPendingUpdates(): DiffCalculationBundle? {
+        val latest = pendingUpdates.peekFirst()
+        pendingUpdates.clear()
+        return latest
+    }
 }
\ No newline at end of file
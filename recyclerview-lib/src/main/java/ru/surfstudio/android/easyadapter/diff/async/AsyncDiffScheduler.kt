@@ -0,0 +1,98 @@
+/*
+  Copyright (c) 2018-present, SurfStudio LLC, Maxim Tuev.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package ru.surfstudio.android.easyadapter.diff.async
+
+import android.os.Process
+import androidx.recyclerview.widget.DiffUtil.DiffResult
+import java.util.concurrent.Executor
+import java.util.concurrent.LinkedBlockingQueue
+import java.util.concurrent.ThreadFactory
+import java.util.concurrent.ThreadPoolExecutor
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+
+/**
+ * Process-wide scheduler of asynchronous [DiffResult] calculations.
+ *
+ * Every async differ of every EasyAdapter submits its work here,
+ * so the amount of worker threads doesn't depend on the amount of adapters.
+ * By default, work is executed on a bounded pool which size depends on the amount of CPU cores
+ * and which threads are released after [KEEP_ALIVE_SECONDS] of inactivity.
+ */
+object AsyncDiffScheduler {
+
+    private const val MAX_WORKERS_COUNT = 4
+    private const val KEEP_ALIVE_SECONDS = 30L
+
+    /**
+     * Amount of worker threads of the default executor
+     */
+    @JvmField
+    val DEFAULT_WORKERS_COUNT = (Runtime.getRuntime().availableProcessors() - 1).coerceIn(1, MAX_WORKERS_COUNT)
+
+    private val defaultExecutor: Executor by lazy { createDefaultExecutor() }
+
+    @Volatile
+    private var customExecutor: Executor? = null
+
+    /**
+     * [Executor] which is used for diff calculations.
+     * Set custom one to share threads with the rest of application (for example, computation scheduler).
+     */
+    @JvmStatic
+    var executor: Executor
+        get() = customExecutor ?: defaultExecutor
+        set(value) {
+            customExecutor = value
+        }
+
+    /**
+     * Restore default bounded [Executor]
+     */
+    @JvmStatic
+    fun resetExecutor() {
+        customExecutor = null
+    }
+
+    internal fun execute(task: Runnable) {
+        executor.execute(task)
+    }
+
+    private fun createDefaultExecutor(): Executor =
+            ThreadPoolExecutor(
+                    DEFAULT_WORKERS_COUNT,
+                    DEFAULT_WORKERS_COUNT,
+                    KEEP_ALIVE_SECONDS,
+                    TimeUnit.SECONDS,
+                    LinkedBlockingQueue(),
+                    DiffThreadFactory()
+            ).apply {
+                allowCoreThreadTimeOut(true)
+            }
+
+    private class DiffThreadFactory : ThreadFactory {
+
+        private val threadNumber = AtomicInteger(1)
+
+        override fun newThread(r: Runnable): Thread =
+                Thread({
+                    Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND)
+                    r.run()
+                }, "EasyAdapter-Diff-${threadNumber.getAndIncrement()}").apply {
+                    isDaemon = true
+                }
+    }
+}
\ No newline at end of file
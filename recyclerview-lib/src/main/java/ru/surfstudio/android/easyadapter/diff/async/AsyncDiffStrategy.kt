@@ -31,8 +31,33 @@ enum class AsyncDiffStrategy {
      */
     APPLY_LATEST,
 
+    /**
+     * Skip all pending item list updates except latest, like [APPLY_LATEST],
+     * but also abandon running calculation as soon as newer update arrives
+     * and start calculation of the latest one immediately.
+     */
+    CANCEL_STALE,
+
     /**
      * Add every item list updates in queue and then handle every item list update.
      */
-    QUEUE_ALL
+    QUEUE_ALL,
+
+    /**
+     * Buffer item list updates until the next frame and calculate only the latest one, like [APPLY_LATEST].
+     * Calculated update is applied by [android.view.Choreographer] frame callback right before traversal,
+     * so any amount of updates within a frame leads to a single layout pass.
+     * Amount of skipped updates is reported to [FrameAlignedUpdateListener].
+     */
+    FRAME_ALIGNED,
+
+    /**
+     * Choose the way of every item list update by its expected cost,
+     * estimated from sizes of the lists and moving average of previous calculations duration:
+     * cheap updates are calculated in the main thread, expensive ones are calculated asynchronously
+     * and skipped like in [APPLY_LATEST].
+     * If the lists have almost nothing in common, diff is not calculated at all
+     * and adapter is notified that the whole data set has changed.
+     */
+    ADAPTIVE
 }
\ No newline at end of file
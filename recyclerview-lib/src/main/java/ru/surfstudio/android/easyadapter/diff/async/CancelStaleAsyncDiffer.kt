@@ -0,0 +1,58 @@
+/*
+  Copyright (c) 2018-present, SurfStudio LLC, Maxim Tuev.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package ru.surfstudio.android.easyadapter.diff.async
+
+import ru.surfstudio.android.easyadapter.diff.async.base.AsyncDiffer
+import ru.surfstudio.android.easyadapter.diff.async.base.BaseAsyncDiffer
+import ru.surfstudio.android.easyadapter.diff.base.DiffCalculator
+import ru.surfstudio.android.easyadapter.diff.base.DiffResultApplier
+import ru.surfstudio.android.easyadapter.diff.base.data.DiffCalculationBundle
+import ru.surfstudio.android.easyadapter.diff.base.data.DiffResultBundle
+
+/**
+ * [AsyncDiffer], which uses [AsyncDiffStrategy.CANCEL_STALE] strategy to handle
+ * pending updates of a RecyclerView adapter backing item list.
+ */
+internal class CancelStaleAsyncDiffer(
+        diffResultApplier: DiffResultApplier,
+        diffCalculator: DiffCalculator
+) : BaseAsyncDiffer(diffResultApplier, diffCalculator) {
+
+    private var latestUpdate: DiffCalculationBundle? = null
+
+    override fun calculateDiffInternal(diffCalculationBundle: DiffCalculationBundle) {
+        latestUpdate?.let {
+            it.cancellationToken.cancel()
+            diffCalculationBundle.skippedSnapshotsCount = it.skippedSnapshotsCount + 1
+        }
+        latestUpdate = diffCalculationBundle
+        startDiffCalculation(diffCalculationBundle)
+    }
+
+    override fun applyDiffResult(diffResultBundle: DiffResultBundle) {
+        // stale calculation might have finished before noticing cancellation
+        if (diffResultBundle.calculationBundle !== latestUpdate) return
+        latestUpdate = null
+        diffResultApplier.apply(diffResultBundle)
+    }
+
+    override fun dropPendingUpdates(): DiffCalculationBundle? {
+        val latest = latestUpdate
+        latest?.cancellationToken?.cancel()
+        latestUpdate = null
+        return latest
+    }
+}
\ No newline at end of file
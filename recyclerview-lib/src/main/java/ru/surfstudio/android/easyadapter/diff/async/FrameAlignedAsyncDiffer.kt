@@ -0,0 +1,115 @@
+/*
+  Copyright (c) 2018-present, SurfStudio LLC, Maxim Tuev.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package ru.surfstudio.android.easyadapter.diff.async
+
+import android.view.Choreographer
+import ru.surfstudio.android.easyadapter.diff.async.base.AsyncDiffer
+import ru.surfstudio.android.easyadapter.diff.async.base.BaseAsyncDiffer
+import ru.surfstudio.android.easyadapter.diff.base.DiffCalculator
+import ru.surfstudio.android.easyadapter.diff.base.DiffResultApplier
+import ru.surfstudio.android.easyadapter.diff.base.data.DiffCalculationBundle
+import ru.surfstudio.android.easyadapter.diff.base.data.DiffResultBundle
+
+/**
+ * [AsyncDiffer], which uses [AsyncDiffStrategy.FRAME_ALIGNED] strategy to handle
+ * pending updates of a RecyclerView adapter backing item list.
+ *
+ * Updates are buffered until the next vsync: only the latest one is calculated,
+ * the rest are counted in [DiffCalculationBundle.skippedSnapshotsCount].
+ * Calculated result is applied by [Choreographer] frame callback, which runs before traversal of the same frame,
+ * so layout is performed once per frame regardless of the amount of updates.
+ */
+internal class FrameAlignedAsyncDiffer(
+        diffResultApplier: DiffResultApplier,
+        diffCalculator: DiffCalculator
+) : BaseAsyncDiffer(diffResultApplier, diffCalculator) {
+
+    private val choreographer: Choreographer by lazy { Choreographer.getInstance() }
+
+    private val frameCallback = Choreographer.FrameCallback { onFrame() }
+    private var isFrameScheduled = false
+
+    /**
+     * Latest update which is waiting for the next frame
+     */
+    private var pendingUpdate: DiffCalculationBundle? = null
+    private var skippedSnapshotsCount = 0
+
+    private var runningUpdate: DiffCalculationBundle? = null
+    private var calculatedResult: DiffResultBundle? = null
+
+    override fun calculateDiffInternal(diffCalculationBundle: DiffCalculationBundle) {
+        if (pendingUpdate != null) {
+            skippedSnapshotsCount++
+        }
+        pendingUpdate = diffCalculationBundle
+        scheduleFrame()
+    }
+
+    override fun applyDiffResult(diffResultBundle: DiffResultBundle) {
+        calculatedResult = diffResultBundle
+        scheduleFrame()
+    }
+
+    override fun dropPendingUpdates(): DiffCalculationBundle? {
+        if (isFrameScheduled) {
+            choreographer.removeFrameCallback(frameCallback)
+            isFrameScheduled = false
+        }
+        val latest = pendingUpdate ?: calculatedResult?.calculationBundle ?: runningUpdate
+        latest?.skippedSnapshotsCount = 0
+        pendingUpdate = null
+        skippedSnapshotsCount = 0
+        runningUpdate = null
+        calculatedResult = null
+        return latest
+    }
+
+    private fun scheduleFrame() {
+        if (isFrameScheduled) return
+        isFrameScheduled = true
+        choreographer.postFrameCallback(frameCallback)
+    }
+
+    private fun onFrame() {
+        isFrameScheduled = false
+
+        calculatedResult?.let { result ->
+            calculatedResult = null
+            runningUpdate = null
+            // pending update was taken against the list before this result
+            pendingUpdate = pendingUpdate?.let { rebase(it, result) }
+            diffResultApplier.apply(result)
+        }
+
+        if (runningUpdate == null) {
+            pendingUpdate?.let { update ->
+                update.skippedSnapshotsCount = skippedSnapshotsCount
+                pendingUpdate = null
+                skippedSnapshotsCount = 0
+                runningUpdate = update
+                startDiffCalculation(update)
+            }
+        }
+    }
+
+    private fun rebase(update: DiffCalculationBundle, appliedResult: DiffResultBundle): DiffCalculationBundle =
+            if (update.oldItemInfo === appliedResult.calculationBundle.oldItemInfo) {
+                update.copy(oldItemInfo = appliedResult.newItemInfo)
+            } else {
+                update
+            }
+}
\ No newline at end of file
@@ -0,0 +1,29 @@
+/*
+  Copyright (c) 2018-present, SurfStudio LLC, Maxim Tuev.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package ru.surfstudio.android.easyadapter.diff.async
+
+/**
+ * Listener of item list updates applied with [AsyncDiffStrategy.FRAME_ALIGNED] strategy.
+ */
+interface FrameAlignedUpdateListener {
+
+    /**
+     * Called right after the latest item list of a frame is dispatched to adapter, before traversal.
+     *
+     * @param skippedSnapshotsCount amount of item lists which were set since previous applied one and never displayed
+     */
+    fun onUpdateApplied(skippedSnapshotsCount: Int)
+}
\ No newline at end of file
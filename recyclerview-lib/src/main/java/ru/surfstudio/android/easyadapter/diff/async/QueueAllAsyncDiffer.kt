@@ -17,7 +17,7 @@ package ru.surfstudio.android.easyadapter.diff.async
 
 import ru.surfstudio.android.easyadapter.diff.async.base.AsyncDiffer
 import ru.surfstudio.android.easyadapter.diff.async.base.BaseAsyncDiffer
-import ru.surfstudio.android.easyadapter.diff.base.DiffCallbackCreator
+import ru.surfstudio.android.easyadapter.diff.base.DiffCalculator
 import ru.surfstudio.android.easyadapter.diff.base.DiffResultApplier
 import ru.surfstudio.android.easyadapter.diff.base.data.DiffCalculationBundle
 import ru.surfstudio.android.easyadapter.diff.base.data.DiffResultBundle
@@ -29,8 +29,8 @@ import java.util.*
  */
 internal class QueueAllAsyncDiffer(
         diffResultApplier: DiffResultApplier,
-        diffCallbackCreator: DiffCallbackCreator
-) : BaseAsyncDiffer(diffResultApplier, diffCallbackCreator) {
+        diffCalculator: DiffCalculator
+) : BaseAsyncDiffer(diffResultApplier, diffCalculator) {
 
     private val pendingUpdates = ArrayDeque<DiffCalculationBundle>()
 
@@ -48,5 +48,11 @@ internal class QueueAllAsyncDiffer(
             startDiffCalculation(pendingUpdates.peek())
         }
     }
+
+    override fun dropPendingUpdates(): DiffCalculationBundle? {
+        val latest = pendingUpdates.peekLast()
+        pendingUpdates.clear()
+        return latest
+    }
 }
 
@@ -21,4 +21,11 @@ import androidx.recyclerview.widget.DiffUtil.DiffResult
 /**
  * [Differ] which capable to calculate [DiffResult] in a worker thread.
  */
-internal interface AsyncDiffer : Differ
\ No newline at end of file
+internal interface AsyncDiffer : Differ {
+
+    /**
+     * Cancel all pending and running calculations.
+     * Latest pending item list is applied immediately without [DiffResult].
+     */
+    fun cancel()
+}
\ No newline at end of file
@@ -15,30 +15,54 @@
  */
 package ru.surfstudio.android.easyadapter.diff.async.base
 
+import ru.surfstudio.android.easyadapter.diff.async.AsyncDiffScheduler
 import ru.surfstudio.android.easyadapter.diff.base.BaseDiffer
-import ru.surfstudio.android.easyadapter.diff.base.DiffCallbackCreator
+import ru.surfstudio.android.easyadapter.diff.base.DiffCalculator
 import ru.surfstudio.android.easyadapter.diff.base.DiffResultApplier
 import ru.surfstudio.android.easyadapter.diff.base.data.DiffCalculationBundle
-import java.util.concurrent.Executors
+import ru.surfstudio.android.easyadapter.diff.base.data.DiffResultBundle
 
 /**
  * Base [AsyncDiffer].
+ *
+ * Calculations are executed by shared [AsyncDiffScheduler].
  */
 internal abstract class BaseAsyncDiffer(
         diffResultApplier: DiffResultApplier,
-        diffCallbackCreator: DiffCallbackCreator
-) : BaseDiffer(diffResultApplier, diffCallbackCreator), AsyncDiffer {
+        diffCalculator: DiffCalculator
+) : BaseDiffer(diffResultApplier, diffCalculator), AsyncDiffer {
 
-    private val diffExecutor = Executors.newFixedThreadPool(DIFF_EXECUTOR_POOL_SIZE)
+    /**
+     * Incremented on each [cancel]; calculations started with previous value are dropped
+     */
+    @Volatile
+    protected var generation = 0
+        private set
 
     override fun startDiffCalculation(diffCalculationBundle: DiffCalculationBundle) {
-        diffExecutor.execute {
-            computeDiff(diffCalculationBundle)
-        }
+        val taskGeneration = generation
+        AsyncDiffScheduler.execute(Runnable {
+            if (taskGeneration != generation) return@Runnable
+            val diffResultBundle = calculateDiffResult(diffCalculationBundle) ?: return@Runnable
+            postToMainThread {
+                if (taskGeneration == generation) {
+                    applyDiffResult(diffResultBundle)
+                }
+            }
+        })
     }
 
-    private companion object {
-
-        const val DIFF_EXECUTOR_POOL_SIZE = 2
+    override fun cancel() {
+        generation++
+        val latest = dropPendingUpdates() ?: return
+        // items still must be displayed, but without calculated diff
+        diffResultApplier.apply(DiffResultBundle(null, latest))
     }
+
+    /**
+     * Clear all pending updates.
+     *
+     * @return latest pending update or null if there was nothing pending
+     */
+    protected abstract fun dropPendingUpdates(): DiffCalculationBundle?
 }
\ No newline at end of file
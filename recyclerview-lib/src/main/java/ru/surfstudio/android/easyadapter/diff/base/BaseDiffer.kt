@@ -16,16 +16,16 @@
 package ru.surfstudio.android.easyadapter.diff.base
 
 import android.os.Handler
-import androidx.recyclerview.widget.DiffUtil
 import ru.surfstudio.android.easyadapter.diff.base.data.DiffCalculationBundle
 import ru.surfstudio.android.easyadapter.diff.base.data.DiffResultBundle
+import java.util.concurrent.CancellationException
 
 /**
  * Base [Differ].
  */
 internal abstract class BaseDiffer(
         protected val diffResultApplier: DiffResultApplier,
-        private val diffCallbackCreator: DiffCallbackCreator
+        private val diffCalculator: DiffCalculator
 ) : Differ {
 
     private val handler = Handler()
@@ -47,18 +47,57 @@ internal abstract class BaseDiffer(
     }
 
     protected fun computeDiff(diffCalculationBundle: DiffCalculationBundle) {
-        val diffResult = DiffUtil.calculateDiff(
-                diffCallbackCreator.createDiffCallback(
+        calculateDiffResult(diffCalculationBundle)?.let {
+            postDiffResult(it)
+        }
+    }
+
+    /**
+     * Check if diff should be calculated for [diffCalculationBundle],
+     * otherwise new items are applied without diff. Can be called in a worker thread.
+     */
+    protected open fun shouldCalculateDiff(diffCalculationBundle: DiffCalculationBundle): Boolean = true
+
+    /**
+     * @return calculated [DiffResultBundle] or null if calculation was cancelled
+     */
+    protected fun calculateDiffResult(diffCalculationBundle: DiffCalculationBundle): DiffResultBundle? {
+        val cancellationToken = diffCalculationBundle.cancellationToken
+        // superseded bundles may wait in the queue long, so extraction is skipped for them
+        if (cancellationToken.isCancelled) return null
+        val startTime = System.nanoTime()
+        val newItemInfo = diffCalculationBundle.newItemInfo
+        val extractionEndTime = System.nanoTime()
+        if (cancellationToken.isCancelled) return null
+        val diffResult = if (shouldCalculateDiff(diffCalculationBundle)) {
+            try {
+                diffCalculator.calculateDiff(
                         diffCalculationBundle.oldItemInfo,
-                        diffCalculationBundle.newItemInfo
+                        newItemInfo,
+                        cancellationToken
                 )
+            } catch (e: CancellationException) {
+                return null
+            }
+        } else {
+            null
+        }
+        return DiffResultBundle(
+                diffResult,
+                diffCalculationBundle,
+                startTime - diffCalculationBundle.createdAtNanos,
+                extractionEndTime - startTime,
+                System.nanoTime() - extractionEndTime
         )
-        postDiffResult(DiffResultBundle(diffResult, diffCalculationBundle))
     }
 
-    private fun postDiffResult(diffResultBundle: DiffResultBundle) {
-        handler.post {
+    protected fun postDiffResult(diffResultBundle: DiffResultBundle) {
+        postToMainThread {
             applyDiffResult(diffResultBundle)
         }
     }
+
+    protected fun postToMainThread(action: () -> Unit) {
+        handler.post(action)
+    }
 }
\ No newline at end of file
@@ -0,0 +1,39 @@
+/*
+  Copyright (c) 2018-present, SurfStudio LLC, Maxim Tuev.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package ru.surfstudio.android.easyadapter.diff.base
+
+import ru.surfstudio.android.easyadapter.diff.DiffCancellationToken
+import ru.surfstudio.android.easyadapter.diff.base.data.ItemInfoSnapshot
+import ru.surfstudio.android.easyadapter.diff.base.data.ListDiff
+
+/**
+ * Interface of entity capable to calculate [ListDiff] between two item lists.
+ */
+@FunctionalInterface
+internal interface DiffCalculator {
+
+    /**
+     * Calculate [ListDiff].
+     *
+     * @param cancellationToken token which must be checked during calculation
+     * @throws java.util.concurrent.CancellationException if calculation was cancelled
+     */
+    fun calculateDiff(
+            oldItemInfo: ItemInfoSnapshot,
+            newItemInfo: ItemInfoSnapshot,
+            cancellationToken: DiffCancellationToken
+    ): ListDiff
+}
\ No newline at end of file
@@ -15,20 +15,15 @@
  */
 package ru.surfstudio.android.easyadapter.diff.base
 
-import androidx.recyclerview.widget.DiffUtil.Callback
-import ru.surfstudio.android.easyadapter.item.ItemInfo
+import ru.surfstudio.android.easyadapter.diff.base.data.ItemInfoSnapshot
 
 /**
- * Interface of [Callback] creator.
+ * Interface of entity capable to extract [ItemInfoSnapshot] of new item list.
+ *
+ * Extraction may be performed in a worker thread, so it must not depend on mutable adapter state.
  */
 @FunctionalInterface
-internal interface DiffCallbackCreator {
+internal interface ItemInfoExtractor {
 
-    /**
-     * Create [Callback].
-     */
-    fun createDiffCallback(
-            oldItemInfo: List<ItemInfo>,
-            newItemInfo: List<ItemInfo>
-    ): Callback
+    fun extract(): ItemInfoSnapshot
 }
\ No newline at end of file
@@ -15,18 +15,37 @@
  */
 package ru.surfstudio.android.easyadapter.diff.base.data
 
-import ru.surfstudio.android.easyadapter.ItemList
-import ru.surfstudio.android.easyadapter.item.ItemInfo
+import ru.surfstudio.android.easyadapter.diff.DiffCancellationToken
+import ru.surfstudio.android.easyadapter.diff.base.ItemInfoExtractor
 
 /**
  * Bundle with all necessary data for diff calculating.
  *
- * @property items New [ItemList].
- * @property oldItemInfo List with previous RecyclerView adapter item list information.
- * @property oldItemInfo List with information about [items].
+ * @property items New items, owned by bundle: they are never modified after bundle creation.
+ * @property oldItemInfo Snapshot with previous RecyclerView adapter item list information.
+ * @param newItemInfoExtractor Extractor of [newItemInfo], invoked once on the first access.
+ * @property createdAtNanos [System.nanoTime] of setting [items] to adapter.
  */
-internal data class DiffCalculationBundle(
-        val items: ItemList,
-        val oldItemInfo: List<ItemInfo>,
-        val newItemInfo: List<ItemInfo>
-)
\ No newline at end of file
+internal data class DiffCalculationBundle @JvmOverloads constructor(
+        val items: List<*>,
+        val oldItemInfo: ItemInfoSnapshot,
+        private val newItemInfoExtractor: ItemInfoExtractor,
+        val createdAtNanos: Long = System.nanoTime()
+) {
+
+    /**
+     * Snapshot with information about [items].
+     * Extracted lazily, so async differs extract it in a worker thread.
+     */
+    val newItemInfo: ItemInfoSnapshot by lazy { newItemInfoExtractor.extract() }
+
+    /**
+     * Token to abandon calculation of this bundle when it becomes stale.
+     */
+    val cancellationToken = DiffCancellationToken()
+
+    /**
+     * Amount of item lists which were superseded by this one and never displayed.
+     */
+    var skippedSnapshotsCount = 0
+}
\ No newline at end of file
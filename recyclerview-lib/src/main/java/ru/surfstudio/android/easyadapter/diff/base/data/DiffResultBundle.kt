@@ -15,30 +15,38 @@
  */
 package ru.surfstudio.android.easyadapter.diff.base.data
 
-import androidx.recyclerview.widget.DiffUtil.DiffResult
-import ru.surfstudio.android.easyadapter.ItemList
-import ru.surfstudio.android.easyadapter.item.ItemInfo
-
 /**
- * Bundle with calculated [DiffResult] and additional information.
+ * Bundle with calculated [ListDiff] and additional information.
  *
- * @property diffResult Calculated [DiffResult].
+ * @property diffResult Calculated [ListDiff], null if the list should be applied without diff.
  * @property calculationBundle [DiffCalculationBundle] with information used for diff calculation.
+ * @property queueWaitTimeNanos Duration between creation of [calculationBundle] and start of calculation.
+ * @property extractionTimeNanos Duration of new snapshot extraction.
+ * @property diffTimeNanos Duration of diff calculation.
  */
-internal data class DiffResultBundle(
-        val diffResult: DiffResult?,
-        val calculationBundle: DiffCalculationBundle
+internal data class DiffResultBundle @JvmOverloads constructor(
+        val diffResult: ListDiff?,
+        val calculationBundle: DiffCalculationBundle,
+        val queueWaitTimeNanos: Long = 0L,
+        val extractionTimeNanos: Long = 0L,
+        val diffTimeNanos: Long = 0L
 ) {
 
+    /**
+     * Duration of new snapshot extraction and diff calculation
+     */
+    val calculationTimeNanos: Long
+        get() = extractionTimeNanos + diffTimeNanos
+
     /**
      * @see DiffCalculationBundle.items
      */
-    val items: ItemList
+    val items: List<*>
         get() = calculationBundle.items
 
     /**
      * @see DiffCalculationBundle.newItemInfo
      */
-    val newItemInfo: List<ItemInfo>
+    val newItemInfo: ItemInfoSnapshot
         get() = calculationBundle.newItemInfo
 }
\ No newline at end of file
@@ -0,0 +1,116 @@
+/*
+  Copyright (c) 2018-present, SurfStudio LLC, Maxim Tuev.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package ru.surfstudio.android.easyadapter.diff.base.data
+
+import androidx.recyclerview.widget.RecyclerView
+import ru.surfstudio.android.easyadapter.controller.BaseItemController
+import ru.surfstudio.android.easyadapter.item.BaseItem
+import ru.surfstudio.android.easyadapter.item.ItemInfo
+
+/**
+ * Information about every item of RecyclerView adapter item list, used for diff calculating.
+ *
+ * Snapshots of different types are never considered as the same items.
+ *
+ * @property items items, which information is stored in snapshot, used to calculate change payloads
+ * if they are [BaseItem]s. Must not be modified after snapshot creation.
+ */
+internal abstract class ItemInfoSnapshot(val items: List<*>) {
+
+    /**
+     * Amount of items in snapshot
+     */
+    abstract val size: Int
+
+    /**
+     * Hash code of the item id at [position], consistent with [areItemsTheSame]
+     */
+    abstract fun itemHashCode(position: Int): Int
+
+    abstract fun areItemsTheSame(position: Int, other: ItemInfoSnapshot, otherPosition: Int): Boolean
+
+    abstract fun areContentsTheSame(position: Int, other: ItemInfoSnapshot, otherPosition: Int): Boolean
+
+    /**
+     * Get payload of changes between item at [position] and the same item with changed contents in [other] snapshot.
+     *
+     * @see BaseItemController.getChangePayload
+     */
+    fun getChangePayload(position: Int, other: ItemInfoSnapshot, otherPosition: Int): Any? {
+        if (position >= items.size || otherPosition >= other.items.size) return null
+        val oldItem = items[position] as? BaseItem<*> ?: return null
+        val newItem = other.items[otherPosition] as? BaseItem<*> ?: return null
+        val itemController = newItem.itemController
+        if (oldItem.itemController.viewType() != itemController.viewType()) return null
+        @Suppress("UNCHECKED_CAST")
+        return (itemController as BaseItemController<RecyclerView.ViewHolder, BaseItem<*>>)
+                .getChangePayload(oldItem, newItem)
+    }
+
+    companion object {
+
+        @JvmField
+        val EMPTY: ItemInfoSnapshot = ItemInfoListSnapshot(emptyList(), emptyList<Any>())
+    }
+}
+
+/**
+ * [ItemInfoSnapshot] based on String ids and hashes.
+ */
+internal class ItemInfoListSnapshot(
+        val itemInfo: List<ItemInfo>,
+        items: List<*>
+) : ItemInfoSnapshot(items) {
+
+    override val size: Int
+        get() = itemInfo.size
+
+    override fun itemHashCode(position: Int): Int = itemInfo[position].id.hashCode()
+
+    override fun areItemsTheSame(position: Int, other: ItemInfoSnapshot, otherPosition: Int): Boolean =
+            other is ItemInfoListSnapshot && itemInfo[position].id == other.itemInfo[otherPosition].id
+
+    override fun areContentsTheSame(position: Int, other: ItemInfoSnapshot, otherPosition: Int): Boolean =
+            other is ItemInfoListSnapshot && itemInfo[position].hash == other.itemInfo[otherPosition].hash
+}
+
+/**
+ * [ItemInfoSnapshot] based on 64-bit ids and content hashes, stored in parallel arrays.
+ */
+internal class PrimitiveItemInfoSnapshot(
+        val ids: LongArray,
+        val contentHashes: LongArray,
+        items: List<*>
+) : ItemInfoSnapshot(items) {
+
+    init {
+        require(ids.size == contentHashes.size) { "ids and contentHashes sizes mismatch: ${ids.size} != ${contentHashes.size}" }
+    }
+
+    override val size: Int
+        get() = ids.size
+
+    override fun itemHashCode(position: Int): Int {
+        val id = ids[position]
+        return (id xor (id ushr 32)).toInt()
+    }
+
+    override fun areItemsTheSame(position: Int, other: ItemInfoSnapshot, otherPosition: Int): Boolean =
+            other is PrimitiveItemInfoSnapshot && ids[position] == other.ids[otherPosition]
+
+    override fun areContentsTheSame(position: Int, other: ItemInfoSnapshot, otherPosition: Int): Boolean =
+            other is PrimitiveItemInfoSnapshot && contentHashes[position] == other.contentHashes[otherPosition]
+}
\ No newline at end of file
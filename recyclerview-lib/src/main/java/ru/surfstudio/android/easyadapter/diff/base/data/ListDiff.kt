@@ -0,0 +1,53 @@
+/*
+  Copyright (c) 2018-present, SurfStudio LLC, Maxim Tuev.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package ru.surfstudio.android.easyadapter.diff.base.data
+
+import androidx.recyclerview.widget.DiffUtil.DiffResult
+import androidx.recyclerview.widget.ListUpdateCallback
+
+/**
+ * Calculated difference between two item lists.
+ * Unlike [DiffResult], it may be produced without running DiffUtil at all.
+ */
+internal interface ListDiff {
+
+    /**
+     * Dispatch update operations, which convert old list into new one, to [callback].
+     */
+    fun dispatchUpdatesTo(callback: ListUpdateCallback)
+
+    /**
+     * Report items, which are present only in one of lists, to [callback].
+     * Unlike [dispatchUpdatesTo], positions are reported in terms of old and new lists themselves.
+     */
+    fun dispatchMembershipChangesTo(callback: MembershipCallback)
+
+    /**
+     * Callback about items, which are present only in one of lists
+     */
+    interface MembershipCallback {
+
+        /**
+         * Item at [oldPosition] of old list is absent in new list
+         */
+        fun onRemoved(oldPosition: Int)
+
+        /**
+         * Item at [newPosition] of new list is absent in old list
+         */
+        fun onInserted(newPosition: Int)
+    }
+}
\ No newline at end of file
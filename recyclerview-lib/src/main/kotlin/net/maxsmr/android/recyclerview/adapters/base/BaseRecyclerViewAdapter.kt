@@ -8,17 +8,44 @@ import android.view.ViewGroup
 import androidx.annotation.CallSuper
 import androidx.annotation.LayoutRes
 import androidx.annotation.MainThread
-import androidx.recyclerview.widget.DiffUtil
+import androidx.recyclerview.widget.AdapterListUpdateCallback
+import androidx.recyclerview.widget.ListUpdateCallback
 import androidx.recyclerview.widget.RecyclerView
 import androidx.recyclerview.widget.RecyclerView.NO_ID
 import net.maxsmr.android.recyclerview.adapters.base.drag.ITouchHelperAdapter
 import net.maxsmr.android.recyclerview.adapters.base.drag.OnMotionTouchListener
 import net.maxsmr.android.recyclerview.adapters.base.drag.OnStartDragListener
-import ru.surfstudio.android.easyadapter.diff.AutoNotifyDiffCallback
+import ru.surfstudio.android.easyadapter.diff.DiffCancellationToken
+import ru.surfstudio.android.easyadapter.diff.InfiniteScrollUpdateCallback
+import ru.surfstudio.android.easyadapter.diff.ParallelSnapshotBuilder
+import ru.surfstudio.android.easyadapter.diff.TrimmingDiffCalculator
+import ru.surfstudio.android.easyadapter.diff.async.AdaptiveAsyncDiffer
+import ru.surfstudio.android.easyadapter.diff.async.ApplyLatestAsyncDiffer
+import ru.surfstudio.android.easyadapter.diff.async.AsyncDiffStrategy
+import ru.surfstudio.android.easyadapter.diff.async.CancelStaleAsyncDiffer
+import ru.surfstudio.android.easyadapter.diff.async.FrameAlignedAsyncDiffer
+import ru.surfstudio.android.easyadapter.diff.async.QueueAllAsyncDiffer
+import ru.surfstudio.android.easyadapter.diff.async.base.AsyncDiffer
+import ru.surfstudio.android.easyadapter.diff.base.DiffResultApplier
+import ru.surfstudio.android.easyadapter.diff.base.ItemInfoExtractor
+import ru.surfstudio.android.easyadapter.diff.base.data.DiffCalculationBundle
+import ru.surfstudio.android.easyadapter.diff.base.data.DiffResultBundle
+import ru.surfstudio.android.easyadapter.diff.base.data.ItemInfoListSnapshot
+import ru.surfstudio.android.easyadapter.diff.base.data.ItemInfoSnapshot
+import ru.surfstudio.android.easyadapter.diff.metrics.CountingListUpdateCallback
+import ru.surfstudio.android.easyadapter.diff.metrics.DiffMetrics
+import ru.surfstudio.android.easyadapter.diff.metrics.DiffMetricsListener
 import ru.surfstudio.android.easyadapter.item.ItemInfo
+import ru.surfstudio.android.easyadapter.profiler.ViewTypeProfiler
 import java.util.*
 
 const val INFINITE_SCROLL_LOOPS_COUNT_DEFAULT = 100
+const val INFINITE_SCROLL_NOTIFY_MARGIN_DEFAULT = 2
+
+/**
+ * Префикс трассировочных секций [BaseRecyclerViewAdapter.profiler]
+ */
+private const val PROFILER_ADAPTER_NAME = "BaseRecyclerViewAdapter"
 
 @MainThread
 abstract class BaseRecyclerViewAdapter<I, VH : BaseRecyclerViewAdapter.ViewHolder<I>>(
@@ -75,6 +102,84 @@ abstract class BaseRecyclerViewAdapter<I, VH : BaseRecyclerViewAdapter.ViewHolde
      */
     var allowDiffNotifyOnChange = true
 
+    /**
+     * Рассчитывать выборочные обновления [setItems] в фоновом потоке
+     * (если [allowNotifyOnChange] и [allowDiffNotifyOnChange] true):
+     * [items] заменяются новыми только при применении результата в главном потоке,
+     * id и хэши новых элементов берутся из [getStringIdForItem] и [getHashForItem];
+     * слушатели [ItemsEventsListener] получают те же события, что и при расчёте в главном потоке
+     */
+    var isAsyncDiffCalculationEnabled = false
+        set(value) {
+            if (field != value) {
+                if (!value) {
+                    asyncDiffer?.cancel()
+                }
+                field = value
+            }
+        }
+
+    /**
+     * Обработка [setItems], поступающих во время фонового расчёта, см. [AsyncDiffStrategy]
+     */
+    var asyncDiffStrategy = AsyncDiffStrategy.QUEUE_ALL
+        set(value) {
+            if (field != value) {
+                asyncDiffer?.cancel()
+                asyncDiffer = null
+                field = value
+            }
+        }
+
+    /**
+     * Есть ли элементы из [setItems], ожидающие окончания фонового расчёта
+     */
+    val hasPendingItems get() = lastPendingBundle != null
+
+    /**
+     * Вести индекс позиций по ключам элементов, чтобы поиск по элементу
+     * ([indexOf], [lastIndexOf], [removeItem], [replaceItem], выбор элементов в наследниках) выполнялся за O(1);
+     * ключ - [itemKeyExtractor] или [getStringIdForItem], у равных элементов ключи должны совпадать.
+     * При изменении [items] в обход адаптера нужно вызвать [invalidateItemsIndex]
+     */
+    var isItemsIndexEnabled = false
+        set(value) {
+            if (field != value) {
+                field = value
+                itemsIndex = if (value) {
+                    ItemsPositionIndex(items) { item -> itemKeyExtractor?.invoke(item) ?: getStringIdForItem(item) }
+                } else {
+                    null
+                }
+            }
+        }
+
+    /**
+     * Ключ элемента для индекса позиций (если [isItemsIndexEnabled] true),
+     * null - использовать [getStringIdForItem]
+     */
+    var itemKeyExtractor: ((I) -> String)? = null
+        set(value) {
+            field = value
+            invalidateItemsIndex()
+        }
+
+    /**
+     * Слушатель [DiffMetrics] выборочных обновлений
+     * (если [allowDiffNotifyOnChange] true)
+     */
+    var diffMetricsListener: DiffMetricsListener? = null
+
+    /**
+     * Профилировщик привязки и переиспользования холдеров по view type
+     * (создание холдеров выполняется наследниками в [onCreateViewHolder], поэтому не измеряется)
+     */
+    var profiler: ViewTypeProfiler? = null
+        set(value) {
+            value?.adapterName = PROFILER_ADAPTER_NAME
+            field = value
+        }
+
     var allowDragAndDrop = false
         set(value) {
             if (field != value) {
@@ -116,11 +221,81 @@ abstract class BaseRecyclerViewAdapter<I, VH : BaseRecyclerViewAdapter.ViewHolde
             }
         }
 
+    /**
+     * Количество позиций вокруг выложенного диапазона присоединённых RecyclerView,
+     * копии элемента в которых оповещаются об изменении при бесконечном скролле;
+     * остальные копии перепривязываются при следующем присоединении к окну
+     */
+    var infiniteScrollNotifyMargin: Int = INFINITE_SCROLL_NOTIFY_MARGIN_DEFAULT
+        set(value) {
+            require(value >= 0) { "infiniteScrollNotifyMargin cannot be less than zero: $value" }
+            field = value
+        }
+
     protected var pendingFocusPosition = RecyclerView.NO_POSITION
         private set
 
+    /**
+     * Находится ли адаптер внутри пакетного обновления,
+     * начатого [beginUpdates] или [batch]
+     */
+    val isInUpdates get() = updatesDepth > 0
+
+    /**
+     * Получатель оповещений об изменениях элементов:
+     * во время пакетного обновления они накапливаются до [endUpdates]
+     */
+    protected val itemsUpdateCallback: ListUpdateCallback
+        get() = if (isInUpdates) updatesBuffer else adapterUpdateCallback
+
+    private val adapterUpdateCallback = AdapterListUpdateCallback(this)
+
+    private val updatesBuffer = ItemsUpdatesBuffer()
+
+    private var updatesDepth = 0
+
+    private var itemsBeforeUpdates: List<I?> = emptyList()
+
+    private var itemsIndex: ItemsPositionIndex<I>? = null
+
+    private val attachedRecyclerViews = ArrayList<RecyclerView>(1)
+
+    /**
+     * Меняется при каждом изменении, о котором не были оповещены копии вне выложенного диапазона:
+     * холдеры, привязанные до него, перепривязываются в [onViewAttachedToWindow]
+     */
+    private var skippedChangesStamp = 0
+
     private var lastItemsInfo = listOf<ItemInfo>()
 
+    /**
+     * Снимок [lastItemsInfo], общий для всех расчётов относительно отображаемых элементов
+     */
+    private var lastItemsSnapshot = ItemInfoListSnapshot(lastItemsInfo, emptyList<I>())
+
+    /**
+     * Соответствует ли [lastItemsInfo] отображаемым элементам:
+     * сбрасывается при изменениях в обход выборочного обновления
+     */
+    private var isLastItemsInfoActual = true
+
+    /**
+     * Идёт очистка перед заменой элементов, см. [clearItemsBeforeSet]
+     */
+    private var isClearingBeforeDiff = false
+
+    private var asyncDiffer: AsyncDiffer? = null
+
+    /**
+     * Последний переданный на фоновый расчёт набор элементов
+     */
+    private var lastPendingBundle: DiffCalculationBundle? = null
+
+    /**
+     * Применяемый в [onItemsSet] результат фонового расчёта
+     */
+    private var appliedDiffResult: DiffResultBundle? = null
+
     init {
         setItems(items, false)
     }
@@ -148,16 +323,54 @@ abstract class BaseRecyclerViewAdapter<I, VH : BaseRecyclerViewAdapter.ViewHolde
 
     override fun isDismissible(position: Int): Boolean = canDragItem(getItem(getListPosition(position)), position)
 
+    @CallSuper
+    override fun onAttachedToRecyclerView(recyclerView: RecyclerView) {
+        super.onAttachedToRecyclerView(recyclerView)
+        attachedRecyclerViews.add(recyclerView)
+    }
+
+    @CallSuper
+    override fun onDetachedFromRecyclerView(recyclerView: RecyclerView) {
+        super.onDetachedFromRecyclerView(recyclerView)
+        attachedRecyclerViews.remove(recyclerView)
+        // ожидающие элементы применяются сразу, без расчёта
+        asyncDiffer?.cancel()
+    }
+
+    @CallSuper
+    override fun onViewAttachedToWindow(holder: VH) {
+        super.onViewAttachedToWindow(holder)
+        if (allowInfiniteScroll && holder.changesStamp != skippedChangesStamp) {
+            // холдер из кэша RecyclerView присоединяется без привязки
+            // и мог пропустить изменение копии вне выложенного диапазона
+            val position = holder.adapterPosition
+            if (position in 0 until itemCount) {
+                onBindViewHolder(holder, position)
+            }
+        }
+    }
+
     @CallSuper
     override fun onViewRecycled(holder: VH) {
+        val profiler = profiler
+        val startTime = profiler?.begin(ViewTypeProfiler.Stage.RECYCLE, holder.itemViewType, holder) ?: 0L
         super.onViewRecycled(holder)
         holder.onViewRecycled()
+        profiler?.end(ViewTypeProfiler.Stage.RECYCLE, holder.itemViewType, holder, startTime)
     }
 
     final override fun onBindViewHolder(holder: VH, position: Int) {
         val targetPosition = getListPosition(position)
         val item = if (targetPosition in 0 until listItemCount) items[targetPosition] else throw IndexOutOfBoundsException("Incorrect position: $position")
-        bindItem(holder, item, targetPosition)
+        holder.changesStamp = skippedChangesStamp
+        val profiler = profiler
+        if (profiler != null) {
+            val startTime = profiler.begin(ViewTypeProfiler.Stage.BIND, holder.itemViewType, holder)
+            bindItem(holder, item, targetPosition)
+            profiler.end(ViewTypeProfiler.Stage.BIND, holder.itemViewType, holder, startTime)
+        } else {
+            bindItem(holder, item, targetPosition)
+        }
     }
 
     /**
@@ -167,28 +380,49 @@ abstract class BaseRecyclerViewAdapter<I, VH : BaseRecyclerViewAdapter.ViewHolde
             getItemStringId(position).hashCode().toLong()
 
     /**
-     * Get the unique id from item at certain position
+     * Get the unique id from item at certain position.
+     * May be called in a worker thread, if parallel snapshot building is enabled
+     * with [ParallelSnapshotBuilder.parallelThreshold], so it must not touch views or mutable state
      *
      * @param position position of item
      * @return unique item id
      */
-    open fun getItemStringId(position: Int): String = NO_ID.toString()
+    open fun getItemStringId(position: Int): String = getStringIdForItem(items[getListPosition(position)])
 
     /**
-     * Get the item's hashcode at certain position
+     * Get the item's hashcode at certain position.
+     * May be called in a worker thread, see [getItemStringId]
      *
      * @param position position of item
      * @return item's hashcode
      */
-    open fun getItemHash(position: Int): String {
-        val item = items[getListPosition(position)]
-        return (item?.hashCode() ?: 0).toString()
-    }
+    open fun getItemHash(position: Int): String = getHashForItem(items[getListPosition(position)])
+
+    /**
+     * Get the unique id of item, not bound to its position;
+     * used for diff calculation in worker thread, see [isAsyncDiffCalculationEnabled]
+     * and [ParallelSnapshotBuilder.parallelThreshold], so it must not touch views or mutable state
+     *
+     * @param item item of adapter
+     * @return unique item id
+     */
+    open fun getStringIdForItem(item: I): String = NO_ID.toString()
+
+    /**
+     * Get the hashcode of item contents, not bound to its position;
+     * used for diff calculation in worker thread, see [getStringIdForItem]
+     *
+     * @param item item of adapter
+     * @return item's hashcode
+     */
+    open fun getHashForItem(item: I): String = (item?.hashCode() ?: 0).toString()
 
     @CallSuper
     open fun release() {
+        asyncDiffer?.cancel()
         itemsEventsObservable.unregisterAll()
         items.clear()
+        invalidateItemsIndex()
     }
 
     fun registerItemsEventsListener(listener: ItemsEventsListener<I>) {
@@ -220,10 +454,17 @@ abstract class BaseRecyclerViewAdapter<I, VH : BaseRecyclerViewAdapter.ViewHolde
                 null
             }
 
-    fun indexOf(item: I?): Int = items.indexOf(item)
+    fun indexOf(item: I?): Int = itemsIndex?.indexOf(item) ?: items.indexOf(item)
 
     fun lastIndexOf(item: I): Int =
-            items.lastIndexOf(item)
+            itemsIndex?.lastIndexOf(item) ?: items.lastIndexOf(item)
+
+    /**
+     * Перестроить индекс позиций (если [isItemsIndexEnabled] true) при следующем поиске
+     */
+    fun invalidateItemsIndex() {
+        itemsIndex?.invalidate()
+    }
 
     /**
      * Запросить фокус в указанном [position];
@@ -239,15 +480,58 @@ abstract class BaseRecyclerViewAdapter<I, VH : BaseRecyclerViewAdapter.ViewHolde
         }
     }
 
+    /**
+     * Начать пакетное обновление: до парного [endUpdates] изменения элементов
+     * не оповещаются по отдельности, допускается вложенность
+     */
+    fun beginUpdates() {
+        if (updatesDepth++ == 0) {
+            itemsBeforeUpdates = items.toList()
+        }
+    }
+
+    /**
+     * Завершить пакетное обновление: на внешнем уровне вложенности
+     * накопленные изменения оповещаются объединёнными диапазонами
+     * и слушателям отправляется одно событие [ItemsEventsListener.onItemsUpdated]
+     */
+    fun endUpdates() {
+        check(updatesDepth > 0) { "endUpdates() without beginUpdates()" }
+        if (--updatesDepth == 0) {
+            val previousItems = itemsBeforeUpdates
+            itemsBeforeUpdates = emptyList()
+            onItemsUpdated(previousItems)
+        }
+    }
+
+    /**
+     * Выполнить [updates] как одно пакетное обновление
+     */
+    fun batch(updates: () -> Unit) {
+        beginUpdates()
+        try {
+            updates()
+        } finally {
+            endUpdates()
+        }
+    }
+
     /**
      * @param items null for reset adapter
      */
     fun setItems(items: Collection<I>?, shouldNotify: Boolean = true) {
+        if (shouldNotify && isAsyncDiffCalculationEnabled && allowNotifyOnChange && allowDiffNotifyOnChange
+                && !isInUpdates && (hasPendingItems || shouldSetItems(items))) {
+            // новый список для каждого расчёта: по нему находится ожидающий набор элементов
+            calculateDiffAsync(ArrayList(items.orEmpty()))
+            return
+        }
         if (shouldSetItems(items)) {
-            clearItems()
+            clearItemsBeforeSet(shouldNotify && allowDiffNotifyOnChange)
             if (items != null) {
                 this.items.addAll(items)
             }
+            invalidateItemsIndex()
             if (shouldNotify) {
                 onItemsSet()
             }
@@ -259,15 +543,31 @@ abstract class BaseRecyclerViewAdapter<I, VH : BaseRecyclerViewAdapter.ViewHolde
             val previousSize = listItemCount
             val clearedItems = items.toList()
             items.clear()
+            invalidateItemsIndex()
             onItemsRangeRemoved(0, previousSize - 1, previousSize, clearedItems)
         }
     }
 
+    /**
+     * Очистить [items] перед заменой в [setItems] или при применении фонового расчёта:
+     * если за ней следует выборочное обновление в [onItemsSet], об удалении узнают только слушатели,
+     * а адаптер оповещается самим обновлением относительно прежних элементов
+     */
+    private fun clearItemsBeforeSet(isDiffFollowing: Boolean) {
+        isClearingBeforeDiff = isDiffFollowing && allowNotifyOnChange && !isInUpdates
+        try {
+            clearItems()
+        } finally {
+            isClearingBeforeDiff = false
+        }
+    }
+
     @Throws(IndexOutOfBoundsException::class)
     fun addItem(to: Int, item: I) {
         rangeCheckForAdd(to)
         val previousSize = listItemCount
         items.add(to, item)
+        itemsIndex?.onAdded(to, 1)
         onItemAdded(to, item, previousSize)
     }
 
@@ -285,6 +585,7 @@ abstract class BaseRecyclerViewAdapter<I, VH : BaseRecyclerViewAdapter.ViewHolde
         if (items != null) {
             val previousSize = listItemCount
             this.items.addAll(to, items)
+            itemsIndex?.onAdded(to, items.size)
             onItemsAdded(to, items, previousSize)
         }
     }
@@ -295,32 +596,53 @@ abstract class BaseRecyclerViewAdapter<I, VH : BaseRecyclerViewAdapter.ViewHolde
 
     fun setItem(`in`: Int, item: I) {
         rangeCheck(`in`)
-        items[`in`] = item
+        val previousItem = items.set(`in`, item)
+        itemsIndex?.onSet(`in`, previousItem)
         onItemSet(`in`, item)
     }
 
-    fun replaceItem(`in`: Int, newItem: I): I? {
-        rangeCheck(`in`)
-        allowNotifyOnChange = false
-        val replacedItem = getItem(`in`)
-        items.removeAt(`in`)
-        onItemRemoved(`in`, replacedItem)
-        addItem(`in`, newItem)
-        allowNotifyOnChange = true
-        notifyItemChanged(`in`)
-        return replacedItem
-    }
+    fun replaceItem(`in`: Int, newItem: I): I? =
+            replaceItemsRange(`in`, `in`, listOf(newItem)).first()
 
     fun replaceItem(replaceableItem: I?, newItem: I): I? {
         return replaceItem(indexOf(replaceableItem), newItem)
     }
 
+    /**
+     * Заменить элементы в диапазоне [from]..[to] на [newItems],
+     * вставляемые начиная с [from]; совпадающая по размеру часть перезаписывается на месте
+     *
+     * @return заменённые элементы
+     */
     fun replaceItemsRange(from: Int, to: Int, newItems: Collection<I>?): List<I?> {
-        allowNotifyOnChange = false
-        val replacedItems = removeItemsRange(from, to)
-        addItems(newItems)
-        allowNotifyOnChange = true
-        notifyItemRangeChanged(from, to - from)
+        rangeCheck(from)
+        rangeCheck(to)
+        if (from > to) {
+            return emptyList()
+        }
+        val previousSize = listItemCount
+        val insertedItems = newItems?.toList() ?: emptyList()
+        val replacedCount = to - from + 1
+        val commonCount = minOf(replacedCount, insertedItems.size)
+        val replacedItems = ArrayList(items.subList(from, to + 1))
+        for (i in 0 until commonCount) {
+            items[from + i] = insertedItems[i]
+        }
+        if (replacedCount > commonCount) {
+            items.subList(from + commonCount, to + 1).clear()
+        } else if (insertedItems.size > commonCount) {
+            items.addAll(from + commonCount, insertedItems.subList(commonCount, insertedItems.size))
+        }
+        itemsIndex?.let { index ->
+            if (replacedCount == insertedItems.size) {
+                for (i in 0 until commonCount) {
+                    index.onSet(from + i, replacedItems[i])
+                }
+            } else {
+                index.invalidate()
+            }
+        }
+        onItemsRangeReplaced(from, to, previousSize, replacedItems, insertedItems)
         return replacedItems
     }
 
@@ -332,28 +654,28 @@ abstract class BaseRecyclerViewAdapter<I, VH : BaseRecyclerViewAdapter.ViewHolde
         rangeCheck(position)
         val removedItem = getItem(position)
         items.removeAt(position)
+        itemsIndex?.onRemoved(position, listOf(removedItem))
         onItemRemoved(position, removedItem)
         return removedItem
     }
 
+    /**
+     * Удалить элементы в диапазоне [from]..[to] одним сдвигом хвоста списка
+     *
+     * @return удалённые элементы
+     */
     fun removeItemsRange(from: Int, to: Int): List<I?> {
         rangeCheck(from)
         rangeCheck(to)
-        val previousSize = listItemCount
-        val removed = mutableListOf<I?>()
-        var position = 0
-        val iterator = items.iterator()
-        while (iterator.hasNext()) {
-            if (position in from..to) {
-                val item = iterator.next()
-                iterator.remove()
-                removed.add(item)
-            }
-            position++
-        }
-        if (removed.isNotEmpty()) {
-            onItemsRangeRemoved(from, to, previousSize, removed)
+        if (from > to) {
+            return emptyList()
         }
+        val previousSize = listItemCount
+        val range = items.subList(from, to + 1)
+        val removed = ArrayList(range)
+        range.clear()
+        itemsIndex?.onRemoved(from, removed)
+        onItemsRangeRemoved(from, to, previousSize, removed)
         return removed
     }
 
@@ -370,6 +692,7 @@ abstract class BaseRecyclerViewAdapter<I, VH : BaseRecyclerViewAdapter.ViewHolde
             return false
         }
         Collections.swap(items, from, to)
+        itemsIndex?.onSwapped(from, to)
         onItemsSwapped(from, getItem(from), to, getItem(to))
         return true
     }
@@ -389,49 +712,67 @@ abstract class BaseRecyclerViewAdapter<I, VH : BaseRecyclerViewAdapter.ViewHolde
 
     @CallSuper
     protected open fun onItemSet(`in`: Int, item: I?) {
-        itemsEventsObservable.notifyItemSet(`in`, item)
-        if (allowNotifyOnChange) {
-            notifyItemChanged(`in`)
+        isLastItemsInfoActual = false
+        if (!isInUpdates) {
+            itemsEventsObservable.notifyItemSet(`in`, item)
         }
+        notifyItemChangedInfiniteCheck(`in`)
     }
 
     @CallSuper
     protected open fun onItemAdded(to: Int, item: I?, previousSize: Int) {
-        itemsEventsObservable.notifyItemAdded(to, item, previousSize)
+        isLastItemsInfoActual = false
+        if (!isInUpdates) {
+            itemsEventsObservable.notifyItemAdded(to, item, previousSize)
+        }
         if (allowNotifyOnChange) {
-            if (to == 0 && previousSize == 0) {
+            if (to == 0 && previousSize == 0 && !isInUpdates) {
                 notifyDataSetChanged()
             } else {
-                notifyItemInserted(to)
+                itemsUpdateCallback.onInserted(to, 1)
             }
         }
     }
 
     @CallSuper
     protected open fun onItemsAdded(to: Int, items: Collection<I?>, previousSize: Int) {
-        itemsEventsObservable.notifyItemsAdded(to, items, previousSize)
+        isLastItemsInfoActual = false
+        if (!isInUpdates) {
+            itemsEventsObservable.notifyItemsAdded(to, items, previousSize)
+        }
         if (allowNotifyOnChange) {
-            if (to == 0 && previousSize == 0) {
+            if (to == 0 && previousSize == 0 && !isInUpdates) {
                 notifyDataSetChanged()
-            } else {
-                notifyItemRangeInserted(to, listItemCount)
+            } else if (items.isNotEmpty()) {
+                itemsUpdateCallback.onInserted(to, items.size)
             }
         }
     }
 
     @CallSuper
     protected open fun onItemRemoved(position: Int, item: I?) {
-        itemsEventsObservable.notifyItemRemoved(position, item)
+        isLastItemsInfoActual = false
+        if (!isInUpdates) {
+            itemsEventsObservable.notifyItemRemoved(position, item)
+        }
         if (allowNotifyOnChange) {
-            notifyItemRemoved(position)
+            itemsUpdateCallback.onRemoved(position, 1)
         }
     }
 
     @CallSuper
     protected open fun onItemsRangeRemoved(from: Int, to: Int, previousSize: Int, removedItems: List<I?>) {
-        itemsEventsObservable.notifyItemsRangeRemoved(from, to, previousSize, removedItems)
+        if (!isInUpdates) {
+            itemsEventsObservable.notifyItemsRangeRemoved(from, to, previousSize, removedItems)
+        }
+        if (isClearingBeforeDiff) {
+            // адаптер будет оповещён выборочным обновлением в onItemsSet
+            onItemsCleared(previousSize)
+            return
+        }
+        isLastItemsInfoActual = false
         if (allowNotifyOnChange) {
-            notifyItemRangeRemoved(from, to - from)
+            itemsUpdateCallback.onRemoved(from, to - from + 1)
         }
         val isCleared = from == 0 && to == previousSize - 1
         if (isCleared) {
@@ -439,11 +780,41 @@ abstract class BaseRecyclerViewAdapter<I, VH : BaseRecyclerViewAdapter.ViewHolde
         }
     }
 
+    /**
+     * Диапазон [from]..[to] заменён на [newItems]: перезаписанная на месте часть
+     * оповещается как изменённая, остаток - как удалённый или вставленный
+     */
+    @CallSuper
+    protected open fun onItemsRangeReplaced(from: Int, to: Int, previousSize: Int, replacedItems: List<I?>, newItems: List<I?>) {
+        isLastItemsInfoActual = false
+        if (!isInUpdates) {
+            itemsEventsObservable.notifyItemsRangeReplaced(from, to, previousSize, replacedItems, newItems)
+        }
+        if (allowNotifyOnChange) {
+            val replacedCount = to - from + 1
+            val commonCount = minOf(replacedCount, newItems.size)
+            if (commonCount > 0) {
+                itemsUpdateCallback.onChanged(from, commonCount, null)
+            }
+            if (replacedCount > commonCount) {
+                itemsUpdateCallback.onRemoved(from + commonCount, replacedCount - commonCount)
+            } else if (newItems.size > commonCount) {
+                itemsUpdateCallback.onInserted(from + commonCount, newItems.size - commonCount)
+            }
+        }
+        if (isEmpty) {
+            onItemsCleared(previousSize)
+        }
+    }
+
     @CallSuper
     protected open fun onItemsSwapped(fromPosition: Int, fromItem: I?, toPosition: Int, toItem: I?) {
-        itemsEventsObservable.notifyItemsSwapped(fromPosition, fromItem, toPosition, toItem)
+        isLastItemsInfoActual = false
+        if (!isInUpdates) {
+            itemsEventsObservable.notifyItemsSwapped(fromPosition, fromItem, toPosition, toItem)
+        }
         if (allowNotifyOnChange) {
-            notifyItemMoved(fromPosition, toPosition) // TODO not refreshing with infinite scroll
+            itemsUpdateCallback.onMoved(fromPosition, toPosition) // TODO not refreshing with infinite scroll
         }
     }
 
@@ -452,16 +823,46 @@ abstract class BaseRecyclerViewAdapter<I, VH : BaseRecyclerViewAdapter.ViewHolde
     }
 
     protected open fun onItemsSet() {
+        if (isInUpdates) {
+            // previous items were removed by clearItems()
+            if (allowNotifyOnChange && isNotEmpty) {
+                updatesBuffer.onInserted(0, listItemCount)
+            }
+            return
+        }
         itemsEventsObservable.notifyItemsSet(items)
         if (allowNotifyOnChange) {
-            if (allowDiffNotifyOnChange) {
+            val diffResult = appliedDiffResult
+            if (diffResult != null) {
+                dispatchDiffResult(diffResult)
+            } else if (allowDiffNotifyOnChange) {
                 diffNotifyDataSetChanged()
             } else {
                 notifyDataSetChanged()
+                isLastItemsInfoActual = false
             }
         }
     }
 
+    /**
+     * Завершено пакетное обновление, начатое при [previousItems]
+     */
+    @CallSuper
+    protected open fun onItemsUpdated(previousItems: List<I?>) {
+        itemsEventsObservable.notifyItemsUpdated(previousItems, items)
+        if (allowNotifyOnChange) {
+            if (allowInfiniteScroll) {
+                // накопленные позиции не учитывают повторы бесконечного скролла
+                updatesBuffer.clear()
+                notifyDataSetChanged()
+            } else {
+                updatesBuffer.dispatchTo(adapterUpdateCallback)
+            }
+        } else {
+            updatesBuffer.clear()
+        }
+    }
+
     protected open fun canSetClickListener(item: I?, position: Int) = !isItemEmpty(item, position)
 
     protected open fun canSetLongClickListener(item: I?, position: Int) = canSetClickListener(item, position)
@@ -493,7 +894,7 @@ abstract class BaseRecyclerViewAdapter<I, VH : BaseRecyclerViewAdapter.ViewHolde
         }
         holder.longClickListener?.let {
             holder.longClickableView?.setOnLongClickListener(null)
-            holder.clickListener = null
+            holder.longClickListener = null
         }
 
         val touchListener = startDragListener
@@ -504,23 +905,20 @@ abstract class BaseRecyclerViewAdapter<I, VH : BaseRecyclerViewAdapter.ViewHolde
             }
         }
 
+        val eventsListener = obtainEventsListener(holder)
+        eventsListener.item = item
+
         holder.clickableView?.let { view ->
             if (canSetClickListener(item, listPosition)) {
-                val listener = View.OnClickListener {
-                    itemsEventsObservable.notifyItemClick(getListPosition(holder.adapterPosition), item)
-                }
-                view.setOnClickListener(listener)
-                holder.clickListener = listener
+                view.setOnClickListener(eventsListener)
+                holder.clickListener = eventsListener
             }
         }
 
         holder.longClickableView?.let { view ->
             if (canSetLongClickListener(item, listPosition)) {
-                val listener = View.OnLongClickListener {
-                    itemsEventsObservable.notifyItemLongClick(getListPosition(holder.adapterPosition), item)
-                }
-                view.setOnLongClickListener(listener)
-                holder.longClickListener = listener
+                view.setOnLongClickListener(eventsListener)
+                holder.longClickListener = eventsListener
             }
         }
 
@@ -539,6 +937,20 @@ abstract class BaseRecyclerViewAdapter<I, VH : BaseRecyclerViewAdapter.ViewHolde
         }
     }
 
+    /**
+     * @return слушатель нажатий этого адаптера, созданный для [holder] при первой привязке
+     */
+    @Suppress("UNCHECKED_CAST")
+    private fun obtainEventsListener(holder: VH): HolderEventsListener {
+        val listener = holder.eventsListener as? BaseRecyclerViewAdapter<I, VH>.HolderEventsListener
+        if (listener != null && listener.adapter === this) {
+            return listener
+        }
+        return HolderEventsListener(holder).also {
+            holder.eventsListener = it
+        }
+    }
+
     protected open fun bindData(holder: VH, position: Int, item: I) {
         holder.bindData(position, item, listItemCount)
     }
@@ -576,68 +988,321 @@ abstract class BaseRecyclerViewAdapter<I, VH : BaseRecyclerViewAdapter.ViewHolde
         }
     }
 
-    protected fun notifyItemChangedInfiniteCheck(position: Int, excludedIndexes: Set<Int> = emptySet()) {
+    protected fun notifyItemChangedInfiniteCheck(position: Int, excludedPosition: Int = RecyclerView.NO_POSITION) {
         if (position in 0 until listItemCount) {
             if (allowNotifyOnChange) {
                 if (!allowInfiniteScroll) {
-                    notifyItemChanged(position)
+                    itemsUpdateCallback.onChanged(position, 1, null)
                 } else {
-                    notifyItemsChangedForInfiniteScroll(position, excludedIndexes)
+                    notifyItemsChangedForInfiniteScroll(position, excludedPosition)
                 }
             }
         }
     }
 
     /**
-     * Оповещает об изменении selection'а все изменившиеся позиции в случае infinite scroll
+     * Оповещает об изменении selection'а копии позиции в случае infinite scroll:
+     * только находящиеся в выложенном диапазоне присоединённых RecyclerView
+     * с учётом [infiniteScrollNotifyMargin], остальные перепривязываются при присоединении к окну
+     *
+     * @param excludedPosition позиция адаптера, об изменении которой уже оповестили
+     * @return количество оповещённых позиций
      */
-    protected fun notifyItemsChangedForInfiniteScroll(firstChangedPosition: Int, excludedIndexes: Set<Int> = emptySet()): Set<Int> {
-        val notifiedPositions = mutableSetOf<Int>()
-        if (firstChangedPosition in 0 until listItemCount) {
-            if (isNotEmpty && allowInfiniteScroll) {
-                for (i in 0 until infiniteScrollLoopsCount - 1) {
-                    val newChangedPosition = firstChangedPosition + listItemCount * i
-                    if (newChangedPosition in 0 until itemCount // itemCount not items.size !!
-                            && !excludedIndexes.contains(newChangedPosition)) {
-                        notifyItemChanged(newChangedPosition)
-                        notifiedPositions.add(newChangedPosition)
-                    }
+    protected fun notifyItemsChangedForInfiniteScroll(firstChangedPosition: Int, excludedPosition: Int = RecyclerView.NO_POSITION): Int {
+        if (firstChangedPosition !in 0 until listItemCount || !allowInfiniteScroll) {
+            return 0
+        }
+        var rangeStart = Int.MAX_VALUE
+        var rangeEnd = Int.MIN_VALUE
+        for (recyclerView in attachedRecyclerViews) {
+            for (i in 0 until recyclerView.childCount) {
+                val position = recyclerView.getChildAdapterPosition(recyclerView.getChildAt(i))
+                if (position != RecyclerView.NO_POSITION) {
+                    rangeStart = minOf(rangeStart, position)
+                    rangeEnd = maxOf(rangeEnd, position)
                 }
             }
         }
-        return notifiedPositions
+        // копии вне диапазона могут лежать в кэше RecyclerView
+        skippedChangesStamp++
+        if (rangeStart > rangeEnd) {
+            return 0
+        }
+        val count = listItemCount
+        rangeStart = maxOf(rangeStart - infiniteScrollNotifyMargin, 0)
+        rangeEnd = minOf(rangeEnd + infiniteScrollNotifyMargin, itemCount - 1)
+        // первая копия, не меньшая rangeStart
+        var position = firstChangedPosition + maxOf(rangeStart - firstChangedPosition + count - 1, 0) / count * count
+        var notifiedCount = 0
+        while (position <= rangeEnd) {
+            if (position != excludedPosition) {
+                itemsUpdateCallback.onChanged(position, 1, null)
+                notifiedCount++
+            }
+            position += count
+        }
+        return notifiedCount
     }
 
-
     /**
      * Extract real items info, despite of infinite or ordinary scroll.
      */
     private fun extractRealItemInfo(): List<ItemInfo> {
         val itemCount = listItemCount
-        val currentItemsInfo = ArrayList<ItemInfo>(itemCount)
-        for (i in 0 until itemCount) {
-            currentItemsInfo.add(
-                    ItemInfo(getItemStringId(i),
-                            getItemHash(i))
-            )
-        }
-        return currentItemsInfo
+        val currentItemsInfo = arrayOfNulls<ItemInfo>(itemCount)
+        ParallelSnapshotBuilder.forEachRange(itemCount, object : ParallelSnapshotBuilder.RangeTask {
+            override fun compute(fromIndex: Int, toIndex: Int) {
+                for (i in fromIndex until toIndex) {
+                    currentItemsInfo[i] = ItemInfo(getItemStringId(i), getItemHash(i))
+                }
+            }
+        })
+        return currentItemsInfo.requireNoNulls().asList()
     }
 
     /**
      * Automatically call necessary notify... methods.
      */
     private fun diffNotifyDataSetChanged() {
+        val startTime = System.nanoTime()
         val newItemInfo = extractRealItemInfo()
-        val diffResult = DiffUtil.calculateDiff(
-                AutoNotifyDiffCallback(
-                        lastItemsInfo,
-                        newItemInfo,
-                        if (allowInfiniteScroll) infiniteScrollLoopsCount else 0
-                )
+        val extractionEndTime = System.nanoTime()
+        // элементы менялись в обход выборочного обновления: адаптер оповещён не о тех, что в lastItemsInfo
+        val listDiff = if (isLastItemsInfoActual) {
+            // diff is calculated over the real lists, infinite scroll loops are handled on dispatch
+            TrimmingDiffCalculator.calculateDiff(
+                    getLastItemsSnapshot(),
+                    ItemInfoListSnapshot(newItemInfo, emptyList<I>()),
+                    DiffCancellationToken()
+            )
+        } else {
+            null
+        }
+        val diffEndTime = System.nanoTime()
+        val updateCallback = createUpdateCallback()
+        if (listDiff != null) {
+            listDiff.dispatchUpdatesTo(wrapForInfiniteScroll(updateCallback, lastItemsInfo.size))
+        } else {
+            notifyDataSetChanged()
+        }
+        reportDiffMetrics(
+                updateCallback,
+                lastItemsInfo.size,
+                newItemInfo.size,
+                0L,
+                extractionEndTime - startTime,
+                diffEndTime - extractionEndTime,
+                System.nanoTime() - diffEndTime,
+                0,
+                listDiff != null
         )
-        diffResult.dispatchUpdatesTo(this)
         lastItemsInfo = newItemInfo
+        isLastItemsInfoActual = true
+    }
+
+    /**
+     * Передать [newItems] на расчёт выборочного обновления в фоновом потоке;
+     * при [AsyncDiffStrategy.QUEUE_ALL] расчёт ведётся относительно предыдущих ожидающих элементов
+     */
+    private fun calculateDiffAsync(newItems: List<I>) {
+        val previousBundle = lastPendingBundle
+        val oldItemInfo = if (previousBundle != null && asyncDiffStrategy == AsyncDiffStrategy.QUEUE_ALL) {
+            ItemInfoListSnapshot(PendingItemInfoList(previousBundle), previousBundle.items)
+        } else {
+            getLastItemsSnapshot()
+        }
+        val bundle = DiffCalculationBundle(newItems, oldItemInfo, object : ItemInfoExtractor {
+            override fun extract(): ItemInfoSnapshot = extractItemInfo(newItems)
+        })
+        lastPendingBundle = bundle
+        val differ = asyncDiffer ?: createAsyncDiffer().also { asyncDiffer = it }
+        differ.calculateDiff(bundle)
+    }
+
+    private fun createAsyncDiffer(): AsyncDiffer {
+        val applier = object : DiffResultApplier {
+            override fun apply(diffResultBundle: DiffResultBundle) {
+                applyDiffResult(diffResultBundle)
+            }
+        }
+        return when (asyncDiffStrategy) {
+            AsyncDiffStrategy.APPLY_LATEST -> ApplyLatestAsyncDiffer(applier, TrimmingDiffCalculator)
+            AsyncDiffStrategy.CANCEL_STALE -> CancelStaleAsyncDiffer(applier, TrimmingDiffCalculator)
+            AsyncDiffStrategy.FRAME_ALIGNED -> FrameAlignedAsyncDiffer(applier, TrimmingDiffCalculator)
+            AsyncDiffStrategy.ADAPTIVE -> AdaptiveAsyncDiffer(applier, TrimmingDiffCalculator)
+            AsyncDiffStrategy.QUEUE_ALL -> QueueAllAsyncDiffer(applier, TrimmingDiffCalculator)
+        }
+    }
+
+    /**
+     * Один снимок для всех расчётов относительно [lastItemsInfo]:
+     * по нему [FrameAlignedAsyncDiffer] переносит ожидающий расчёт на только что применённые элементы
+     */
+    private fun getLastItemsSnapshot(): ItemInfoListSnapshot {
+        if (lastItemsSnapshot.itemInfo !== lastItemsInfo) {
+            lastItemsSnapshot = ItemInfoListSnapshot(lastItemsInfo, emptyList<I>())
+        }
+        return lastItemsSnapshot
+    }
+
+    /**
+     * Заменить [items] на рассчитанные в фоне одной операцией
+     */
+    @Suppress("UNCHECKED_CAST")
+    private fun applyDiffResult(diffResultBundle: DiffResultBundle) {
+        // differ may apply a copy of the bundle with another base, but with the same items
+        if (diffResultBundle.calculationBundle.items === lastPendingBundle?.items) {
+            lastPendingBundle = null
+        }
+        clearItemsBeforeSet(true)
+        items.addAll(diffResultBundle.items as List<I>)
+        invalidateItemsIndex()
+        appliedDiffResult = diffResultBundle
+        try {
+            onItemsSet()
+        } finally {
+            appliedDiffResult = null
+        }
+    }
+
+    private fun dispatchDiffResult(diffResultBundle: DiffResultBundle) {
+        val dispatchStartTime = System.nanoTime()
+        val oldItemsCount = diffResultBundle.calculationBundle.oldItemInfo.size
+        // расчёт отменён или выполнен не относительно отображаемых элементов
+        val listDiff = diffResultBundle.diffResult?.takeIf { isDiffBaseActual(diffResultBundle.calculationBundle) }
+        val updateCallback = createUpdateCallback()
+        if (listDiff != null) {
+            listDiff.dispatchUpdatesTo(wrapForInfiniteScroll(updateCallback, oldItemsCount))
+        } else {
+            notifyDataSetChanged()
+        }
+        lastItemsInfo = (diffResultBundle.newItemInfo as ItemInfoListSnapshot).itemInfo
+        isLastItemsInfoActual = true
+        reportDiffMetrics(
+                updateCallback,
+                oldItemsCount,
+                lastItemsInfo.size,
+                diffResultBundle.queueWaitTimeNanos,
+                diffResultBundle.extractionTimeNanos,
+                diffResultBundle.diffTimeNanos,
+                System.nanoTime() - dispatchStartTime,
+                diffResultBundle.calculationBundle.skippedSnapshotsCount,
+                listDiff != null
+        )
+    }
+
+    /**
+     * @return рассчитан ли [bundle] относительно отображаемых сейчас элементов
+     */
+    private fun isDiffBaseActual(bundle: DiffCalculationBundle): Boolean {
+        if (!isLastItemsInfoActual) {
+            return false
+        }
+        val oldItemInfo = (bundle.oldItemInfo as ItemInfoListSnapshot).itemInfo
+        return (if (oldItemInfo is PendingItemInfoList) oldItemInfo.itemInfo else oldItemInfo) === lastItemsInfo
+    }
+
+    /**
+     * Extract items info in any thread, so only [items] are used, not the adapter state
+     */
+    private fun extractItemInfo(items: List<I>): ItemInfoSnapshot {
+        val currentItemsInfo = arrayOfNulls<ItemInfo>(items.size)
+        ParallelSnapshotBuilder.forEachRange(items.size, object : ParallelSnapshotBuilder.RangeTask {
+            override fun compute(fromIndex: Int, toIndex: Int) {
+                for (i in fromIndex until toIndex) {
+                    val item = items[i]
+                    currentItemsInfo[i] = ItemInfo(getStringIdForItem(item), getHashForItem(item))
+                }
+            }
+        })
+        return ItemInfoListSnapshot(currentItemsInfo.requireNoNulls().asList(), items)
+    }
+
+    /**
+     * @return callback, which notifies adapter and counts operations, if metrics are collected
+     */
+    private fun createUpdateCallback(): ListUpdateCallback =
+            if (diffMetricsListener != null) {
+                CountingListUpdateCallback(adapterUpdateCallback)
+            } else {
+                adapterUpdateCallback
+            }
+
+    /**
+     * Diff is calculated over the real lists, infinite scroll loops are handled on dispatch
+     */
+    private fun wrapForInfiniteScroll(updateCallback: ListUpdateCallback, oldItemsCount: Int): ListUpdateCallback =
+            if (allowInfiniteScroll) {
+                InfiniteScrollUpdateCallback(updateCallback, oldItemsCount, infiniteScrollLoopsCount)
+            } else {
+                updateCallback
+            }
+
+    private fun reportDiffMetrics(
+            updateCallback: ListUpdateCallback,
+            oldItemsCount: Int,
+            newItemsCount: Int,
+            queueWaitTimeNanos: Long,
+            extractionTimeNanos: Long,
+            diffTimeNanos: Long,
+            dispatchTimeNanos: Long,
+            droppedSnapshotsCount: Int,
+            isDiffCalculated: Boolean
+    ) {
+        val metricsListener = diffMetricsListener
+        if (metricsListener == null || updateCallback !is CountingListUpdateCallback) {
+            return
+        }
+        metricsListener.onUpdateDispatched(DiffMetrics(
+                oldItemsCount,
+                newItemsCount,
+                queueWaitTimeNanos,
+                extractionTimeNanos,
+                diffTimeNanos,
+                dispatchTimeNanos,
+                droppedSnapshotsCount,
+                isDiffCalculated,
+                updateCallback.insertionsCount,
+                updateCallback.removalsCount,
+                updateCallback.movesCount,
+                updateCallback.changesCount
+        ))
+    }
+
+    /**
+     * Информация об элементах ожидающего [bundle], извлекаемая при первом обращении:
+     * при [AsyncDiffStrategy.QUEUE_ALL] к этому моменту расчёт [bundle] уже завершён
+     */
+    private class PendingItemInfoList(
+            private val bundle: DiffCalculationBundle
+    ) : kotlin.collections.AbstractList<ItemInfo>() {
+
+        val itemInfo by lazy { (bundle.newItemInfo as ItemInfoListSnapshot).itemInfo }
+
+        override val size: Int
+            get() = itemInfo.size
+
+        override fun get(index: Int): ItemInfo = itemInfo[index]
+    }
+
+    /**
+     * Слушатель нажатий на [holder], переиспользуется между привязками,
+     * поэтому элемент последней привязки хранится в [item]
+     */
+    private inner class HolderEventsListener(
+            private val holder: VH
+    ) : View.OnClickListener, View.OnLongClickListener {
+
+        var item: I? = null
+
+        val adapter: BaseRecyclerViewAdapter<I, VH> get() = this@BaseRecyclerViewAdapter
+
+        override fun onClick(v: View) {
+            itemsEventsObservable.notifyItemClick(getListPosition(holder.adapterPosition), item)
+        }
+
+        override fun onLongClick(v: View): Boolean =
+                itemsEventsObservable.notifyItemLongClick(getListPosition(holder.adapterPosition), item)
     }
 
     abstract class ViewHolder<I>(view: View) : RecyclerView.ViewHolder(view) {
@@ -654,6 +1319,17 @@ abstract class BaseRecyclerViewAdapter<I, VH : BaseRecyclerViewAdapter.ViewHolde
         var longClickListener: View.OnLongClickListener? = null
         var motionTouchListener: OnMotionTouchListener? = null
 
+        /**
+         * Слушатель нажатий, созданный адаптером для этого холдера;
+         * в отличие от [clickListener] и [longClickListener] не сбрасывается при переиспользовании
+         */
+        internal var eventsListener: Any? = null
+
+        /**
+         * Отметка изменений адаптера, пропущенных вне выложенного диапазона, на момент последней привязки
+         */
+        internal var changesStamp = 0
+
         constructor(parent: ViewGroup, @LayoutRes layoutId: Int) :
                 this(LayoutInflater.from(parent.context).inflate(layoutId, parent, false))
 
@@ -752,6 +1428,22 @@ abstract class BaseRecyclerViewAdapter<I, VH : BaseRecyclerViewAdapter.ViewHolde
             }
         }
 
+        fun notifyItemsRangeReplaced(from: Int, to: Int, previousSize: Int, replacedItems: List<I?>, newItems: List<I?>) {
+            synchronized(mObservers) {
+                for (l in mObservers) {
+                    l.onItemsRangeReplaced(from, to, previousSize, replacedItems, newItems)
+                }
+            }
+        }
+
+        fun notifyItemsUpdated(previousItems: List<I?>, items: List<I?>) {
+            synchronized(mObservers) {
+                for (l in mObservers) {
+                    l.onItemsUpdated(previousItems, items)
+                }
+            }
+        }
+
         fun notifyItemsSwapped(fromPosition: Int, fromItem: I?, toPosition: Int, toItem: I?) {
             synchronized(mObservers) {
                 for (l in mObservers) {
@@ -787,6 +1479,25 @@ abstract class BaseRecyclerViewAdapter<I, VH : BaseRecyclerViewAdapter.ViewHolde
 
         fun onItemsRangeRemoved(from: Int, to: Int, previousSize: Int, removedItems: List<I?>)
 
+        /**
+         * Диапазон [from]..[to] заменён на [newItems], вставленные начиная с [from];
+         * по умолчанию разбивается на удаление и добавление
+         */
+        fun onItemsRangeReplaced(from: Int, to: Int, previousSize: Int, replacedItems: List<I?>, newItems: List<I?>) {
+            onItemsRangeRemoved(from, to, previousSize, replacedItems)
+            if (newItems.isNotEmpty()) {
+                onItemsAdded(from, newItems, previousSize - replacedItems.size)
+            }
+        }
+
         fun onItemsSwapped(fromPosition: Int, fromItem: I?, toPosition: Int, toItem: I?)
+
+        /**
+         * Завершено пакетное обновление: [items] - состояние после него,
+         * [previousItems] - перед ним; по умолчанию оповещается как [onItemsSet]
+         */
+        fun onItemsUpdated(previousItems: List<I?>, items: List<I?>) {
+            onItemsSet(items)
+        }
     }
 }
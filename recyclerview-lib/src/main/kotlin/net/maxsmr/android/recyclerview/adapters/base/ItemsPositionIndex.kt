@@ -0,0 +1,124 @@
+package net.maxsmr.android.recyclerview.adapters.base
+
+/**
+ * Индекс позиций элементов [items] по ключам из [keyOf]:
+ * добавление в конец, удаление с конца, замена и обмен элементов обновляют его на месте,
+ * прочие изменения сбрасывают его до перестроения при следующем поиске.
+ *
+ * Равные элементы должны иметь равные ключи; при повторяющихся ключах поиск линейный
+ */
+internal class ItemsPositionIndex<I>(
+        private val items: List<I>,
+        private val keyOf: (I) -> String
+) {
+
+    private val positions = HashMap<String, Int>()
+
+    private var isValid = false
+
+    private var hasDuplicateKeys = false
+
+    fun indexOf(item: I?): Int {
+        if (item == null) {
+            return items.indexOf(item)
+        }
+        ensureValid()
+        if (hasDuplicateKeys) {
+            return items.indexOf(item)
+        }
+        val position = positions[keyOf(item)] ?: return -1
+        return if (items.getOrNull(position) == item) position else -1
+    }
+
+    fun lastIndexOf(item: I?): Int {
+        if (item == null) {
+            return items.lastIndexOf(item)
+        }
+        ensureValid()
+        return if (hasDuplicateKeys) items.lastIndexOf(item) else indexOf(item)
+    }
+
+    fun invalidate() {
+        isValid = false
+    }
+
+    /**
+     * В [items] добавлено [count] элементов начиная с [position]
+     */
+    fun onAdded(position: Int, count: Int) {
+        if (!isValid) {
+            return
+        }
+        if (position + count != items.size) {
+            invalidate()
+            return
+        }
+        for (i in position until items.size) {
+            put(i)
+        }
+    }
+
+    /**
+     * Из [items] удалены [removedItems], находившиеся начиная с [position]
+     */
+    fun onRemoved(position: Int, removedItems: List<I>) {
+        if (!isValid) {
+            return
+        }
+        if (position != items.size || hasDuplicateKeys) {
+            invalidate()
+            return
+        }
+        for (item in removedItems) {
+            if (item != null) {
+                positions.remove(keyOf(item))
+            }
+        }
+    }
+
+    /**
+     * В [items] на [position] вместо [previousItem] установлен другой элемент
+     */
+    fun onSet(position: Int, previousItem: I) {
+        if (!isValid) {
+            return
+        }
+        if (previousItem != null) {
+            val key = keyOf(previousItem)
+            if (positions[key] == position) {
+                positions.remove(key)
+            }
+        }
+        put(position)
+    }
+
+    fun onSwapped(from: Int, to: Int) {
+        if (!isValid) {
+            return
+        }
+        put(from)
+        put(to)
+    }
+
+    private fun ensureValid() {
+        if (isValid) {
+            return
+        }
+        positions.clear()
+        hasDuplicateKeys = false
+        isValid = true
+        for (i in items.indices) {
+            put(i)
+        }
+    }
+
+    private fun put(position: Int) {
+        val item = items[position] ?: return
+        val key = keyOf(item)
+        val previousPosition = positions.put(key, position) ?: return
+        // entry may be left from the item which is already moved or replaced
+        if (previousPosition != position && items.getOrNull(previousPosition)?.let { keyOf(it) } == key) {
+            hasDuplicateKeys = true
+        }
+    }
+}
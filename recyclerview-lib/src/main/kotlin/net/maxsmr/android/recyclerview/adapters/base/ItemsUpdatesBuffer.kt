@@ -0,0 +1,85 @@
+package net.maxsmr.android.recyclerview.adapters.base
+
+import androidx.recyclerview.widget.ListUpdateCallback
+
+/**
+ * Накопитель оповещений адаптера во время пакетного обновления:
+ * идущие подряд операции одного типа над смежными диапазонами объединяются в одну,
+ * порядок остальных операций сохраняется
+ */
+internal class ItemsUpdatesBuffer : ListUpdateCallback {
+
+    private val updates = mutableListOf<Update>()
+
+    val isEmpty get() = updates.isEmpty()
+
+    override fun onInserted(position: Int, count: Int) {
+        val last = updates.lastOrNull()
+        if (last != null && last.type == Update.Type.INSERT
+                && position >= last.position && position <= last.position + last.count) {
+            last.count += count
+        } else {
+            updates.add(Update(Update.Type.INSERT, position, count))
+        }
+    }
+
+    override fun onRemoved(position: Int, count: Int) {
+        val last = updates.lastOrNull()
+        if (last != null && last.type == Update.Type.REMOVE
+                && last.position >= position && last.position <= position + count) {
+            last.position = position
+            last.count += count
+        } else {
+            updates.add(Update(Update.Type.REMOVE, position, count))
+        }
+    }
+
+    override fun onChanged(position: Int, count: Int, payload: Any?) {
+        val last = updates.lastOrNull()
+        if (last != null && last.type == Update.Type.CHANGE
+                && position <= last.position + last.count && position + count >= last.position) {
+            val end = maxOf(last.position + last.count, position + count)
+            last.position = minOf(last.position, position)
+            last.count = end - last.position
+        } else {
+            updates.add(Update(Update.Type.CHANGE, position, count))
+        }
+    }
+
+    override fun onMoved(fromPosition: Int, toPosition: Int) {
+        updates.add(Update(Update.Type.MOVE, fromPosition, toPosition))
+    }
+
+    /**
+     * Передать накопленные операции в [callback] и очистить буфер
+     */
+    fun dispatchTo(callback: ListUpdateCallback) {
+        for (update in updates) {
+            when (update.type) {
+                Update.Type.INSERT -> callback.onInserted(update.position, update.count)
+                Update.Type.REMOVE -> callback.onRemoved(update.position, update.count)
+                Update.Type.CHANGE -> callback.onChanged(update.position, update.count, null)
+                Update.Type.MOVE -> callback.onMoved(update.position, update.count)
+            }
+        }
+        clear()
+    }
+
+    fun clear() {
+        updates.clear()
+    }
+
+    /**
+     * @param count количество элементов или, для [Type.MOVE], конечная позиция
+     */
+    private class Update(
+            val type: Type,
+            var position: Int,
+            var count: Int
+    ) {
+
+        enum class Type {
+            INSERT, REMOVE, CHANGE, MOVE
+        }
+    }
+}
@@ -73,10 +73,18 @@ abstract class BaseSelectionRecyclerViewAdapter<I, VH : BaseSelectionRecyclerVie
 
     @CallSuper
     override fun onItemsRangeRemoved(from: Int, to: Int, previousSize: Int, removedItems: List<I?>) {
-        invalidateSelectionIndexOnRemove(from, if (from == to) 1 else to - from)
+        invalidateSelectionIndexOnRemove(from, to - from + 1)
         super.onItemsRangeRemoved(from, to, previousSize, removedItems)
     }
 
+    @CallSuper
+    override fun onItemsRangeReplaced(from: Int, to: Int, previousSize: Int, replacedItems: List<I?>, newItems: List<I?>) {
+        // replaced positions hold other items now, their selection is dropped
+        invalidateSelectionIndexOnRemove(from, to - from + 1)
+        invalidateSelectionIndexOnAdd(from, newItems.size)
+        super.onItemsRangeReplaced(from, to, previousSize, replacedItems, newItems)
+    }
+
     override fun onItemsSwapped(fromPosition: Int, fromItem: I?, toPosition: Int, toItem: I?) {
         allowNotifyOnChange = false
         invalidateSelectionIndexOnSwap(fromPosition, toPosition)
@@ -256,12 +256,12 @@ abstract class BaseSingleSelectionRecyclerViewAdapter<I, VH : BaseSelectionRecyc
                     // позиция, для которой только что произошло обычное или кастомное оповещение
                     val notifiedPosition =
                             if (notifySelectionChangedAction == null) {
-                                notifyItemChanged(to)
+                                itemsUpdateCallback.onChanged(to, 1, null)
                                 to
                             } else {
                                 notifySelectionChangedAction()
                             }
-                    notifyItemsChangedForInfiniteScroll(to, setOf(notifiedPosition))
+                    notifyItemsChangedForInfiniteScroll(to, notifiedPosition)
                 }
             } else {
                 itemsSelectedObservable.notifyItemReselect(to, fromUser)
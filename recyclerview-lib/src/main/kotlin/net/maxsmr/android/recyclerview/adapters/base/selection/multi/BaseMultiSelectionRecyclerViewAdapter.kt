@@ -141,7 +141,7 @@ abstract class BaseMultiSelectionRecyclerViewAdapter<I, VH : BaseSelectionRecycl
                 holder.handleSelected(isSelected)
                 wasNotifiedManually = true
             }
-            notifyItemChangedInfiniteCheck(position, if (holder != null && wasNotifiedManually) setOf(holder.adapterPosition) else emptySet())
+            notifyItemChangedInfiniteCheck(position, if (holder != null && wasNotifiedManually) holder.adapterPosition else NO_POSITION)
         }
     }
 
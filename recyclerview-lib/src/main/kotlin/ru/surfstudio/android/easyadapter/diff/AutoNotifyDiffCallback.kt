@@ -21,11 +21,18 @@ import ru.surfstudio.android.easyadapter.item.ItemInfo
 /**
  * Implementation of [DiffUtil.Callback].
  * It is used to calculate difference between two lists of data depending on their [ItemInfo].
+ *
+ * Prefer calculating over the real lists (zero [infiniteScrollLoopsCount]) and dispatching
+ * through [InfiniteScrollUpdateCallback]: expanded virtual lists are [infiniteScrollLoopsCount] times bigger.
+ *
+ * @param cancellationToken if set, calculation is interrupted with [java.util.concurrent.CancellationException]
+ * on the next comparison after token is cancelled
  */
-class AutoNotifyDiffCallback constructor(
+class AutoNotifyDiffCallback @JvmOverloads constructor(
         private val lastItemsInfo: List<ItemInfo>,
         private val newItemsInfo: List<ItemInfo>,
-        private val infiniteScrollLoopsCount: Int
+        private val infiniteScrollLoopsCount: Int,
+        private val cancellationToken: DiffCancellationToken? = null
 ) : DiffUtil.Callback() {
 
     init {
@@ -34,8 +41,6 @@ class AutoNotifyDiffCallback constructor(
 
     val infiniteScroll = infiniteScrollLoopsCount > 0
 
-    private val MAGIC_NUMBER = 3578121127L.toString() // used for making ids unique
-
     override fun getOldListSize(): Int {
         return if (infiniteScroll) {
             lastItemsInfo.size * infiniteScrollLoopsCount
@@ -53,21 +58,17 @@ class AutoNotifyDiffCallback constructor(
     }
 
     override fun areItemsTheSame(oldItemPosition: Int, newItemPosition: Int): Boolean {
+        cancellationToken?.throwIfCancelled()
         if (infiniteScroll) {
-            //magic numbers make every element id unique
-            val lastItemsFakeItemId = lastItemsInfo[oldItemPosition % lastItemsInfo.size].id +
-                    oldItemPosition.toString() +
-                    MAGIC_NUMBER
-            val newItemsFakeItemId = newItemsInfo[newItemPosition % newItemsInfo.size].id +
-                    newItemPosition.toString() +
-                    MAGIC_NUMBER
-
-            return lastItemsFakeItemId == newItemsFakeItemId
+            // every virtual element is unique within its position
+            return oldItemPosition == newItemPosition
+                    && lastItemsInfo[oldItemPosition % lastItemsInfo.size].id == newItemsInfo[newItemPosition % newItemsInfo.size].id
         }
         return lastItemsInfo[oldItemPosition].id == newItemsInfo[newItemPosition].id
     }
 
     override fun areContentsTheSame(oldItemPosition: Int, newItemPosition: Int): Boolean {
+        cancellationToken?.throwIfCancelled()
         var oldItemPosition = oldItemPosition
         var newItemPosition = newItemPosition
         if (infiniteScroll) {
@@ -0,0 +1,43 @@
+/*
+  Copyright (c) 2018-present, SurfStudio LLC, Maxim Tuev.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package ru.surfstudio.android.easyadapter.diff
+
+import java.util.concurrent.CancellationException
+
+/**
+ * Signal which allows to abandon running diff calculation, once its result is not needed anymore.
+ * It is checked by [AutoNotifyDiffCallback] on every comparison.
+ */
+class DiffCancellationToken {
+
+    @Volatile
+    var isCancelled = false
+        private set
+
+    fun cancel() {
+        isCancelled = true
+    }
+
+    /**
+     * @throws CancellationException if [cancel] was called
+     */
+    @Throws(CancellationException::class)
+    fun throwIfCancelled() {
+        if (isCancelled) {
+            throw CancellationException("Diff calculation was cancelled")
+        }
+    }
+}
@@ -0,0 +1,63 @@
+/*
+  Copyright (c) 2018-present, SurfStudio LLC, Maxim Tuev.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package ru.surfstudio.android.easyadapter.diff
+
+import ru.surfstudio.android.easyadapter.diff.base.data.ItemInfoSnapshot
+import java.util.*
+
+/**
+ * Linear-time estimation of the amount of insertions and removals between two snapshots.
+ *
+ * Ids of [SAMPLES_COUNT] evenly spaced new items are looked up among all old items:
+ * share of found samples approximates share of new items retained from the old list.
+ * Moves and changes of contents are not taken into account.
+ */
+internal object EditDistanceEstimator {
+
+    private const val SAMPLES_COUNT = 64
+
+    /**
+     * @return estimated amount of inserted and removed items
+     */
+    fun estimate(oldItemInfo: ItemInfoSnapshot, newItemInfo: ItemInfoSnapshot): Int {
+        val oldSize = oldItemInfo.size
+        val newSize = newItemInfo.size
+        if (oldSize == 0 || newSize == 0) return oldSize + newSize
+
+        val samplesCount = Math.min(SAMPLES_COUNT, newSize)
+        val samples = IntArray(samplesCount) { newItemInfo.itemHashCode((it.toLong() * newSize / samplesCount).toInt()) }
+        samples.sort()
+        val found = BooleanArray(samplesCount)
+        var foundCount = 0
+        for (position in 0 until oldSize) {
+            val hash = oldItemInfo.itemHashCode(position)
+            var index = Arrays.binarySearch(samples, hash)
+            if (index < 0) continue
+            // equal hashes are adjacent after sorting, every old item matches one sample at most
+            while (index > 0 && samples[index - 1] == hash) index--
+            while (index < samplesCount && samples[index] == hash && found[index]) index++
+            if (index < samplesCount && samples[index] == hash) {
+                found[index] = true
+                if (++foundCount == samplesCount) break
+            }
+        }
+
+        val retainedCount = (newSize.toLong() * foundCount / samplesCount).toInt()
+        val insertedCount = newSize - retainedCount
+        val removedCount = Math.max(0, oldSize - retainedCount)
+        return insertedCount + removedCount
+    }
+}
\ No newline at end of file
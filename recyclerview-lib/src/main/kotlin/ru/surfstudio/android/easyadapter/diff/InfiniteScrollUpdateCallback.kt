@@ -0,0 +1,74 @@
+/*
+  Copyright (c) 2018-present, SurfStudio LLC, Maxim Tuev.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package ru.surfstudio.android.easyadapter.diff
+
+import androidx.recyclerview.widget.DiffUtil
+import androidx.recyclerview.widget.ListUpdateCallback
+
+/**
+ * [ListUpdateCallback] which replicates updates of the real item list
+ * to every loop of infinite scrolled adapter.
+ *
+ * It allows to calculate [DiffUtil.DiffResult] only once over the real lists
+ * instead of the lists expanded [loopsCount] times.
+ *
+ * @param target callback which receives updates in adapter positions
+ * @param oldItemsCount size of the real item list before updates
+ * @param loopsCount how many times the real item list is repeated in adapter
+ */
+class InfiniteScrollUpdateCallback(
+        private val target: ListUpdateCallback,
+        oldItemsCount: Int,
+        private val loopsCount: Int
+) : ListUpdateCallback {
+
+    init {
+        require(loopsCount > 0) { "loopsCount cannot be less or equal zero: $loopsCount" }
+    }
+
+    /**
+     * Size of the real item list at the moment of current update
+     */
+    private var itemsCount = oldItemsCount
+
+    override fun onInserted(position: Int, count: Int) {
+        // going from the last loop, so that offsets of previous loops stay valid
+        for (loop in loopsCount - 1 downTo 0) {
+            target.onInserted(loop * itemsCount + position, count)
+        }
+        itemsCount += count
+    }
+
+    override fun onRemoved(position: Int, count: Int) {
+        for (loop in loopsCount - 1 downTo 0) {
+            target.onRemoved(loop * itemsCount + position, count)
+        }
+        itemsCount -= count
+    }
+
+    override fun onMoved(fromPosition: Int, toPosition: Int) {
+        for (loop in loopsCount - 1 downTo 0) {
+            val offset = loop * itemsCount
+            target.onMoved(offset + fromPosition, offset + toPosition)
+        }
+    }
+
+    override fun onChanged(position: Int, count: Int, payload: Any?) {
+        for (loop in 0 until loopsCount) {
+            target.onChanged(loop * itemsCount + position, count, payload)
+        }
+    }
+}
\ No newline at end of file
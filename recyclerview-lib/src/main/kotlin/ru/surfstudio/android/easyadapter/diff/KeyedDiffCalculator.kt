@@ -0,0 +1,381 @@
+/*
+  Copyright (c) 2018-present, SurfStudio LLC, Maxim Tuev.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package ru.surfstudio.android.easyadapter.diff
+
+import androidx.recyclerview.widget.ListUpdateCallback
+import ru.surfstudio.android.easyadapter.diff.base.DiffCalculator
+import ru.surfstudio.android.easyadapter.diff.base.data.ItemInfoSnapshot
+import ru.surfstudio.android.easyadapter.diff.base.data.ListDiff
+
+/**
+ * [DiffCalculator] for lists with unique item ids.
+ *
+ * Old and new lists are indexed by item id with hash tables, so inserts, removes and changes
+ * are found in linear time. Moves are approximated with the longest increasing subsequence
+ * of kept items: items from it stay in place, all other kept items are moved.
+ * In total it takes O(N log N) instead of O(N·D) of DiffUtil, which matters for large reorders (e.g. sorting).
+ *
+ * If duplicate ids are detected in the old list or among kept items of the new list,
+ * calculation falls back to [TrimmingDiffCalculator].
+ */
+internal object KeyedDiffCalculator : DiffCalculator {
+
+    private const val NO_POSITION = -1
+
+    private const val OP_REMOVE = 0
+    private const val OP_MOVE = 1
+    private const val OP_INSERT = 2
+    private const val OP_CHANGE = 3
+
+    override fun calculateDiff(
+            oldItemInfo: ItemInfoSnapshot,
+            newItemInfo: ItemInfoSnapshot,
+            cancellationToken: DiffCancellationToken
+    ): ListDiff {
+        val oldSize = oldItemInfo.size
+        val newSize = newItemInfo.size
+        if (oldSize == 0 || newSize == 0) {
+            return TrimmingDiffCalculator.calculateDiff(oldItemInfo, newItemInfo, cancellationToken)
+        }
+
+        val oldIndex = buildIndex(oldItemInfo)
+                ?: return TrimmingDiffCalculator.calculateDiff(oldItemInfo, newItemInfo, cancellationToken)
+        cancellationToken.throwIfCancelled()
+
+        val oldToNew = IntArray(oldSize) { NO_POSITION }
+        val newToOld = IntArray(newSize)
+        for (newPosition in 0 until newSize) {
+            val oldPosition = findInIndex(oldIndex, oldItemInfo, newItemInfo, newPosition)
+            newToOld[newPosition] = oldPosition
+            if (oldPosition != NO_POSITION) {
+                if (oldToNew[oldPosition] != NO_POSITION) {
+                    // duplicate ids of kept item in the new list,
+                    // duplicates among inserted items don't break the matching
+                    return TrimmingDiffCalculator.calculateDiff(oldItemInfo, newItemInfo, cancellationToken)
+                }
+                oldToNew[oldPosition] = newPosition
+            }
+        }
+        cancellationToken.throwIfCancelled()
+
+        val operations = OperationList(oldToNew, newToOld)
+        addRemoves(operations, oldToNew)
+        addMoves(operations, oldToNew, newToOld)
+        cancellationToken.throwIfCancelled()
+        addInserts(operations, newToOld)
+        addChanges(operations, oldItemInfo, newItemInfo, newToOld)
+        return operations
+    }
+
+    /**
+     * Build open addressing hash table of positions, shifted by one (zero means an empty slot).
+     *
+     * @return hash table or null if snapshot contains duplicate ids
+     */
+    private fun buildIndex(itemInfo: ItemInfoSnapshot): IntArray? {
+        val size = itemInfo.size
+        var capacity = 2
+        while (capacity < size * 2) {
+            capacity = capacity shl 1
+        }
+        val mask = capacity - 1
+        val index = IntArray(capacity)
+        for (position in 0 until size) {
+            var slot = mix(itemInfo.itemHashCode(position)) and mask
+            while (true) {
+                val occupied = index[slot]
+                if (occupied == 0) {
+                    index[slot] = position + 1
+                    break
+                }
+                if (itemInfo.areItemsTheSame(occupied - 1, itemInfo, position)) {
+                    return null
+                }
+                slot = (slot + 1) and mask
+            }
+        }
+        return index
+    }
+
+    private fun findInIndex(
+            index: IntArray,
+            indexedItemInfo: ItemInfoSnapshot,
+            itemInfo: ItemInfoSnapshot,
+            position: Int
+    ): Int {
+        val mask = index.size - 1
+        var slot = mix(itemInfo.itemHashCode(position)) and mask
+        while (true) {
+            val occupied = index[slot]
+            if (occupied == 0) {
+                return NO_POSITION
+            }
+            if (indexedItemInfo.areItemsTheSame(occupied - 1, itemInfo, position)) {
+                return occupied - 1
+            }
+            slot = (slot + 1) and mask
+        }
+    }
+
+    private fun mix(hash: Int): Int {
+        val h = hash * -0x61c88647
+        return h xor (h ushr 16)
+    }
+
+    /**
+     * Removes are added from the end, so positions of the preceding items stay valid.
+     */
+    private fun addRemoves(operations: OperationList, oldToNew: IntArray) {
+        var position = oldToNew.size - 1
+        while (position >= 0) {
+            if (oldToNew[position] != NO_POSITION) {
+                position--
+                continue
+            }
+            var start = position
+            while (start > 0 && oldToNew[start - 1] == NO_POSITION) {
+                start--
+            }
+            operations.add(OP_REMOVE, start, position - start + 1)
+            position = start - 1
+        }
+    }
+
+    /**
+     * After removes, the list contains kept items in the old order.
+     * Items from the longest increasing subsequence (by new order) stay in place,
+     * every other kept item is moved right after the kept item which precedes it in the new list.
+     *
+     * Current positions are tracked with Fenwick tree over slots: every kept item has its old slot,
+     * and every moved item also has a destination slot right after its new predecessor.
+     */
+    private fun addMoves(operations: OperationList, oldToNew: IntArray, newToOld: IntArray) {
+        // rank of kept item is its position in the new list without inserted items
+        val newRanks = IntArray(newToOld.size)
+        var keptCount = 0
+        for (newPosition in newToOld.indices) {
+            if (newToOld[newPosition] != NO_POSITION) {
+                newRanks[newPosition] = keptCount++
+            }
+        }
+        if (keptCount == 0) return
+
+        // ranks of kept items in the old order
+        val ranks = IntArray(keptCount)
+        var keptIndex = 0
+        for (newPosition in oldToNew) {
+            if (newPosition != NO_POSITION) {
+                ranks[keptIndex++] = newRanks[newPosition]
+            }
+        }
+
+        val stays = findLongestIncreasingSubsequence(ranks)
+        val stayingRanks = BooleanArray(keptCount)
+        val rankToIndex = IntArray(keptCount)
+        for (index in 0 until keptCount) {
+            stayingRanks[ranks[index]] = stays[index]
+            rankToIndex[ranks[index]] = index
+        }
+
+        val oldSlots = IntArray(keptCount)
+        val destinationSlots = IntArray(keptCount)
+        var slot = 0
+        var rank = 0
+        // items which precede the first staying one in the new list are moved to the head
+        while (rank < keptCount && !stayingRanks[rank]) {
+            destinationSlots[rank++] = slot++
+        }
+        for (index in 0 until keptCount) {
+            oldSlots[index] = slot++
+            if (stays[index]) {
+                rank = ranks[index] + 1
+                while (rank < keptCount && !stayingRanks[rank]) {
+                    destinationSlots[rank++] = slot++
+                }
+            }
+        }
+
+        val tree = FenwickTree(slot)
+        for (index in 0 until keptCount) {
+            tree.add(oldSlots[index], 1)
+        }
+        for (movedRank in 0 until keptCount) {
+            val index = rankToIndex[movedRank]
+            if (stays[index]) continue
+            val fromPosition = tree.countBefore(oldSlots[index])
+            tree.add(oldSlots[index], -1)
+            val toPosition = tree.countBefore(destinationSlots[movedRank])
+            tree.add(destinationSlots[movedRank], 1)
+            if (fromPosition != toPosition) {
+                operations.add(OP_MOVE, fromPosition, toPosition)
+            }
+        }
+    }
+
+    private fun addInserts(operations: OperationList, newToOld: IntArray) {
+        var position = 0
+        while (position < newToOld.size) {
+            if (newToOld[position] != NO_POSITION) {
+                position++
+                continue
+            }
+            val start = position
+            while (position < newToOld.size && newToOld[position] == NO_POSITION) {
+                position++
+            }
+            operations.add(OP_INSERT, start, position - start)
+        }
+    }
+
+    /**
+     * Changes are added last, so they use positions of the new list.
+     */
+    private fun addChanges(
+            operations: OperationList,
+            oldItemInfo: ItemInfoSnapshot,
+            newItemInfo: ItemInfoSnapshot,
+            newToOld: IntArray
+    ) {
+        // adjacent changes without payloads are coalesced into ranges
+        var start = NO_POSITION
+        for (position in 0..newToOld.size) {
+            val changed = position < newToOld.size
+                    && newToOld[position] != NO_POSITION
+                    && !oldItemInfo.areContentsTheSame(newToOld[position], newItemInfo, position)
+            val payload = if (changed) oldItemInfo.getChangePayload(newToOld[position], newItemInfo, position) else null
+            if (start != NO_POSITION && (!changed || payload != null)) {
+                operations.add(OP_CHANGE, start, position - start)
+                start = NO_POSITION
+            }
+            if (payload != null) {
+                operations.add(OP_CHANGE, position, 1, payload)
+            } else if (changed && start == NO_POSITION) {
+                start = position
+            }
+        }
+    }
+
+    /**
+     * @return flags of elements which belong to one of the longest strictly increasing subsequences
+     */
+    private fun findLongestIncreasingSubsequence(values: IntArray): BooleanArray {
+        val size = values.size
+        val tails = IntArray(size)
+        val previous = IntArray(size)
+        var length = 0
+        for (index in 0 until size) {
+            var low = 0
+            var high = length
+            while (low < high) {
+                val middle = (low + high) ushr 1
+                if (values[tails[middle]] < values[index]) low = middle + 1 else high = middle
+            }
+            previous[index] = if (low > 0) tails[low - 1] else NO_POSITION
+            tails[low] = index
+            if (low == length) length++
+        }
+        val result = BooleanArray(size)
+        var index = if (length > 0) tails[length - 1] else NO_POSITION
+        while (index != NO_POSITION) {
+            result[index] = true
+            index = previous[index]
+        }
+        return result
+    }
+
+    /**
+     * Fenwick tree of slot occupancy.
+     */
+    private class FenwickTree(size: Int) {
+
+        private val tree = IntArray(size + 1)
+
+        fun add(slot: Int, delta: Int) {
+            var index = slot + 1
+            while (index < tree.size) {
+                tree[index] += delta
+                index += index and -index
+            }
+        }
+
+        /**
+         * @return amount of occupied slots before [slot]
+         */
+        fun countBefore(slot: Int): Int {
+            var index = slot
+            var count = 0
+            while (index > 0) {
+                count += tree[index]
+                index -= index and -index
+            }
+            return count
+        }
+    }
+
+    /**
+     * [ListDiff] with precalculated operations, stored as (type, first argument, second argument) triples.
+     * Change payloads are stored separately, by index of operation.
+     */
+    private class OperationList(
+            private val oldToNew: IntArray,
+            private val newToOld: IntArray
+    ) : ListDiff {
+
+        private var operations = IntArray(3 * 16)
+        private var size = 0
+        private var payloads: MutableMap<Int, Any>? = null
+
+        fun add(type: Int, first: Int, second: Int, payload: Any? = null) {
+            if (size + 3 > operations.size) {
+                operations = operations.copyOf(operations.size * 2)
+            }
+            if (payload != null) {
+                (payloads ?: HashMap<Int, Any>().also { payloads = it })[size] = payload
+            }
+            operations[size++] = type
+            operations[size++] = first
+            operations[size++] = second
+        }
+
+        override fun dispatchUpdatesTo(callback: ListUpdateCallback) {
+            var index = 0
+            while (index < size) {
+                val first = operations[index + 1]
+                val second = operations[index + 2]
+                when (operations[index]) {
+                    OP_REMOVE -> callback.onRemoved(first, second)
+                    OP_MOVE -> callback.onMoved(first, second)
+                    OP_INSERT -> callback.onInserted(first, second)
+                    OP_CHANGE -> callback.onChanged(first, second, payloads?.get(index))
+                }
+                index += 3
+            }
+        }
+
+        override fun dispatchMembershipChangesTo(callback: ListDiff.MembershipCallback) {
+            for (oldPosition in oldToNew.indices) {
+                if (oldToNew[oldPosition] == NO_POSITION) {
+                    callback.onRemoved(oldPosition)
+                }
+            }
+            for (newPosition in newToOld.indices) {
+                if (newToOld[newPosition] == NO_POSITION) {
+                    callback.onInserted(newPosition)
+                }
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,141 @@
+/*
+  Copyright (c) 2018-present, SurfStudio LLC, Maxim Tuev.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package ru.surfstudio.android.easyadapter.diff
+
+import ru.surfstudio.android.easyadapter.diff.async.AsyncDiffScheduler
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.atomic.AtomicInteger
+
+/**
+ * Splits building of item info snapshots between several threads.
+ *
+ * Parallel building is disabled by default: it calls item ids and hashes getters of adapters and controllers
+ * from worker threads, even if snapshot is built for synchronous update in the main thread,
+ * so they must be thread-safe before [parallelThreshold] is lowered.
+ *
+ * Snapshots smaller than [parallelThreshold] are built sequentially in the caller thread.
+ * Larger ones are split into chunks, which are taken by the caller thread and helpers,
+ * submitted to [AsyncDiffScheduler.executor]. Chunks are handed out from a shared counter
+ * instead of fork/join splitting, so the bounded diff executor is reused and no ForkJoinPool is started.
+ * The caller never waits for helpers which didn't start,
+ * so a busy executor only reduces parallelism and can't cause a deadlock.
+ *
+ * Every index is handled exactly once, and tasks are expected to write results for index i
+ * into i-th cell of preallocated arrays, so the result doesn't depend on chunks distribution.
+ */
+object ParallelSnapshotBuilder {
+
+    /**
+     * Default minimal snapshot size to be built in parallel: snapshots are always built sequentially
+     */
+    const val DEFAULT_PARALLEL_THRESHOLD = Int.MAX_VALUE
+
+    private const val MIN_CHUNK_SIZE = 256
+    private const val CHUNKS_PER_THREAD = 4
+
+    /**
+     * Minimal snapshot size to be built in parallel, [Int.MAX_VALUE] to always build snapshots sequentially.
+     * The crossover point depends on cost of ids and hashes of items and on device,
+     * see `ItemInfoExtractionBenchmark` in testapp to measure it.
+     */
+    @JvmStatic
+    @Volatile
+    var parallelThreshold = DEFAULT_PARALLEL_THRESHOLD
+
+    /**
+     * Amount of threads, including the caller one, which build single snapshot
+     */
+    @JvmField
+    val PARALLELISM = AsyncDiffScheduler.DEFAULT_WORKERS_COUNT + 1
+
+    /**
+     * Execute [task] over the range [0, count), in parallel if count is not less than [parallelThreshold].
+     * Returns after every index is handled.
+     */
+    @JvmStatic
+    fun forEachRange(count: Int, task: RangeTask) {
+        forEachRange(count, parallelThreshold, task)
+    }
+
+    /**
+     * Execute [task] over the range [0, count), in parallel if count is not less than [threshold].
+     * Returns after every index is handled.
+     */
+    @JvmStatic
+    fun forEachRange(count: Int, threshold: Int, task: RangeTask) {
+        if (count < threshold || count < MIN_CHUNK_SIZE * 2) {
+            task.compute(0, count)
+            return
+        }
+        val chunkSize = Math.max(MIN_CHUNK_SIZE, count / (PARALLELISM * CHUNKS_PER_THREAD))
+        val job = ChunkedJob(count, chunkSize, task)
+        for (i in 0 until Math.min(PARALLELISM, job.chunksCount) - 1) {
+            AsyncDiffScheduler.execute(job)
+        }
+        job.run()
+        job.await()
+    }
+
+    /**
+     * Task, which handles part of indexes
+     */
+    @FunctionalInterface
+    interface RangeTask {
+
+        /**
+         * @param fromIndex first index, inclusive
+         * @param toIndex last index, exclusive
+         */
+        fun compute(fromIndex: Int, toIndex: Int)
+    }
+
+    private class ChunkedJob(
+            private val count: Int,
+            private val chunkSize: Int,
+            private val task: RangeTask
+    ) : Runnable {
+
+        val chunksCount = (count + chunkSize - 1) / chunkSize
+
+        private val nextChunk = AtomicInteger()
+        private val completedChunks = CountDownLatch(chunksCount)
+
+        @Volatile
+        private var failure: Throwable? = null
+
+        override fun run() {
+            while (true) {
+                val chunk = nextChunk.getAndIncrement()
+                if (chunk >= chunksCount) return
+                try {
+                    if (failure == null) {
+                        val fromIndex = chunk * chunkSize
+                        task.compute(fromIndex, Math.min(fromIndex + chunkSize, count))
+                    }
+                } catch (e: Throwable) {
+                    failure = e
+                } finally {
+                    completedChunks.countDown()
+                }
+            }
+        }
+
+        fun await() {
+            completedChunks.await()
+            failure?.let { throw it }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,54 @@
+/*
+  Copyright (c) 2018-present, SurfStudio LLC, Maxim Tuev.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package ru.surfstudio.android.easyadapter.diff
+
+import androidx.recyclerview.widget.DiffUtil
+import ru.surfstudio.android.easyadapter.diff.base.data.ItemInfoSnapshot
+
+/**
+ * Implementation of [DiffUtil.Callback] over the real (not expanded by infinite scroll) lists.
+ * It is used to calculate difference between two lists of data depending on their [ItemInfoSnapshot].
+ *
+ * Calculation may be limited to the windows of snapshots: positions reported to DiffUtil
+ * are relative to [oldOffset] and [newOffset].
+ */
+internal class SnapshotDiffCallback(
+        private val oldItemInfo: ItemInfoSnapshot,
+        private val newItemInfo: ItemInfoSnapshot,
+        private val cancellationToken: DiffCancellationToken? = null,
+        private val oldOffset: Int = 0,
+        private val oldCount: Int = oldItemInfo.size,
+        private val newOffset: Int = 0,
+        private val newCount: Int = newItemInfo.size
+) : DiffUtil.Callback() {
+
+    override fun getOldListSize(): Int = oldCount
+
+    override fun getNewListSize(): Int = newCount
+
+    override fun areItemsTheSame(oldItemPosition: Int, newItemPosition: Int): Boolean {
+        cancellationToken?.throwIfCancelled()
+        return oldItemInfo.areItemsTheSame(oldOffset + oldItemPosition, newItemInfo, newOffset + newItemPosition)
+    }
+
+    override fun areContentsTheSame(oldItemPosition: Int, newItemPosition: Int): Boolean {
+        cancellationToken?.throwIfCancelled()
+        return oldItemInfo.areContentsTheSame(oldOffset + oldItemPosition, newItemInfo, newOffset + newItemPosition)
+    }
+
+    override fun getChangePayload(oldItemPosition: Int, newItemPosition: Int): Any? =
+            oldItemInfo.getChangePayload(oldOffset + oldItemPosition, newItemInfo, newOffset + newItemPosition)
+}
\ No newline at end of file
@@ -0,0 +1,191 @@
+/*
+  Copyright (c) 2018-present, SurfStudio LLC, Maxim Tuev.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package ru.surfstudio.android.easyadapter.diff
+
+import androidx.recyclerview.widget.DiffUtil
+import androidx.recyclerview.widget.ListUpdateCallback
+import ru.surfstudio.android.easyadapter.diff.base.DiffCalculator
+import ru.surfstudio.android.easyadapter.diff.base.data.ItemInfoSnapshot
+import ru.surfstudio.android.easyadapter.diff.base.data.ListDiff
+import java.util.*
+
+/**
+ * [DiffCalculator] with linear-time pre-diff stage.
+ *
+ * Common prefix and suffix of old and new lists are trimmed first,
+ * so the most frequent updates (appending, prepending, clearing, filling an empty list,
+ * changing contents without structural changes) are resolved without DiffUtil at all.
+ * Full DiffUtil calculation runs only over the remaining middle window.
+ */
+internal object TrimmingDiffCalculator : DiffCalculator {
+
+    override fun calculateDiff(
+            oldItemInfo: ItemInfoSnapshot,
+            newItemInfo: ItemInfoSnapshot,
+            cancellationToken: DiffCancellationToken
+    ): ListDiff {
+        val oldSize = oldItemInfo.size
+        val newSize = newItemInfo.size
+        val minSize = Math.min(oldSize, newSize)
+
+        val changes = Changes(oldSize)
+
+        var prefixCount = 0
+        while (prefixCount < minSize && oldItemInfo.areItemsTheSame(prefixCount, newItemInfo, prefixCount)) {
+            if (!oldItemInfo.areContentsTheSame(prefixCount, newItemInfo, prefixCount)) {
+                changes.add(prefixCount, oldItemInfo.getChangePayload(prefixCount, newItemInfo, prefixCount))
+            }
+            prefixCount++
+        }
+        cancellationToken.throwIfCancelled()
+
+        var suffixCount = 0
+        while (suffixCount < minSize - prefixCount) {
+            val oldPosition = oldSize - suffixCount - 1
+            val newPosition = newSize - suffixCount - 1
+            if (!oldItemInfo.areItemsTheSame(oldPosition, newItemInfo, newPosition)) break
+            if (!oldItemInfo.areContentsTheSame(oldPosition, newItemInfo, newPosition)) {
+                changes.add(oldPosition, oldItemInfo.getChangePayload(oldPosition, newItemInfo, newPosition))
+            }
+            suffixCount++
+        }
+        cancellationToken.throwIfCancelled()
+
+        val oldMiddleCount = oldSize - prefixCount - suffixCount
+        val newMiddleCount = newSize - prefixCount - suffixCount
+
+        val middleDiffResult = if (oldMiddleCount > 0 && newMiddleCount > 0) {
+            DiffUtil.calculateDiff(
+                    SnapshotDiffCallback(
+                            oldItemInfo,
+                            newItemInfo,
+                            cancellationToken,
+                            prefixCount,
+                            oldMiddleCount,
+                            prefixCount,
+                            newMiddleCount
+                    )
+            )
+        } else {
+            null
+        }
+        return TrimmedListDiff(prefixCount, oldMiddleCount, newMiddleCount, changes, middleDiffResult)
+    }
+
+    /**
+     * @param prefixCount amount of the same items at the start of both lists
+     * @param oldMiddleCount amount of items between prefix and suffix in old list
+     * @param newMiddleCount amount of items between prefix and suffix in new list
+     * @param changes changes of prefix and suffix items contents
+     * @param middleDiffResult [DiffUtil.DiffResult] for windows between prefix and suffix,
+     * null if one of windows is empty
+     */
+    private class TrimmedListDiff(
+            private val prefixCount: Int,
+            private val oldMiddleCount: Int,
+            private val newMiddleCount: Int,
+            private val changes: Changes,
+            private val middleDiffResult: DiffUtil.DiffResult?
+    ) : ListDiff {
+
+        override fun dispatchUpdatesTo(callback: ListUpdateCallback) {
+            // changes are dispatched first, while old positions are still valid
+            changes.dispatchUpdatesTo(callback)
+            when {
+                middleDiffResult != null -> middleDiffResult.dispatchUpdatesTo(OffsetListUpdateCallback(callback, prefixCount))
+                oldMiddleCount > 0 -> callback.onRemoved(prefixCount, oldMiddleCount)
+                newMiddleCount > 0 -> callback.onInserted(prefixCount, newMiddleCount)
+            }
+        }
+
+        override fun dispatchMembershipChangesTo(callback: ListDiff.MembershipCallback) {
+            // prefix and suffix items are present in both lists
+            for (position in 0 until oldMiddleCount) {
+                if (middleDiffResult == null || middleDiffResult.convertOldPositionToNew(position) == DiffUtil.DiffResult.NO_POSITION) {
+                    callback.onRemoved(prefixCount + position)
+                }
+            }
+            for (position in 0 until newMiddleCount) {
+                if (middleDiffResult == null || middleDiffResult.convertNewPositionToOld(position) == DiffUtil.DiffResult.NO_POSITION) {
+                    callback.onInserted(prefixCount + position)
+                }
+            }
+        }
+    }
+
+    /**
+     * Old positions of items with changed contents and their change payloads
+     */
+    private class Changes(private val oldSize: Int) {
+
+        private var positions: BitSet? = null
+        private var payloads: Array<Any?>? = null
+
+        fun add(position: Int, payload: Any?) {
+            val positions = positions ?: BitSet(oldSize).also { positions = it }
+            positions.set(position)
+            if (payload != null) {
+                val payloads = payloads ?: arrayOfNulls<Any>(oldSize).also { payloads = it }
+                payloads[position] = payload
+            }
+        }
+
+        /**
+         * Dispatch changes, coalescing adjacent ones without payloads into ranges
+         */
+        fun dispatchUpdatesTo(callback: ListUpdateCallback) {
+            val positions = positions ?: return
+            val payloads = payloads
+            var start = positions.nextSetBit(0)
+            while (start >= 0) {
+                val payload = payloads?.get(start)
+                var end = start + 1
+                if (payload == null) {
+                    while (end < oldSize && positions[end] && payloads?.get(end) == null) {
+                        end++
+                    }
+                }
+                callback.onChanged(start, end - start, payload)
+                start = positions.nextSetBit(end)
+            }
+        }
+    }
+
+    /**
+     * Shifts all positions by [offset]
+     */
+    private class OffsetListUpdateCallback(
+            private val target: ListUpdateCallback,
+            private val offset: Int
+    ) : ListUpdateCallback {
+
+        override fun onInserted(position: Int, count: Int) {
+            target.onInserted(position + offset, count)
+        }
+
+        override fun onRemoved(position: Int, count: Int) {
+            target.onRemoved(position + offset, count)
+        }
+
+        override fun onMoved(fromPosition: Int, toPosition: Int) {
+            target.onMoved(fromPosition + offset, toPosition + offset)
+        }
+
+        override fun onChanged(position: Int, count: Int, payload: Any?) {
+            target.onChanged(position + offset, count, payload)
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,53 @@
+/*
+  Copyright (c) 2018-present, SurfStudio LLC, Maxim Tuev.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package ru.surfstudio.android.easyadapter.diff.metrics
+
+import androidx.recyclerview.widget.ListUpdateCallback
+
+/**
+ * [ListUpdateCallback] which counts operations passed to [target].
+ */
+internal class CountingListUpdateCallback(private val target: ListUpdateCallback) : ListUpdateCallback {
+
+    var insertionsCount = 0
+        private set
+    var removalsCount = 0
+        private set
+    var movesCount = 0
+        private set
+    var changesCount = 0
+        private set
+
+    override fun onInserted(position: Int, count: Int) {
+        insertionsCount++
+        target.onInserted(position, count)
+    }
+
+    override fun onRemoved(position: Int, count: Int) {
+        removalsCount++
+        target.onRemoved(position, count)
+    }
+
+    override fun onMoved(fromPosition: Int, toPosition: Int) {
+        movesCount++
+        target.onMoved(fromPosition, toPosition)
+    }
+
+    override fun onChanged(position: Int, count: Int, payload: Any?) {
+        changesCount++
+        target.onChanged(position, count, payload)
+    }
+}
\ No newline at end of file
@@ -0,0 +1,55 @@
+/*
+  Copyright (c) 2018-present, SurfStudio LLC, Maxim Tuev.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package ru.surfstudio.android.easyadapter.diff.metrics
+
+/**
+ * Measurements of a single item list update, from the moment it was set till dispatching to adapter.
+ * All durations are in nanoseconds.
+ *
+ * @property oldItemsCount size of the real item list before update
+ * @property newItemsCount size of the real item list after update
+ * @property queueWaitTimeNanos time between setting of items and start of calculation
+ * @property extractionTimeNanos time of the new item info extraction
+ * @property diffTimeNanos time of diff calculation, zero if items were applied without diff
+ * @property dispatchTimeNanos time of dispatching updates to adapter
+ * @property droppedSnapshotsCount amount of item lists, which were set before this one and never displayed
+ * @property isDiffCalculated false if adapter was notified that the whole data set has changed
+ * @property insertionsCount amount of dispatched insert operations
+ * @property removalsCount amount of dispatched remove operations
+ * @property movesCount amount of dispatched move operations
+ * @property changesCount amount of dispatched change operations
+ */
+data class DiffMetrics(
+        val oldItemsCount: Int,
+        val newItemsCount: Int,
+        val queueWaitTimeNanos: Long,
+        val extractionTimeNanos: Long,
+        val diffTimeNanos: Long,
+        val dispatchTimeNanos: Long,
+        val droppedSnapshotsCount: Int,
+        val isDiffCalculated: Boolean,
+        val insertionsCount: Int,
+        val removalsCount: Int,
+        val movesCount: Int,
+        val changesCount: Int
+) {
+
+    /**
+     * Time between setting of items and the end of dispatching
+     */
+    val totalTimeNanos: Long
+        get() = queueWaitTimeNanos + extractionTimeNanos + diffTimeNanos + dispatchTimeNanos
+}
\ No newline at end of file
@@ -0,0 +1,85 @@
+/*
+  Copyright (c) 2018-present, SurfStudio LLC, Maxim Tuev.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package ru.surfstudio.android.easyadapter.diff.metrics
+
+/**
+ * Default [DiffMetricsListener], which accumulates [DiffMetrics] of an adapter in [LatencyHistogram]s.
+ *
+ * Create separate instance for every adapter to get statistics per adapter.
+ * Statistics can be read from any thread, for example to be sent to analytics periodically.
+ */
+class HistogramDiffMetricsListener : DiffMetricsListener {
+
+    val queueWaitTime = LatencyHistogram()
+    val extractionTime = LatencyHistogram()
+    val diffTime = LatencyHistogram()
+    val dispatchTime = LatencyHistogram()
+    val totalTime = LatencyHistogram()
+
+    /**
+     * Amount of operations dispatched per update
+     */
+    val operationsCount = LatencyHistogram()
+
+    @Volatile
+    var updatesCount = 0L
+        private set
+
+    /**
+     * Amount of updates applied with notifyDataSetChanged instead of diff
+     */
+    @Volatile
+    var notDiffedUpdatesCount = 0L
+        private set
+
+    @Volatile
+    var droppedSnapshotsCount = 0L
+        private set
+
+    override fun onUpdateDispatched(metrics: DiffMetrics) {
+        queueWaitTime.record(metrics.queueWaitTimeNanos)
+        extractionTime.record(metrics.extractionTimeNanos)
+        if (metrics.isDiffCalculated) {
+            diffTime.record(metrics.diffTimeNanos)
+        } else {
+            notDiffedUpdatesCount++
+        }
+        dispatchTime.record(metrics.dispatchTimeNanos)
+        totalTime.record(metrics.totalTimeNanos)
+        operationsCount.record(
+                (metrics.insertionsCount + metrics.removalsCount + metrics.movesCount + metrics.changesCount).toLong()
+        )
+        droppedSnapshotsCount += metrics.droppedSnapshotsCount
+        updatesCount++
+    }
+
+    fun reset() {
+        queueWaitTime.reset()
+        extractionTime.reset()
+        diffTime.reset()
+        dispatchTime.reset()
+        totalTime.reset()
+        operationsCount.reset()
+        updatesCount = 0L
+        notDiffedUpdatesCount = 0L
+        droppedSnapshotsCount = 0L
+    }
+
+    override fun toString(): String =
+            "HistogramDiffMetricsListener(updates=$updatesCount, notDiffed=$notDiffedUpdatesCount, " +
+                    "dropped=$droppedSnapshotsCount, queueWait=$queueWaitTime, extraction=$extractionTime, " +
+                    "diff=$diffTime, dispatch=$dispatchTime, total=$totalTime, operations=$operationsCount)"
+}
\ No newline at end of file
@@ -0,0 +1,129 @@
+/*
+  Copyright (c) 2018-present, SurfStudio LLC, Maxim Tuev.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package ru.surfstudio.android.easyadapter.diff.metrics
+
+/**
+ * Histogram of non-negative durations with constant relative precision, like HdrHistogram.
+ *
+ * Values below [SUB_BUCKETS_COUNT] are counted exactly, every greater power of two range
+ * is split into [SUB_BUCKETS_COUNT] / 2 equal buckets, so any recorded value is reported
+ * with relative error below 2 / [SUB_BUCKETS_COUNT] (~3%) in constant memory.
+ * Recording is allocation-free; all methods are thread-safe.
+ */
+class LatencyHistogram {
+
+    private val counts = LongArray(BUCKETS_COUNT)
+
+    /**
+     * Amount of recorded values
+     */
+    @get:Synchronized
+    var totalCount = 0L
+        private set
+
+    @get:Synchronized
+    var minValue = Long.MAX_VALUE
+        private set
+
+    @get:Synchronized
+    var maxValue = 0L
+        private set
+
+    private var sum = 0.0
+
+    /**
+     * Mean of recorded values, 0 if nothing was recorded
+     */
+    val mean: Double
+        @Synchronized get() = if (totalCount == 0L) 0.0 else sum / totalCount
+
+    @Synchronized
+    fun record(value: Long) {
+        val validValue = Math.max(0L, value)
+        counts[getBucketIndex(validValue)]++
+        totalCount++
+        sum += validValue
+        minValue = Math.min(minValue, validValue)
+        maxValue = Math.max(maxValue, validValue)
+    }
+
+    /**
+     * Get value, which is greater or equal to [percentile] of recorded values, within histogram precision.
+     *
+     * @param percentile percentile in range 0..100
+     * @return value at percentile or 0 if nothing was recorded
+     */
+    @Synchronized
+    fun getValueAtPercentile(percentile: Double): Long {
+        require(percentile in 0.0..100.0) { "Incorrect percentile: $percentile" }
+        if (totalCount == 0L) return 0L
+        val targetCount = Math.max(1L, Math.ceil(percentile / 100.0 * totalCount).toLong())
+        var count = 0L
+        for (index in counts.indices) {
+            count += counts[index]
+            if (count >= targetCount) {
+                return Math.min(getBucketHighestValue(index), maxValue)
+            }
+        }
+        return maxValue
+    }
+
+    @Synchronized
+    fun reset() {
+        counts.fill(0L)
+        totalCount = 0L
+        minValue = Long.MAX_VALUE
+        maxValue = 0L
+        sum = 0.0
+    }
+
+    @Synchronized
+    override fun toString(): String =
+            if (totalCount == 0L) {
+                "LatencyHistogram(empty)"
+            } else {
+                "LatencyHistogram(count=$totalCount, min=$minValue, " +
+                        "p50=${getValueAtPercentile(50.0)}, p90=${getValueAtPercentile(90.0)}, " +
+                        "p99=${getValueAtPercentile(99.0)}, max=$maxValue)"
+            }
+
+    private companion object {
+
+        const val SUB_BUCKETS_BITS = 6
+        const val SUB_BUCKETS_COUNT = 1 shl SUB_BUCKETS_BITS
+        const val HALF_SUB_BUCKETS_COUNT = SUB_BUCKETS_COUNT / 2
+
+        /**
+         * Exact buckets and halves of sub buckets for every power of two up to [Long.MAX_VALUE]
+         */
+        const val BUCKETS_COUNT = SUB_BUCKETS_COUNT + (63 - SUB_BUCKETS_BITS) * HALF_SUB_BUCKETS_COUNT
+
+        fun getBucketIndex(value: Long): Int {
+            if (value < SUB_BUCKETS_COUNT) return value.toInt()
+            // keeping SUB_BUCKETS_BITS most significant bits of value
+            val shift = 64 - java.lang.Long.numberOfLeadingZeros(value) - SUB_BUCKETS_BITS
+            val subBucket = (value ushr shift).toInt()
+            return SUB_BUCKETS_COUNT + (shift - 1) * HALF_SUB_BUCKETS_COUNT + (subBucket - HALF_SUB_BUCKETS_COUNT)
+        }
+
+        fun getBucketHighestValue(index: Int): Long {
+            if (index < SUB_BUCKETS_COUNT) return index.toLong()
+            val shift = (index - SUB_BUCKETS_COUNT) / HALF_SUB_BUCKETS_COUNT + 1
+            val subBucket = (index - SUB_BUCKETS_COUNT) % HALF_SUB_BUCKETS_COUNT + HALF_SUB_BUCKETS_COUNT
+            return ((subBucket + 1).toLong() shl shift) - 1
+        }
+    }
+}
\ No newline at end of file
@@ -43,4 +43,16 @@ abstract class BindableViewHolder<T>(itemView: View) : BaseViewHolder(itemView)
      * @param item data to display
      */
     abstract fun bind(item: T?)
+
+    /**
+     * Display changes of data in ViewHolder
+     * This method will be executed instead of [bind] when item's controller returned change payloads
+     * By default, displays the whole data
+     *
+     * @param item data to display
+     * @param payloads non-empty list of change payloads
+     */
+    open fun bind(item: T?, payloads: List<Any>) {
+        bind(item)
+    }
 }
@@ -45,4 +45,17 @@ abstract class DoubleBindableViewHolder<T1, T2>(itemView: View) : BaseViewHolder
      * @param secondData second data to display
      */
     abstract fun bind(firstData: T1, secondData: T2)
+
+    /**
+     * Display changes of two blocks of data in ViewHolder
+     * This method will be executed instead of [bind] when item's controller returned change payloads
+     * By default, displays the whole data
+     *
+     * @param firstData  first data to display
+     * @param secondData second data to display
+     * @param payloads non-empty list of change payloads
+     */
+    open fun bind(firstData: T1, secondData: T2, payloads: List<Any>) {
+        bind(firstData, secondData)
+    }
 }
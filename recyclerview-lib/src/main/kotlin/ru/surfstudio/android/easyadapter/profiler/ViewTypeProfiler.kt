@@ -0,0 +1,239 @@
+/*
+  Copyright (c) 2018-present, SurfStudio LLC, Maxim Tuev.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package ru.surfstudio.android.easyadapter.profiler
+
+import androidx.annotation.MainThread
+import androidx.core.os.TraceCompat
+import ru.surfstudio.android.easyadapter.diff.metrics.LatencyHistogram
+import java.util.*
+
+/**
+ * Opt-in profiler of ViewHolder lifecycle stages of an adapter, grouped by view type.
+ *
+ * Durations of every [Stage] are accumulated in [LatencyHistogram]s, which can be read with [snapshot]
+ * or printed with [dump]. If [traceSectionsEnabled] is set, every stage is also wrapped in trace section
+ * named like "EasyAdapter.bind:UserController", so it's visible in systrace and Perfetto.
+ *
+ * View types are named by class of the owner passed with them:
+ * EasyAdapter passes item controllers and BaseRecyclerViewAdapter passes holders.
+ * [begin] and [end] are called in the main thread and take a lock only to add a view type met for the first time,
+ * so [snapshot] and [reset] can be called from any thread.
+ *
+ * @param traceSectionsEnabled wrap stages in trace sections, better to enable only in debug builds
+ */
+class ViewTypeProfiler @JvmOverloads constructor(
+        private val traceSectionsEnabled: Boolean = false
+) {
+
+    enum class Stage(internal val sectionName: String) {
+        CREATE("create"),
+        BIND("bind"),
+
+        /**
+         * Binding of change payloads only
+         */
+        PARTIAL_BIND("partialBind"),
+
+        /**
+         * Computation of item position and neighbours before binding
+         */
+        COMPUTE_PARAMS("computeParams"),
+        UNBIND("unbind"),
+        RECYCLE("recycle")
+    }
+
+    private val records = HashMap<Int, ViewTypeRecord>()
+
+    /**
+     * Last used record: adjacent calls usually have the same view type.
+     * Stages measured with it concurrently with [reset] may be lost
+     */
+    @Volatile
+    private var lastRecord: ViewTypeRecord? = null
+
+    /**
+     * Prefix of trace section names, set by the adapter which the profiler is passed to
+     */
+    @Volatile
+    var adapterName = DEFAULT_ADAPTER_NAME
+        @MainThread
+        set(value) {
+            if (field != value) {
+                field = value
+                // cached section names of records are built with adapter name
+                lastRecord = null
+                synchronized(this) {
+                    records.values.forEach { it.resetSectionNames() }
+                }
+            }
+        }
+
+    /**
+     * Start measuring of [stage].
+     *
+     * @param owner object, which class name is used as name of [viewType],
+     * or null if it is unknown at the moment, then [viewType] is named by the next known owner
+     * @return start time, which must be passed to [end]
+     */
+    @MainThread
+    fun begin(stage: Stage, viewType: Int, owner: Any?): Long {
+        if (traceSectionsEnabled) {
+            TraceCompat.beginSection(getRecord(viewType, owner).getSectionName(stage, adapterName))
+        }
+        return System.nanoTime()
+    }
+
+    /**
+     * Finish measuring of [stage], started by [begin].
+     */
+    @MainThread
+    fun end(stage: Stage, viewType: Int, owner: Any?, startTimeNanos: Long) {
+        val duration = System.nanoTime() - startTimeNanos
+        if (traceSectionsEnabled) {
+            TraceCompat.endSection()
+        }
+        getRecord(viewType, owner).histograms[stage.ordinal].record(duration)
+    }
+
+    /**
+     * @return profiles of all view types, sorted by view type
+     */
+    @Synchronized
+    fun snapshot(): List<ViewTypeProfile> =
+            records.values
+                    .sortedBy { it.viewType }
+                    .map { record ->
+                        ViewTypeProfile(
+                                record.viewType,
+                                record.name ?: record.viewType.toString(),
+                                Stage.values().associateWith { createStageProfile(record.histograms[it.ordinal]) }
+                        )
+                    }
+
+    /**
+     * @return human-readable table of [snapshot] with durations in microseconds
+     */
+    fun dump(): String {
+        val builder = StringBuilder()
+        builder.append(String.format(Locale.US, "%-32s %-14s %8s %10s %10s %10s %10s\n",
+                "view type", "stage", "count", "p50,us", "p90,us", "p99,us", "max,us"))
+        for (profile in snapshot()) {
+            for ((stage, stageProfile) in profile.stages) {
+                if (stageProfile.count == 0L) continue
+                builder.append(String.format(Locale.US, "%-32s %-14s %8d %10d %10d %10d %10d\n",
+                        "${profile.name}(${profile.viewType})",
+                        stage.sectionName,
+                        stageProfile.count,
+                        stageProfile.medianNanos / 1000,
+                        stageProfile.p90Nanos / 1000,
+                        stageProfile.p99Nanos / 1000,
+                        stageProfile.maxNanos / 1000))
+            }
+        }
+        return builder.toString()
+    }
+
+    @Synchronized
+    fun reset() {
+        records.clear()
+        lastRecord = null
+    }
+
+    private fun getRecord(viewType: Int, owner: Any?): ViewTypeRecord {
+        val record = lastRecord?.takeIf { it.viewType == viewType } ?: findRecord(viewType)
+        record.nameBy(owner)
+        lastRecord = record
+        return record
+    }
+
+    @Synchronized
+    private fun findRecord(viewType: Int): ViewTypeRecord =
+            records.getOrPut(viewType) { ViewTypeRecord(viewType) }
+
+    private fun createStageProfile(histogram: LatencyHistogram): StageProfile =
+            StageProfile(
+                    histogram.totalCount,
+                    (histogram.mean * histogram.totalCount).toLong(),
+                    histogram.getValueAtPercentile(50.0),
+                    histogram.getValueAtPercentile(90.0),
+                    histogram.getValueAtPercentile(99.0),
+                    histogram.maxValue
+            )
+
+    private class ViewTypeRecord(val viewType: Int) {
+
+        val histograms = Array(Stage.values().size) { LatencyHistogram() }
+
+        /**
+         * Simple class name of the first known owner
+         */
+        var name: String? = null
+            private set
+
+        private val sectionNames = arrayOfNulls<String>(Stage.values().size)
+
+        fun nameBy(owner: Any?) {
+            if (name == null && owner != null) {
+                name = owner.javaClass.simpleName
+                resetSectionNames()
+            }
+        }
+
+        fun resetSectionNames() {
+            sectionNames.fill(null)
+        }
+
+        fun getSectionName(stage: Stage, adapterName: String): String =
+                sectionNames[stage.ordinal]
+                        // trace section names are limited to 127 characters
+                        ?: "$adapterName.${stage.sectionName}:${name ?: viewType}".take(MAX_SECTION_NAME_LENGTH)
+                                .also { sectionNames[stage.ordinal] = it }
+    }
+
+    /**
+     * Immutable profile of a view type.
+     *
+     * @property name simple class name of the first known owner passed with this view type,
+     * or view type itself if owner was never known
+     */
+    data class ViewTypeProfile(
+            val viewType: Int,
+            val name: String,
+            val stages: Map<Stage, StageProfile>
+    ) {
+
+        operator fun get(stage: Stage): StageProfile = stages.getValue(stage)
+    }
+
+    /**
+     * Immutable profile of a stage, durations are in nanoseconds within [LatencyHistogram] precision.
+     */
+    data class StageProfile(
+            val count: Long,
+            val totalTimeNanos: Long,
+            val medianNanos: Long,
+            val p90Nanos: Long,
+            val p99Nanos: Long,
+            val maxNanos: Long
+    )
+
+    companion object {
+
+        const val DEFAULT_ADAPTER_NAME = "EasyAdapter"
+
+        private const val MAX_SECTION_NAME_LENGTH = 127
+    }
+}
\ No newline at end of file
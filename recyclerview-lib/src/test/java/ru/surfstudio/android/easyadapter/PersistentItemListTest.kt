@@ -0,0 +1,225 @@
+/*
+  Copyright (c) 2018-present, SurfStudio LLC, Maxim Tuev.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package ru.surfstudio.android.easyadapter
+
+import androidx.recyclerview.widget.RecyclerView
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertSame
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import ru.surfstudio.android.easyadapter.item.BaseItem
+import kotlin.random.Random
+
+/**
+ * [PersistentItemList] must behave as a plain list on every edit, across the chunk boundaries,
+ * and keep every previous version unchanged
+ */
+class PersistentItemListTest {
+
+    @Test
+    fun ofAndGet() {
+        for (size in SIZES) {
+            val items = createItems(size)
+            assertContent(items, PersistentItemList.of(items))
+        }
+        assertSame(PersistentItemList.empty(), PersistentItemList.of(emptyList()))
+    }
+
+    @Test
+    fun appendAll() {
+        for (size in SIZES) {
+            for (appendedSize in SIZES) {
+                val items = createItems(size)
+                val appended = createItems(appendedSize)
+                assertContent(items + appended, PersistentItemList.of(items).appendAll(appended))
+            }
+        }
+    }
+
+    @Test
+    fun appendOneByOne() {
+        val items = createItems(LARGE_SIZE)
+        var list = PersistentItemList.empty()
+        items.forEach { list = list.append(it) }
+        assertContent(items, list)
+    }
+
+    @Test
+    fun replace() {
+        for (size in SIZES.filter { it > 0 }) {
+            val items = createItems(size).toMutableList()
+            var list = PersistentItemList.of(items)
+            for (index in boundaryIndexes(size)) {
+                val item = createItem()
+                items[index] = item
+                list = list.replace(index, item)
+            }
+            assertContent(items, list)
+        }
+    }
+
+    @Test
+    fun insert() {
+        for (size in SIZES) {
+            val items = createItems(size).toMutableList()
+            var list = PersistentItemList.of(items)
+            for (index in boundaryIndexes(size + 1)) {
+                val item = createItem()
+                items.add(index, item)
+                list = list.insert(index, item)
+                assertContent(items, list)
+            }
+        }
+    }
+
+    @Test
+    fun delete() {
+        for (size in SIZES.filter { it > 0 }) {
+            val items = createItems(size).toMutableList()
+            var list = PersistentItemList.of(items)
+            for (index in boundaryIndexes(size).reversed()) {
+                items.removeAt(index)
+                list = list.delete(index)
+                assertContent(items, list)
+            }
+        }
+    }
+
+    @Test
+    fun randomEdits() {
+        val random = Random(0)
+        val items = mutableListOf<BaseItem<*>>()
+        var list = PersistentItemList.empty()
+        repeat(RANDOM_EDITS_COUNT) {
+            val grow = items.size < LARGE_SIZE / 2
+            when {
+                items.isEmpty() || random.nextInt(3) == 0 && grow -> {
+                    val index = random.nextInt(items.size + 1)
+                    val item = createItem()
+                    items.add(index, item)
+                    list = list.insert(index, item)
+                }
+                random.nextBoolean() -> {
+                    val index = random.nextInt(items.size)
+                    val item = createItem()
+                    items[index] = item
+                    list = list.replace(index, item)
+                }
+                else -> {
+                    val index = random.nextInt(items.size)
+                    items.removeAt(index)
+                    list = list.delete(index)
+                }
+            }
+            assertEquals(items.size, list.size)
+        }
+        assertContent(items, list)
+    }
+
+    @Test
+    fun previousVersionsStayUnchanged() {
+        val random = Random(0)
+        val items = createItems(LARGE_SIZE).toMutableList()
+        var list = PersistentItemList.of(items)
+        val versions = mutableListOf(items.toList() to list)
+        repeat(VERSIONS_COUNT) {
+            val index = random.nextInt(items.size)
+            val item = createItem()
+            list = when (random.nextInt(4)) {
+                0 -> {
+                    items.add(index, item)
+                    list.insert(index, item)
+                }
+                1 -> {
+                    items[index] = item
+                    list.replace(index, item)
+                }
+                2 -> {
+                    items.removeAt(index)
+                    list.delete(index)
+                }
+                else -> {
+                    val appended = createItems(random.nextInt(CHUNK_SIZE * 2))
+                    items.addAll(appended)
+                    list.appendAll(appended)
+                }
+            }
+            versions.add(items.toList() to list)
+        }
+        versions.forEach { (versionItems, version) -> assertContent(versionItems, version) }
+    }
+
+    @Test
+    fun deletesKeepChunksFilled() {
+        val random = Random(0)
+        val items = createItems(LARGE_SIZE).toMutableList()
+        var list = PersistentItemList.of(items)
+        while (items.isNotEmpty()) {
+            val index = random.nextInt(items.size)
+            items.removeAt(index)
+            list = list.delete(index)
+            // every chunk is at least half full, except the ones not touched yet or without siblings
+            assertTrue("${list.chunksCount()} chunks for ${items.size} items",
+                    list.chunksCount() <= items.size / (CHUNK_SIZE / 2) + 2)
+        }
+        assertContent(items, list)
+    }
+
+    @Test(expected = IndexOutOfBoundsException::class)
+    fun getOutOfBounds() {
+        PersistentItemList.of(createItems(CHUNK_SIZE)).get(CHUNK_SIZE)
+    }
+
+    @Test(expected = IndexOutOfBoundsException::class)
+    fun insertOutOfBounds() {
+        PersistentItemList.of(createItems(CHUNK_SIZE)).insert(CHUNK_SIZE + 1, createItem())
+    }
+
+    private fun assertContent(expected: List<BaseItem<*>>, actual: PersistentItemList) {
+        assertEquals(expected.size, actual.size)
+        expected.forEachIndexed { index, item -> assertSame("item at $index", item, actual[index]) }
+    }
+
+    /**
+     * @return first and last indexes of every chunk, with ones around them, for list of size
+     */
+    private fun boundaryIndexes(size: Int): List<Int> =
+            (0 until size step CHUNK_SIZE)
+                    .flatMap { listOf(it - 1, it, it + 1, it + CHUNK_SIZE - 1) }
+                    .plus(size - 1)
+                    .filter { it in 0 until size }
+                    .distinct()
+                    .sorted()
+
+    private fun createItems(count: Int): List<BaseItem<*>> = List(count) { createItem() }
+
+    private fun createItem(): BaseItem<*> = BaseItem<RecyclerView.ViewHolder>(null)
+
+    private companion object {
+
+        const val CHUNK_SIZE = PersistentItemList.CHUNK_SIZE
+
+        /**
+         * Sizes around boundaries of chunks and of tree levels
+         */
+        val SIZES = listOf(0, 1, CHUNK_SIZE - 1, CHUNK_SIZE, CHUNK_SIZE + 1, CHUNK_SIZE * 3,
+                CHUNK_SIZE * CHUNK_SIZE - 1, CHUNK_SIZE * CHUNK_SIZE, CHUNK_SIZE * CHUNK_SIZE + 1)
+
+        const val LARGE_SIZE = CHUNK_SIZE * CHUNK_SIZE * 3
+        const val RANDOM_EDITS_COUNT = 20_000
+        const val VERSIONS_COUNT = 500
+    }
+}
\ No newline at end of file
@@ -0,0 +1,141 @@
+/*
+  Copyright (c) 2018-present, SurfStudio LLC, Maxim Tuev.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package ru.surfstudio.android.easyadapter.controller
+
+import android.view.View
+import android.view.ViewGroup
+import net.maxsmr.android.recyclerview.testing.AllocationBudget
+import net.maxsmr.android.recyclerview.testing.Row
+import net.maxsmr.android.recyclerview.testing.ScenarioMeter
+import net.maxsmr.android.recyclerview.testing.createRows
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNotSame
+import org.junit.Assert.assertSame
+import org.junit.Assume.assumeTrue
+import org.junit.Before
+import org.junit.Test
+import ru.surfstudio.android.easyadapter.ItemList
+import ru.surfstudio.android.easyadapter.holder.BindableViewHolder
+import ru.surfstudio.android.easyadapter.item.BaseItem
+import ru.surfstudio.android.easyadapter.item.BindableItem
+
+/**
+ * Checks that [BindableItemPool] allocates O(changed) objects on steady-state updates.
+ */
+class BindableItemPoolAllocationTest {
+
+    private val meter = ScenarioMeter()
+
+    private val controller = RowController()
+    private val pool = BindableItemPool()
+
+    @Before
+    fun setUp() {
+        assumeTrue(meter.isAllocationTrackingSupported)
+    }
+
+    @Test
+    fun unchangedItemsAreReused() {
+        val data = createRows(SIZE)
+        val first = pool.obtainItems(emptyList(), null, data, controller, 0)
+        val second = pool.obtainItems(first.asBaseItems(), null, data.map { it.copy() }, controller, 0)
+
+        assertEquals(SIZE, second.size)
+        for (i in 0 until SIZE) {
+            assertSame(first[i], second[i])
+        }
+    }
+
+    @Test
+    fun changedItemsAreCreatedAnew() {
+        val data = createRows(SIZE)
+        val first = pool.obtainItems(emptyList(), null, data, controller, 0)
+        val changed = data.toMutableList()
+        changed[10] = changed[10].copy(text = "changed")
+        val second = pool.obtainItems(first.asBaseItems(), null, changed, controller, 0)
+
+        assertNotSame(first[10], second[10])
+        assertEquals("changed", (second[10] as BindableItem<*, *>).data.let { (it as Row).text })
+        assertSame(first[11], second[11])
+    }
+
+    @Test
+    fun steadyStateAllocatesOnlyResultingList() {
+        val data = createRows(SIZE)
+        var items = pool.obtainItems(emptyList(), null, data, controller, 0)
+
+        val measurement = meter.measure { items = pool.obtainItems(items.asBaseItems(), null, data, controller, 0) }
+
+        STEADY_STATE_BUDGET.assertWithin("update of $SIZE unchanged items", SIZE, measurement.allocatedBytes)
+    }
+
+    @Test
+    fun allocationsGrowWithChangesCount() {
+        val data = createRows(SIZE)
+        var items = pool.obtainItems(emptyList(), null, data, controller, 0)
+        // every run starts from unchanged items, so changed ones are created anew each time
+        val resetItems = { items = pool.obtainItems(items.asBaseItems(), null, data, controller, 0) }
+        val unchangedBytes = meter.measure(resetItems) {
+            pool.obtainItems(items.asBaseItems(), null, data, controller, 0)
+        }.allocatedBytes
+
+        for (changesCount in CHANGES_COUNTS) {
+            val changed = data.toMutableList()
+            for (i in 0 until changesCount) {
+                val position = i * (SIZE / changesCount)
+                changed[position] = changed[position].copy(text = "changed")
+            }
+            val allocatedBytes = meter.measure(resetItems) {
+                pool.obtainItems(items.asBaseItems(), null, changed, controller, 0)
+            }.allocatedBytes
+            CHANGED_ITEM_BUDGET.assertWithin("update with $changesCount changes", changesCount, allocatedBytes - unchangedBytes)
+        }
+    }
+
+    @Suppress("UNCHECKED_CAST")
+    private fun ItemList.asBaseItems(): List<BaseItem<*>> = this as List<BaseItem<*>>
+
+    class RowHolder(itemView: View) : BindableViewHolder<Row>(itemView) {
+
+        override fun bind(item: Row?) {
+        }
+    }
+
+    class RowController : BindableItemController<Row, RowHolder>() {
+
+        override fun createViewHolder(parent: ViewGroup): RowHolder = throw UnsupportedOperationException()
+
+        override fun getItemId(data: Row): String = data.id.toString()
+
+        override fun getItemLongId(data: Row): Long = data.id.toLong()
+    }
+
+    private companion object {
+
+        const val SIZE = 5000
+        val CHANGES_COUNTS = intArrayOf(1, 10, 100, 1000)
+
+        /**
+         * References array of resulting [ItemList]: 8 bytes is upper bound of compressed or uncompressed reference
+         */
+        val STEADY_STATE_BUDGET = AllocationBudget(8)
+
+        /**
+         * One changed item: [BindableItem] with its fields and alignment
+         */
+        val CHANGED_ITEM_BUDGET = AllocationBudget(64)
+    }
+}
\ No newline at end of file
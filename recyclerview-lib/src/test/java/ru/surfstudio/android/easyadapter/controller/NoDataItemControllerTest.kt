@@ -0,0 +1,65 @@
+/*
+  Copyright (c) 2018-present, SurfStudio LLC, Maxim Tuev.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package ru.surfstudio.android.easyadapter.controller
+
+import android.view.ViewGroup
+import androidx.recyclerview.widget.RecyclerView
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNotEquals
+import org.junit.Test
+import ru.surfstudio.android.easyadapter.item.NoDataItem
+
+/**
+ * Ids of [NoDataItem]s must not be taken from view types, which are small sequential numbers
+ * and so match ids of data items
+ */
+class NoDataItemControllerTest {
+
+    private val headerController = HeaderController()
+    private val footerController = FooterController()
+
+    @Test
+    fun idDiffersFromViewType() {
+        val item = NoDataItem(headerController)
+        val viewType = headerController.viewType()
+        assertNotEquals(viewType.toString(), headerController.getItemId(item))
+        assertNotEquals(viewType.toLong(), headerController.getItemLongId(item))
+    }
+
+    @Test
+    fun idIsUniquePerController() {
+        val headerItem = NoDataItem(headerController)
+        val footerItem = NoDataItem(footerController)
+        assertNotEquals(headerController.getItemId(headerItem), footerController.getItemId(footerItem))
+        assertNotEquals(headerController.getItemLongId(headerItem), footerController.getItemLongId(footerItem))
+    }
+
+    @Test
+    fun idIsStable() {
+        assertEquals(headerController.getItemId(NoDataItem(headerController)), HeaderController().getItemId(NoDataItem(headerController)))
+        assertEquals(headerController.getItemLongId(NoDataItem(headerController)), headerController.getItemLongId(NoDataItem(headerController)))
+    }
+
+    private class HeaderController : NoDataItemController<RecyclerView.ViewHolder>() {
+
+        override fun createViewHolder(parent: ViewGroup): RecyclerView.ViewHolder = throw UnsupportedOperationException()
+    }
+
+    private class FooterController : NoDataItemController<RecyclerView.ViewHolder>() {
+
+        override fun createViewHolder(parent: ViewGroup): RecyclerView.ViewHolder = throw UnsupportedOperationException()
+    }
+}
\ No newline at end of file
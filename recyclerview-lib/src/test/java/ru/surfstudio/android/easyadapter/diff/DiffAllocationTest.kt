@@ -0,0 +1,117 @@
+/*
+  Copyright (c) 2018-present, SurfStudio LLC, Maxim Tuev.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package ru.surfstudio.android.easyadapter.diff
+
+import androidx.recyclerview.widget.DiffUtil
+import androidx.recyclerview.widget.ListUpdateCallback
+import net.maxsmr.android.recyclerview.testing.AllocationBudget
+import net.maxsmr.android.recyclerview.testing.ScenarioMeter
+import org.junit.Assume.assumeTrue
+import org.junit.Before
+import org.junit.Test
+import ru.surfstudio.android.easyadapter.item.ItemInfo
+
+/**
+ * Allocation budgets of diff hot paths: item comparisons must not allocate at all,
+ * whole diff run may allocate only [DiffUtil] structures linear to the lists size.
+ */
+class DiffAllocationTest {
+
+    private val meter = ScenarioMeter()
+
+    private val oldItems = createItemsInfo(SIZE)
+    private val newItems = oldItems.mapIndexed { index, info ->
+        if (index % 100 == 0) info.copy(hash = "changed $index") else info
+    }
+
+    @Before
+    fun setUp() {
+        assumeTrue(meter.isAllocationTrackingSupported)
+    }
+
+    @Test
+    fun comparisons() {
+        val callback = AutoNotifyDiffCallback(oldItems, newItems, 0, DiffCancellationToken())
+        val measurement = meter.measure { compareAll(callback, SIZE) }
+        AllocationBudget.ALLOCATION_FREE.assertWithin("AutoNotifyDiffCallback comparisons", SIZE * 2, measurement.allocatedBytes)
+    }
+
+    @Test
+    fun infiniteScrollComparisons() {
+        val callback = AutoNotifyDiffCallback(oldItems, newItems, LOOPS_COUNT)
+        val measurement = meter.measure { compareAll(callback, SIZE * LOOPS_COUNT) }
+        AllocationBudget.ALLOCATION_FREE.assertWithin("AutoNotifyDiffCallback infinite scroll comparisons", SIZE * LOOPS_COUNT * 2, measurement.allocatedBytes)
+    }
+
+    @Test
+    fun infiniteScrollDispatching() {
+        val measurement = meter.measure {
+            val callback = InfiniteScrollUpdateCallback(NoOpUpdateCallback, SIZE, LOOPS_COUNT)
+            for (i in 0 until DISPATCHED_UPDATES_COUNT) {
+                callback.onChanged(i, 1, null)
+                callback.onMoved(i, i + 1)
+                callback.onInserted(i, 1)
+                callback.onRemoved(i, 1)
+            }
+        }
+        AllocationBudget.ALLOCATION_FREE.assertWithin("InfiniteScrollUpdateCallback dispatching", DISPATCHED_UPDATES_COUNT * 4, measurement.allocatedBytes)
+    }
+
+    @Test
+    fun diffRun() {
+        val measurement = meter.measure {
+            DiffUtil.calculateDiff(AutoNotifyDiffCallback(oldItems, newItems, 0)).dispatchUpdatesTo(NoOpUpdateCallback)
+        }
+        DIFF_RUN_BUDGET.assertWithin("diff run of $SIZE items, 1% changed", SIZE, measurement.allocatedBytes)
+    }
+
+    private fun compareAll(callback: DiffUtil.Callback, count: Int) {
+        for (i in 0 until count) {
+            callback.areItemsTheSame(i, i)
+            callback.areContentsTheSame(i, i)
+        }
+    }
+
+    private fun createItemsInfo(count: Int): List<ItemInfo> = List(count) { ItemInfo(it.toString(), "hash $it") }
+
+    private object NoOpUpdateCallback : ListUpdateCallback {
+
+        override fun onInserted(position: Int, count: Int) {
+        }
+
+        override fun onRemoved(position: Int, count: Int) {
+        }
+
+        override fun onMoved(fromPosition: Int, toPosition: Int) {
+        }
+
+        override fun onChanged(position: Int, count: Int, payload: Any?) {
+        }
+    }
+
+    private companion object {
+
+        const val SIZE = 5000
+        const val LOOPS_COUNT = 10
+        const val DISPATCHED_UPDATES_COUNT = 100
+
+        /**
+         * [DiffUtil] allocates search and status arrays of the lists size:
+         * string or boxing allocations per comparison don't fit
+         */
+        val DIFF_RUN_BUDGET = AllocationBudget(64, 16 * 1024)
+    }
+}
\ No newline at end of file
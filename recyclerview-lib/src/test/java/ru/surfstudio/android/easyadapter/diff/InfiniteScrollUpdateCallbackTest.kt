@@ -0,0 +1,130 @@
+/*
+  Copyright (c) 2018-present, SurfStudio LLC, Maxim Tuev.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package ru.surfstudio.android.easyadapter.diff
+
+import org.junit.Test
+import ru.surfstudio.android.easyadapter.diff.RandomEdits.Kind
+import ru.surfstudio.android.easyadapter.item.ItemInfo
+import kotlin.random.Random
+
+/**
+ * Updates of the real list, replicated by [InfiniteScrollUpdateCallback],
+ * must turn the old list repeated in every loop into the new list repeated the same way
+ */
+class InfiniteScrollUpdateCallbackTest {
+
+    @Test
+    fun inserts() {
+        checkRandomUpdates(setOf(Kind.INSERT))
+    }
+
+    @Test
+    fun removes() {
+        checkRandomUpdates(setOf(Kind.REMOVE))
+    }
+
+    @Test
+    fun moves() {
+        checkRandomUpdates(setOf(Kind.MOVE))
+    }
+
+    @Test
+    fun changes() {
+        checkRandomUpdates(setOf(Kind.CHANGE))
+    }
+
+    @Test
+    fun mixedUpdates() {
+        checkRandomUpdates(Kind.values().toSet())
+    }
+
+    @Test
+    fun fillAndClear() {
+        for (loopsCount in 1..MAX_LOOPS_COUNT) {
+            val items = RandomEdits(0).createItems(MAX_SIZE)
+            check(emptyList(), items, loopsCount) { it.onInserted(0, items.size) }
+            check(items, emptyList(), loopsCount) { it.onRemoved(0, items.size) }
+        }
+    }
+
+    private fun checkRandomUpdates(kinds: Set<Kind>) {
+        repeat(RUNS_COUNT) { seed ->
+            val random = Random(seed)
+            val edits = RandomEdits(seed.toLong())
+            val oldItems = edits.createItems(1 + random.nextInt(MAX_SIZE))
+            val newItems = oldItems.toMutableList()
+            val notChangedIds = oldItems.mapTo(mutableSetOf()) { it.id }
+            val updates = mutableListOf<(InfiniteScrollUpdateCallback) -> Unit>()
+            repeat(1 + random.nextInt(UPDATES_COUNT)) {
+                val kind = kinds.random(random)
+                if (kind == Kind.INSERT) {
+                    val position = random.nextInt(newItems.size + 1)
+                    val inserted = edits.createItems(1 + random.nextInt(MAX_RANGE_SIZE))
+                    newItems.addAll(position, inserted)
+                    updates.add { it.onInserted(position, inserted.size) }
+                } else if (newItems.isNotEmpty()) {
+                    val position = random.nextInt(newItems.size)
+                    when (kind) {
+                        Kind.REMOVE -> {
+                            val count = 1 + random.nextInt(Math.min(MAX_RANGE_SIZE, newItems.size - position))
+                            newItems.subList(position, position + count).clear()
+                            updates.add { it.onRemoved(position, count) }
+                        }
+                        Kind.MOVE -> {
+                            val toPosition = random.nextInt(newItems.size)
+                            newItems.add(toPosition, newItems.removeAt(position))
+                            updates.add { it.onMoved(position, toPosition) }
+                        }
+                        Kind.CHANGE -> {
+                            // as diff does, only kept items are changed, at most once
+                            val item = newItems[position]
+                            if (notChangedIds.remove(item.id)) {
+                                newItems[position] = item.copy(hash = "changed")
+                                updates.add { it.onChanged(position, 1, null) }
+                            }
+                        }
+                        Kind.INSERT -> throw AssertionError()
+                    }
+                }
+            }
+            check(oldItems, newItems, 1 + random.nextInt(MAX_LOOPS_COUNT)) { callback ->
+                updates.forEach { it(callback) }
+            }
+        }
+    }
+
+    private fun check(
+            oldItems: List<ItemInfo>,
+            newItems: List<ItemInfo>,
+            loopsCount: Int,
+            dispatch: (InfiniteScrollUpdateCallback) -> Unit
+    ) {
+        val target = ReplayingUpdateCallback(oldItems.repeat(loopsCount))
+        dispatch(InfiniteScrollUpdateCallback(target, oldItems.size, loopsCount))
+        target.assertProduces(newItems.repeat(loopsCount))
+    }
+
+    private fun List<ItemInfo>.repeat(loopsCount: Int): List<ItemInfo> = List(loopsCount) { this }.flatten()
+
+    private companion object {
+
+        const val RUNS_COUNT = 500
+        const val MAX_SIZE = 30
+        const val MAX_RANGE_SIZE = 4
+        const val MAX_LOOPS_COUNT = 5
+        const val UPDATES_COUNT = 10
+    }
+}
\ No newline at end of file
@@ -0,0 +1,114 @@
+/*
+  Copyright (c) 2018-present, SurfStudio LLC, Maxim Tuev.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package ru.surfstudio.android.easyadapter.diff
+
+import org.junit.Test
+import ru.surfstudio.android.easyadapter.diff.RandomEdits.Kind
+import ru.surfstudio.android.easyadapter.diff.base.data.ItemInfoListSnapshot
+import ru.surfstudio.android.easyadapter.item.ItemInfo
+
+/**
+ * Updates dispatched by [KeyedDiffCalculator] must turn the old list into the new one
+ * for any edits, including fallbacks to [TrimmingDiffCalculator]
+ */
+class KeyedDiffCalculatorTest {
+
+    @Test
+    fun inserts() {
+        checkRandomEdits(setOf(Kind.INSERT))
+    }
+
+    @Test
+    fun removes() {
+        checkRandomEdits(setOf(Kind.REMOVE))
+    }
+
+    @Test
+    fun moves() {
+        checkRandomEdits(setOf(Kind.MOVE))
+    }
+
+    @Test
+    fun changes() {
+        checkRandomEdits(setOf(Kind.CHANGE))
+    }
+
+    @Test
+    fun mixedEdits() {
+        checkRandomEdits(Kind.values().toSet())
+    }
+
+    @Test
+    fun reverse() {
+        val items = RandomEdits(0).createItems(MAX_SIZE)
+        check(items, items.reversed())
+    }
+
+    @Test
+    fun emptyLists() {
+        val items = RandomEdits(0).createItems(MAX_SIZE)
+        check(emptyList(), items)
+        check(items, emptyList())
+        check(emptyList(), emptyList())
+    }
+
+    @Test
+    fun duplicateIdsInOldList() {
+        repeat(RUNS_COUNT) { seed ->
+            val edits = RandomEdits(seed.toLong())
+            val items = edits.createItems(MAX_SIZE / 2)
+            val oldItems = edits.edit(items + items, Kind.values().toSet(), EDITS_COUNT)
+            check(oldItems, edits.edit(oldItems, Kind.values().toSet(), EDITS_COUNT))
+        }
+    }
+
+    @Test
+    fun duplicateIdsInNewList() {
+        repeat(RUNS_COUNT) { seed ->
+            val edits = RandomEdits(seed.toLong())
+            val oldItems = edits.createItems(MAX_SIZE / 2)
+            // kept and inserted items are duplicated
+            val items = edits.edit(oldItems, Kind.values().toSet(), EDITS_COUNT)
+            check(oldItems, items + items)
+        }
+    }
+
+    private fun checkRandomEdits(kinds: Set<Kind>) {
+        repeat(RUNS_COUNT) { seed ->
+            val edits = RandomEdits(seed.toLong())
+            val oldItems = edits.createItems(seed % MAX_SIZE)
+            check(oldItems, edits.edit(oldItems, kinds, 1 + seed % EDITS_COUNT))
+        }
+    }
+
+    private fun check(oldItems: List<ItemInfo>, newItems: List<ItemInfo>) {
+        val diff = KeyedDiffCalculator.calculateDiff(
+                ItemInfoListSnapshot(oldItems, emptyList<Any>()),
+                ItemInfoListSnapshot(newItems, emptyList<Any>()),
+                DiffCancellationToken()
+        )
+        val callback = ReplayingUpdateCallback(oldItems)
+        diff.dispatchUpdatesTo(callback)
+        callback.assertProduces(newItems)
+    }
+
+    private companion object {
+
+        const val RUNS_COUNT = 500
+        const val MAX_SIZE = 60
+        const val EDITS_COUNT = 20
+    }
+}
\ No newline at end of file
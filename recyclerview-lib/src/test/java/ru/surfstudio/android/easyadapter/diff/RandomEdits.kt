@@ -0,0 +1,83 @@
+/*
+  Copyright (c) 2018-present, SurfStudio LLC, Maxim Tuev.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package ru.surfstudio.android.easyadapter.diff
+
+import ru.surfstudio.android.easyadapter.item.ItemInfo
+import kotlin.random.Random
+
+/**
+ * Generator of item lists with unique ids and of their random edits, reproducible by [seed]
+ */
+internal class RandomEdits(seed: Long) {
+
+    private val random = Random(seed)
+
+    private var nextId = 0
+
+    fun createItems(count: Int): List<ItemInfo> = List(count) { createItem() }
+
+    /**
+     * @return copy of [items] with [count] edits of [kinds], made near the [place] of list
+     */
+    fun edit(items: List<ItemInfo>, kinds: Collection<Kind>, count: Int, place: Place = Place.ANYWHERE): List<ItemInfo> {
+        val result = items.toMutableList()
+        repeat(count) {
+            val kind = kinds.random(random)
+            if (kind == Kind.INSERT) {
+                result.add(position(result.size + 1, place), createItem())
+            } else if (result.isNotEmpty()) {
+                val position = position(result.size, place)
+                when (kind) {
+                    Kind.REMOVE -> result.removeAt(position)
+                    Kind.MOVE -> {
+                        val item = result.removeAt(position)
+                        result.add(random.nextInt(result.size + 1), item)
+                    }
+                    Kind.CHANGE -> result[position] = result[position].copy(hash = "hash ${random.nextInt()}")
+                    Kind.INSERT -> throw AssertionError()
+                }
+            }
+        }
+        return result
+    }
+
+    private fun createItem() = ItemInfo("id ${nextId++}", "hash")
+
+    /**
+     * @param bound exclusive bound of position
+     */
+    private fun position(bound: Int, place: Place): Int {
+        val window = Math.min(bound, EDGE_WINDOW)
+        return when (place) {
+            Place.ANYWHERE -> random.nextInt(bound)
+            Place.HEAD -> random.nextInt(window)
+            Place.TAIL -> bound - 1 - random.nextInt(window)
+        }
+    }
+
+    enum class Kind {
+        INSERT, REMOVE, MOVE, CHANGE
+    }
+
+    enum class Place {
+        ANYWHERE, HEAD, TAIL
+    }
+
+    private companion object {
+
+        const val EDGE_WINDOW = 3
+    }
+}
\ No newline at end of file
@@ -0,0 +1,85 @@
+/*
+  Copyright (c) 2018-present, SurfStudio LLC, Maxim Tuev.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package ru.surfstudio.android.easyadapter.diff
+
+import androidx.recyclerview.widget.ListUpdateCallback
+import org.junit.Assert.assertEquals
+import ru.surfstudio.android.easyadapter.item.ItemInfo
+
+/**
+ * Applies dispatched updates to a copy of the old list, the way RecyclerView does with its positions,
+ * so that any diff can be checked against the new list.
+ */
+internal class ReplayingUpdateCallback(oldItems: List<ItemInfo>) : ListUpdateCallback {
+
+    private val entries = oldItems.mapTo(mutableListOf()) { Entry(it) }
+
+    override fun onInserted(position: Int, count: Int) {
+        checkPosition(position, entries.size)
+        entries.addAll(position, List(count) { Entry(null) })
+    }
+
+    override fun onRemoved(position: Int, count: Int) {
+        checkPosition(position + count, entries.size)
+        entries.subList(position, position + count).clear()
+    }
+
+    override fun onMoved(fromPosition: Int, toPosition: Int) {
+        checkPosition(fromPosition, entries.size - 1)
+        checkPosition(toPosition, entries.size - 1)
+        entries.add(toPosition, entries.removeAt(fromPosition))
+    }
+
+    override fun onChanged(position: Int, count: Int, payload: Any?) {
+        checkPosition(position + count, entries.size)
+        for (i in position until position + count) {
+            entries[i].changesCount++
+        }
+    }
+
+    /**
+     * Assert that updates produce [newItems]: kept items are at the positions of the same items in [newItems],
+     * inserted ones take the rest, and only kept items with changed contents were notified, once
+     */
+    fun assertProduces(newItems: List<ItemInfo>) {
+        assertEquals("size", newItems.size, entries.size)
+        for ((position, entry) in entries.withIndex()) {
+            val newItem = newItems[position]
+            val oldItem = entry.oldItem
+            if (oldItem == null) {
+                assertEquals("changes of inserted item at $position", 0, entry.changesCount)
+                continue
+            }
+            assertEquals("id at $position", newItem.id, oldItem.id)
+            val expectedChangesCount = if (oldItem.hash != newItem.hash) 1 else 0
+            assertEquals("changes of ${oldItem.id} at $position", expectedChangesCount, entry.changesCount)
+        }
+    }
+
+    private fun checkPosition(position: Int, maxPosition: Int) {
+        if (position < 0 || position > maxPosition) {
+            throw IndexOutOfBoundsException("Position $position is out of [0, $maxPosition]")
+        }
+    }
+
+    /**
+     * @param oldItem item of the old list, null if inserted
+     */
+    private class Entry(val oldItem: ItemInfo?) {
+
+        var changesCount = 0
+    }
+}
\ No newline at end of file
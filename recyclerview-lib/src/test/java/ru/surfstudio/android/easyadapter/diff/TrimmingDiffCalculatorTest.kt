@@ -0,0 +1,131 @@
+/*
+  Copyright (c) 2018-present, SurfStudio LLC, Maxim Tuev.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package ru.surfstudio.android.easyadapter.diff
+
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import ru.surfstudio.android.easyadapter.diff.RandomEdits.Kind
+import ru.surfstudio.android.easyadapter.diff.RandomEdits.Place
+import ru.surfstudio.android.easyadapter.diff.base.data.ItemInfoListSnapshot
+import ru.surfstudio.android.easyadapter.diff.base.data.ListDiff
+import ru.surfstudio.android.easyadapter.item.ItemInfo
+
+/**
+ * Updates dispatched by [TrimmingDiffCalculator] must turn the old list into the new one
+ * wherever edits are relative to the trimmed prefix and suffix,
+ * and membership changes must be reported in positions of the lists themselves
+ */
+class TrimmingDiffCalculatorTest {
+
+    @Test
+    fun editsAtHead() {
+        checkRandomEdits { edits, items -> edits.edit(items, ALL_KINDS, EDITS_COUNT, Place.HEAD) }
+    }
+
+    @Test
+    fun editsAtTail() {
+        checkRandomEdits { edits, items -> edits.edit(items, ALL_KINDS, EDITS_COUNT, Place.TAIL) }
+    }
+
+    @Test
+    fun editsAtBothEnds() {
+        checkRandomEdits { edits, items ->
+            edits.edit(edits.edit(items, ALL_KINDS, EDITS_COUNT, Place.HEAD), ALL_KINDS, EDITS_COUNT, Place.TAIL)
+        }
+    }
+
+    @Test
+    fun editsAnywhere() {
+        checkRandomEdits { edits, items -> edits.edit(items, ALL_KINDS, EDITS_COUNT) }
+    }
+
+    @Test
+    fun noCommonPrefixAndSuffix() {
+        checkRandomEdits { edits, items ->
+            val edited = edits.edit(items, ALL_KINDS, EDITS_COUNT)
+            // first and last items are replaced with new ones
+            edits.createItems(1) + edited.subList(1, edited.size - 1) + edits.createItems(1)
+        }
+    }
+
+    @Test
+    fun onlyChanges() {
+        checkRandomEdits { edits, items -> edits.edit(items, setOf(Kind.CHANGE), EDITS_COUNT) }
+    }
+
+    @Test
+    fun emptyLists() {
+        val items = RandomEdits(0).createItems(MAX_SIZE)
+        check(emptyList(), items)
+        check(items, emptyList())
+        check(emptyList(), emptyList())
+    }
+
+    private fun checkRandomEdits(edit: (RandomEdits, List<ItemInfo>) -> List<ItemInfo>) {
+        repeat(RUNS_COUNT) { seed ->
+            val edits = RandomEdits(seed.toLong())
+            val oldItems = edits.createItems(MIN_SIZE + seed % (MAX_SIZE - MIN_SIZE))
+            check(oldItems, edit(edits, oldItems))
+        }
+    }
+
+    private fun check(oldItems: List<ItemInfo>, newItems: List<ItemInfo>) {
+        val diff = TrimmingDiffCalculator.calculateDiff(
+                ItemInfoListSnapshot(oldItems, emptyList<Any>()),
+                ItemInfoListSnapshot(newItems, emptyList<Any>()),
+                DiffCancellationToken()
+        )
+        val callback = ReplayingUpdateCallback(oldItems)
+        diff.dispatchUpdatesTo(callback)
+        callback.assertProduces(newItems)
+        assertMembershipChanges(diff, oldItems, newItems)
+    }
+
+    /**
+     * Items reported as removed and inserted must be the only difference between lists,
+     * and every item present in only one of lists must be reported
+     */
+    private fun assertMembershipChanges(diff: ListDiff, oldItems: List<ItemInfo>, newItems: List<ItemInfo>) {
+        val keptOldItems = oldItems.toMutableList<ItemInfo?>()
+        val keptNewItems = newItems.toMutableList<ItemInfo?>()
+        diff.dispatchMembershipChangesTo(object : ListDiff.MembershipCallback {
+
+            override fun onRemoved(oldPosition: Int) {
+                keptOldItems[oldPosition] = null
+            }
+
+            override fun onInserted(newPosition: Int) {
+                keptNewItems[newPosition] = null
+            }
+        })
+        assertEquals(keptOldItems.mapNotNull { it?.id }.sorted(), keptNewItems.mapNotNull { it?.id }.sorted())
+        val oldIds = oldItems.map { it.id }.toSet()
+        val newIds = newItems.map { it.id }.toSet()
+        assertTrue(oldItems.filterIndexed { position, item -> item.id !in newIds && keptOldItems[position] != null }.isEmpty())
+        assertTrue(newItems.filterIndexed { position, item -> item.id !in oldIds && keptNewItems[position] != null }.isEmpty())
+    }
+
+    private companion object {
+
+        val ALL_KINDS = Kind.values().toSet()
+
+        const val RUNS_COUNT = 500
+        const val MIN_SIZE = 8
+        const val MAX_SIZE = 60
+        const val EDITS_COUNT = 3
+    }
+}
\ No newline at end of file
@@ -0,0 +1,38 @@
+package net.maxsmr.android.recyclerview.testing
+
+import org.junit.Assert.assertTrue
+
+/**
+ * Allowed amount of allocated bytes for one run of scenario:
+ * [perOperationBytes] for each of measured operations plus constant [slackBytes]
+ * for lazily grown framework structures and measuring noise
+ */
+class AllocationBudget(
+        private val perOperationBytes: Long,
+        private val slackBytes: Long = DEFAULT_SLACK_BYTES
+) {
+
+    fun bytesFor(operationsCount: Int) = perOperationBytes * operationsCount + slackBytes
+
+    /**
+     * @param allocatedBytes allocated by scenario run, excluding baseline if it was measured
+     */
+    fun assertWithin(scenario: String, operationsCount: Int, allocatedBytes: Long) {
+        val budgetBytes = bytesFor(operationsCount)
+        assertTrue(
+                "$scenario allocated $allocatedBytes bytes for $operationsCount operations, which is over budget of $budgetBytes bytes",
+                allocatedBytes <= budgetBytes
+        )
+    }
+
+    companion object {
+
+        const val DEFAULT_SLACK_BYTES = 1024L
+
+        /**
+         * Hot path must not allocate anything per operation
+         */
+        @JvmField
+        val ALLOCATION_FREE = AllocationBudget(0)
+    }
+}
\ No newline at end of file
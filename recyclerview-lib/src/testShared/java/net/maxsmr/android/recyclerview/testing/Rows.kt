@@ -0,0 +1,8 @@
+package net.maxsmr.android.recyclerview.testing
+
+/**
+ * Item of test and benchmark lists
+ */
+data class Row(val id: Int, val text: String)
+
+fun createRows(count: Int, textPrefix: String = "row"): List<Row> = List(count) { Row(it, "$textPrefix $it") }
\ No newline at end of file
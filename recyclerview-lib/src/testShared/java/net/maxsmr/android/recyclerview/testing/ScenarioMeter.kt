@@ -0,0 +1,68 @@
+package net.maxsmr.android.recyclerview.testing
+
+import java.lang.management.ManagementFactory
+
+/**
+ * Runs benchmark scenario several times and takes medians of its time and allocated bytes.
+ *
+ * Allocations are taken from [com.sun.management.ThreadMXBean] of the calling thread,
+ * so they are reported as [Measurement.UNKNOWN] on JVMs without thread allocation accounting.
+ */
+class ScenarioMeter(
+        private val warmUpIterations: Int = WARM_UP_ITERATIONS,
+        private val iterations: Int = MEASURE_ITERATIONS
+) {
+
+    private val threadMXBean = (ManagementFactory.getThreadMXBean() as? com.sun.management.ThreadMXBean)
+            ?.takeIf { it.isThreadAllocatedMemorySupported }
+            ?.apply { isThreadAllocatedMemoryEnabled = true }
+
+    val isAllocationTrackingSupported get() = threadMXBean != null
+
+    /**
+     * @param setUp preparation of every run, isn't measured
+     * @param run measured part of scenario
+     */
+    fun measure(setUp: () -> Unit = {}, run: () -> Unit): Measurement {
+        repeat(warmUpIterations) {
+            setUp()
+            run()
+        }
+        val times = LongArray(iterations)
+        val allocations = LongArray(iterations)
+        for (i in 0 until iterations) {
+            setUp()
+            val startBytes = allocatedBytes()
+            val startTime = System.nanoTime()
+            run()
+            times[i] = System.nanoTime() - startTime
+            allocations[i] = allocatedBytes() - startBytes
+        }
+        return Measurement(median(times), if (isAllocationTrackingSupported) median(allocations) else Measurement.UNKNOWN)
+    }
+
+    private fun allocatedBytes(): Long =
+            threadMXBean?.getThreadAllocatedBytes(Thread.currentThread().id) ?: 0L
+
+    private fun median(values: LongArray): Long {
+        values.sort()
+        return values[values.size / 2]
+    }
+
+    data class Measurement(
+            val medianNanos: Long,
+            val allocatedBytes: Long
+    ) {
+
+        companion object {
+
+            const val UNKNOWN = -1L
+        }
+    }
+
+    companion object {
+
+        const val WARM_UP_ITERATIONS = 10
+        const val MEASURE_ITERATIONS = 20
+    }
+}
\ No newline at end of file
@@ -0,0 +1,301 @@
+package net.maxsmr.testapp.adapter
+
+import android.content.Context
+import android.os.Build
+import android.view.ViewGroup
+import androidx.recyclerview.widget.RecyclerView
+import androidx.test.core.app.ApplicationProvider
+import net.maxsmr.android.recyclerview.adapters.base.BaseRecyclerViewAdapter
+import net.maxsmr.android.recyclerview.testing.Row
+import net.maxsmr.android.recyclerview.testing.createRows
+import net.maxsmr.testapp.benchmark.HolderCounter
+import net.maxsmr.testapp.benchmark.RowAdapter
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+import org.robolectric.shadows.ShadowLooper
+import ru.surfstudio.android.easyadapter.diff.async.AsyncDiffScheduler
+import ru.surfstudio.android.easyadapter.diff.async.AsyncDiffStrategy
+import java.util.concurrent.Executor
+
+/**
+ * Items of BaseRecyclerViewAdapter with async diff calculation
+ * must be replaced only when calculated diff is dispatched
+ */
+@RunWith(RobolectricTestRunner::class)
+@Config(sdk = [Build.VERSION_CODES.P])
+class AsyncDiffTest {
+
+    private val context: Context = ApplicationProvider.getApplicationContext()
+
+    private val rows = createRows(ITEMS_COUNT)
+
+    private val adapter = RowAdapter(context, HolderCounter())
+    private val observer = RecordingObserver()
+
+    /**
+     * Calculations, which are run manually by [runCalculations]
+     */
+    private val calculations = mutableListOf<Runnable>()
+
+    @Before
+    fun setUp() {
+        AsyncDiffScheduler.executor = Executor { calculations.add(it) }
+        adapter.setItems(rows)
+        adapter.isAsyncDiffCalculationEnabled = true
+        adapter.registerAdapterDataObserver(observer)
+    }
+
+    @After
+    fun tearDown() {
+        AsyncDiffScheduler.resetExecutor()
+    }
+
+    @Test
+    fun itemsAreReplacedOnDispatch() {
+        val changedRows = changeEveryTenth(rows)
+        adapter.setItems(changedRows)
+        assertTrue(adapter.hasPendingItems)
+        assertEquals(rows, adapter.items)
+        assertTrue(observer.events.isEmpty())
+
+        runCalculations()
+        assertFalse(adapter.hasPendingItems)
+        assertEquals(changedRows, adapter.items)
+        assertEquals(ITEMS_COUNT / 10, observer.events.size)
+        assertFalse(observer.events.contains(DATA_SET_CHANGED))
+    }
+
+    @Test
+    fun queueAll() {
+        val changedRows = changeEveryTenth(rows)
+        val appendedRows = changedRows + createRows(10, "appended")
+        adapter.setItems(changedRows)
+        adapter.setItems(appendedRows)
+        runCalculations()
+        assertEquals(appendedRows, adapter.items)
+        assertEquals(ITEMS_COUNT / 10 + 1, observer.events.size)
+        assertEquals("inserted $ITEMS_COUNT, 10", observer.events.last())
+    }
+
+    @Test
+    fun applyLatest() {
+        adapter.asyncDiffStrategy = AsyncDiffStrategy.APPLY_LATEST
+        val appendedRows = rows + createRows(10, "appended")
+        adapter.setItems(changeEveryTenth(rows))
+        adapter.setItems(appendedRows)
+        runCalculations()
+        assertEquals(appendedRows, adapter.items)
+        assertEquals(listOf("inserted $ITEMS_COUNT, 10"), observer.events)
+    }
+
+    @Test
+    fun cancelStale() {
+        adapter.asyncDiffStrategy = AsyncDiffStrategy.CANCEL_STALE
+        val appendedRows = rows + createRows(10, "appended")
+        adapter.setItems(changeEveryTenth(rows))
+        adapter.setItems(appendedRows)
+        runCalculations()
+        assertFalse(adapter.hasPendingItems)
+        assertEquals(appendedRows, adapter.items)
+        assertEquals(listOf("inserted $ITEMS_COUNT, 10"), observer.events)
+    }
+
+    @Test
+    fun cancelStaleSkipsExtraction() {
+        val extractedRows = mutableListOf<Row>()
+        val adapter = object : BaseRecyclerViewAdapter<Row, RowAdapter.ViewHolder>(context) {
+
+            override fun onCreateViewHolder(parent: ViewGroup, viewType: Int) = RowAdapter.ViewHolder(parent, HolderCounter())
+
+            override fun getStringIdForItem(item: Row): String {
+                extractedRows.add(item)
+                return item.id.toString()
+            }
+        }
+        adapter.setItems(rows)
+        adapter.isAsyncDiffCalculationEnabled = true
+        adapter.asyncDiffStrategy = AsyncDiffStrategy.CANCEL_STALE
+        val appendedRows = rows + createRows(10, "appended")
+        adapter.setItems(changeEveryTenth(rows))
+        adapter.setItems(appendedRows)
+        extractedRows.clear()
+        runCalculations()
+        assertEquals(appendedRows, adapter.items)
+        // superseded calculation is abandoned before extracting ids of its items
+        assertEquals(appendedRows, extractedRows)
+    }
+
+    @Test
+    fun adaptive() {
+        adapter.asyncDiffStrategy = AsyncDiffStrategy.ADAPTIVE
+        val changedRows = changeEveryTenth(rows)
+        adapter.setItems(changedRows)
+        // cheap update is calculated in the main thread, but still applied after posting
+        assertTrue(calculations.isEmpty())
+        assertEquals(rows, adapter.items)
+        ShadowLooper.idleMainLooper()
+        assertFalse(adapter.hasPendingItems)
+        assertEquals(changedRows, adapter.items)
+        assertEquals(ITEMS_COUNT / 10, observer.events.size)
+        assertFalse(observer.events.contains(DATA_SET_CHANGED))
+    }
+
+    @Test
+    fun adaptiveFirstFill() {
+        adapter.asyncDiffStrategy = AsyncDiffStrategy.ADAPTIVE
+        adapter.setItems(emptyList())
+        ShadowLooper.idleMainLooper()
+        observer.events.clear()
+        // too many items to calculate in the main thread, but diff against empty list is trivial
+        val manyRows = createRows(MANY_ITEMS_COUNT)
+        adapter.setItems(manyRows)
+        runCalculations()
+        assertEquals(manyRows, adapter.items)
+        assertEquals(listOf("inserted 0, $MANY_ITEMS_COUNT"), observer.events)
+    }
+
+    @Test
+    fun adaptiveClear() {
+        adapter.isAsyncDiffCalculationEnabled = false
+        adapter.setItems(createRows(MANY_ITEMS_COUNT))
+        adapter.isAsyncDiffCalculationEnabled = true
+        adapter.asyncDiffStrategy = AsyncDiffStrategy.ADAPTIVE
+        observer.events.clear()
+        adapter.setItems(emptyList())
+        runCalculations()
+        assertTrue(adapter.items.isEmpty())
+        assertEquals(listOf("removed 0, $MANY_ITEMS_COUNT"), observer.events)
+    }
+
+    @Test
+    fun adaptiveCancel() {
+        adapter.asyncDiffStrategy = AsyncDiffStrategy.ADAPTIVE
+        val changedRows = changeEveryTenth(rows)
+        adapter.setItems(changedRows)
+        // pending items are applied at once without diff
+        adapter.isAsyncDiffCalculationEnabled = false
+        assertEquals(changedRows, adapter.items)
+        // result of inline calculation, posted before cancel, is dropped
+        ShadowLooper.idleMainLooper()
+        assertEquals(listOf(DATA_SET_CHANGED), observer.events)
+    }
+
+    @Test
+    fun frameAligned() {
+        adapter.asyncDiffStrategy = AsyncDiffStrategy.FRAME_ALIGNED
+        val appendedRows = rows + createRows(10, "appended")
+        adapter.setItems(changeEveryTenth(rows))
+        adapter.setItems(appendedRows)
+        runFrames()
+        assertFalse(adapter.hasPendingItems)
+        assertEquals(appendedRows, adapter.items)
+        assertEquals(listOf("inserted $ITEMS_COUNT, 10"), observer.events)
+    }
+
+    @Test
+    fun frameAlignedUpdateDuringCalculation() {
+        adapter.asyncDiffStrategy = AsyncDiffStrategy.FRAME_ALIGNED
+        val changedRows = changeEveryTenth(rows)
+        val appendedRows = changedRows + createRows(10, "appended")
+        adapter.setItems(changedRows)
+        ShadowLooper.runUiThreadTasksIncludingDelayedTasks()
+        assertEquals(1, calculations.size)
+        adapter.setItems(appendedRows)
+        runFrames()
+        assertFalse(adapter.hasPendingItems)
+        assertEquals(appendedRows, adapter.items)
+        // pending update is calculated against the items applied before it
+        assertEquals(ITEMS_COUNT / 10 + 1, observer.events.size)
+        assertEquals("inserted $ITEMS_COUNT, 10", observer.events.last())
+    }
+
+    @Test
+    fun settingCurrentItemsWhilePending() {
+        adapter.setItems(changeEveryTenth(rows))
+        adapter.setItems(rows)
+        runCalculations()
+        assertEquals(rows, adapter.items)
+    }
+
+    @Test
+    fun mutationWhilePending() {
+        val changedRows = changeEveryTenth(rows)
+        adapter.setItems(changedRows)
+        adapter.removeItem(0)
+        runCalculations()
+        assertEquals(changedRows, adapter.items)
+        // diff was calculated against the list without mutation
+        assertEquals(listOf("removed 0, 1", DATA_SET_CHANGED), observer.events)
+    }
+
+    private fun runCalculations() {
+        while (calculations.isNotEmpty()) {
+            calculations.removeAt(0).run()
+            ShadowLooper.idleMainLooper()
+        }
+    }
+
+    /**
+     * Run frame callbacks, which are delayed tasks of the main looper, with calculations started by them
+     */
+    private fun runFrames() {
+        repeat(MAX_FRAMES_COUNT) {
+            ShadowLooper.runUiThreadTasksIncludingDelayedTasks()
+            if (calculations.isEmpty()) return
+            runCalculations()
+        }
+    }
+
+    private fun changeEveryTenth(rows: List<Row>): List<Row> =
+            rows.mapIndexed { index, row -> if (index % 10 == 0) row.copy(text = "changed ${row.id}") else row }
+
+    private class RecordingObserver : RecyclerView.AdapterDataObserver() {
+
+        val events = mutableListOf<String>()
+
+        override fun onChanged() {
+            events.add(DATA_SET_CHANGED)
+        }
+
+        override fun onItemRangeChanged(positionStart: Int, itemCount: Int) {
+            events.add("changed $positionStart, $itemCount")
+        }
+
+        override fun onItemRangeChanged(positionStart: Int, itemCount: Int, payload: Any?) {
+            onItemRangeChanged(positionStart, itemCount)
+        }
+
+        override fun onItemRangeInserted(positionStart: Int, itemCount: Int) {
+            events.add("inserted $positionStart, $itemCount")
+        }
+
+        override fun onItemRangeRemoved(positionStart: Int, itemCount: Int) {
+            events.add("removed $positionStart, $itemCount")
+        }
+
+        override fun onItemRangeMoved(fromPosition: Int, toPosition: Int, itemCount: Int) {
+            events.add("moved $fromPosition, $toPosition")
+        }
+    }
+
+    private companion object {
+
+        const val ITEMS_COUNT = 100
+
+        /**
+         * Expected cost of update with this amount of items exceeds the inline budget of adaptive strategy
+         */
+        const val MANY_ITEMS_COUNT = 5_000
+
+        const val MAX_FRAMES_COUNT = 10
+
+        const val DATA_SET_CHANGED = "data set changed"
+    }
+}
\ No newline at end of file
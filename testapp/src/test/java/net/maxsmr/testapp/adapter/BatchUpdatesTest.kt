@@ -0,0 +1,164 @@
+package net.maxsmr.testapp.adapter
+
+import android.content.Context
+import android.os.Build
+import androidx.recyclerview.widget.RecyclerView
+import androidx.test.core.app.ApplicationProvider
+import net.maxsmr.android.recyclerview.adapters.base.BaseRecyclerViewAdapter
+import net.maxsmr.android.recyclerview.testing.Row
+import net.maxsmr.android.recyclerview.testing.createRows
+import net.maxsmr.testapp.benchmark.HolderCounter
+import net.maxsmr.testapp.benchmark.RowAdapter
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+
+/**
+ * Mutations inside BaseRecyclerViewAdapter.batch must be notified by merged ranges
+ * and delivered to listeners as one event
+ */
+@RunWith(RobolectricTestRunner::class)
+@Config(sdk = [Build.VERSION_CODES.P])
+class BatchUpdatesTest {
+
+    private val context: Context = ApplicationProvider.getApplicationContext()
+
+    private val rows = createRows(ITEMS_COUNT)
+
+    private val adapter = RowAdapter(context, HolderCounter())
+    private val observer = RecordingObserver()
+    private val listener = RecordingListener()
+
+    @Before
+    fun setUp() {
+        adapter.setItems(rows)
+        adapter.registerAdapterDataObserver(observer)
+        adapter.registerItemsEventsListener(listener)
+    }
+
+    @Test
+    fun appends() {
+        val newRows = createRows(MUTATIONS_COUNT, "new")
+        adapter.batch {
+            for (row in newRows) {
+                adapter.addItem(row)
+            }
+        }
+        assertEquals(rows + newRows, adapter.items)
+        assertEquals(listOf("inserted $ITEMS_COUNT, $MUTATIONS_COUNT"), observer.events)
+        assertEquals(listOf("updated $ITEMS_COUNT -> ${ITEMS_COUNT + MUTATIONS_COUNT}"), listener.events)
+    }
+
+    @Test
+    fun removalsAndSets() {
+        adapter.batch {
+            repeat(MUTATIONS_COUNT) {
+                adapter.removeItem(0)
+            }
+            for (i in 0 until MUTATIONS_COUNT) {
+                adapter.setItem(i, rows[i])
+            }
+        }
+        assertEquals(rows.subList(0, MUTATIONS_COUNT) + rows.subList(MUTATIONS_COUNT * 2, ITEMS_COUNT), adapter.items)
+        assertEquals(listOf("removed 0, $MUTATIONS_COUNT", "changed 0, $MUTATIONS_COUNT"), observer.events)
+        assertEquals(listOf("updated $ITEMS_COUNT -> ${ITEMS_COUNT - MUTATIONS_COUNT}"), listener.events)
+    }
+
+    @Test
+    fun nestedBatches() {
+        adapter.beginUpdates()
+        adapter.batch {
+            adapter.removeItemsRange(0, 9)
+        }
+        assertEquals(emptyList<String>(), observer.events)
+        adapter.removeItemsRange(0, 9)
+        adapter.endUpdates()
+        assertFalse(adapter.isInUpdates)
+        assertEquals(listOf("removed 0, 20"), observer.events)
+        assertEquals(listOf("updated $ITEMS_COUNT -> ${ITEMS_COUNT - 20}"), listener.events)
+    }
+
+    private class RecordingObserver : RecyclerView.AdapterDataObserver() {
+
+        val events = mutableListOf<String>()
+
+        override fun onChanged() {
+            events.add("changed")
+        }
+
+        override fun onItemRangeChanged(positionStart: Int, itemCount: Int) {
+            events.add("changed $positionStart, $itemCount")
+        }
+
+        override fun onItemRangeChanged(positionStart: Int, itemCount: Int, payload: Any?) {
+            onItemRangeChanged(positionStart, itemCount)
+        }
+
+        override fun onItemRangeInserted(positionStart: Int, itemCount: Int) {
+            events.add("inserted $positionStart, $itemCount")
+        }
+
+        override fun onItemRangeRemoved(positionStart: Int, itemCount: Int) {
+            events.add("removed $positionStart, $itemCount")
+        }
+
+        override fun onItemRangeMoved(fromPosition: Int, toPosition: Int, itemCount: Int) {
+            events.add("moved $fromPosition, $toPosition")
+        }
+    }
+
+    private class RecordingListener : BaseRecyclerViewAdapter.ItemsEventsListener<Row> {
+
+        val events = mutableListOf<String>()
+
+        override fun onItemClick(position: Int, item: Row?) {
+        }
+
+        override fun onItemLongClick(position: Int, item: Row?) = false
+
+        override fun onItemFocusChanged(position: Int, item: Row?) {
+        }
+
+        override fun onItemAdded(to: Int, item: Row?, previousSize: Int) {
+            events.add("added")
+        }
+
+        override fun onItemsAdded(to: Int, items: Collection<Row?>, previousSize: Int) {
+            events.add("added")
+        }
+
+        override fun onItemSet(to: Int, item: Row?) {
+            events.add("set")
+        }
+
+        override fun onItemsSet(items: List<Row?>) {
+            events.add("set")
+        }
+
+        override fun onItemRemoved(position: Int, item: Row?) {
+            events.add("removed")
+        }
+
+        override fun onItemsRangeRemoved(from: Int, to: Int, previousSize: Int, removedItems: List<Row?>) {
+            events.add("removed")
+        }
+
+        override fun onItemsSwapped(fromPosition: Int, fromItem: Row?, toPosition: Int, toItem: Row?) {
+            events.add("swapped")
+        }
+
+        override fun onItemsUpdated(previousItems: List<Row?>, items: List<Row?>) {
+            events.add("updated ${previousItems.size} -> ${items.size}")
+        }
+    }
+
+    private companion object {
+
+        const val ITEMS_COUNT = 100
+        const val MUTATIONS_COUNT = 10
+    }
+}
\ No newline at end of file
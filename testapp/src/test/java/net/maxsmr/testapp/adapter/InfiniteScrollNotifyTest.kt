@@ -0,0 +1,101 @@
+package net.maxsmr.testapp.adapter
+
+import android.content.Context
+import android.os.Build
+import android.widget.TextView
+import androidx.recyclerview.widget.RecyclerView
+import androidx.test.core.app.ApplicationProvider
+import net.maxsmr.android.recyclerview.adapters.base.INFINITE_SCROLL_NOTIFY_MARGIN_DEFAULT
+import net.maxsmr.android.recyclerview.testing.createRows
+import net.maxsmr.testapp.benchmark.BenchmarkRecyclerView
+import net.maxsmr.testapp.benchmark.HolderCounter
+import net.maxsmr.testapp.benchmark.ROW_HEIGHT
+import net.maxsmr.testapp.benchmark.RowAdapter
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+
+/**
+ * Change of item in infinite scroll BaseRecyclerViewAdapter must notify only copies near laid out range,
+ * while every shown copy, including ones attached from RecyclerView cache, must be up to date
+ */
+@RunWith(RobolectricTestRunner::class)
+@Config(sdk = [Build.VERSION_CODES.P])
+class InfiniteScrollNotifyTest {
+
+    private val context: Context = ApplicationProvider.getApplicationContext()
+
+    private val rows = createRows(ITEMS_COUNT)
+
+    private val adapter = RowAdapter(context, HolderCounter())
+
+    private val recyclerView = BenchmarkRecyclerView(context)
+
+    private val changedPositions = mutableListOf<Int>()
+
+    @Before
+    fun setUp() {
+        adapter.allowInfiniteScroll = true
+        adapter.setItems(rows)
+        recyclerView.setAdapter(adapter)
+        recyclerView.layout()
+        adapter.registerAdapterDataObserver(object : RecyclerView.AdapterDataObserver() {
+
+            override fun onItemRangeChanged(positionStart: Int, itemCount: Int) {
+                for (i in positionStart until positionStart + itemCount) {
+                    changedPositions.add(i)
+                }
+            }
+
+            override fun onItemRangeChanged(positionStart: Int, itemCount: Int, payload: Any?) {
+                onItemRangeChanged(positionStart, itemCount)
+            }
+        })
+    }
+
+    @Test
+    fun notifiesLaidOutCopies() {
+        adapter.setItem(3, rows[3].copy(text = "changed"))
+        val lastNotifiedPosition = VISIBLE_ROWS_COUNT - 1 + INFINITE_SCROLL_NOTIFY_MARGIN_DEFAULT
+        assertEquals((3..lastNotifiedPosition step ITEMS_COUNT).toList(), changedPositions)
+        recyclerView.layout()
+        assertShownItems()
+    }
+
+    @Test
+    fun rebindsCachedCopies() {
+        adapter.infiniteScrollNotifyMargin = 0
+        recyclerView.scrollBy(SCROLL_ROWS_COUNT * ROW_HEIGHT)
+        for (position in 0 until ITEMS_COUNT) {
+            adapter.setItem(position, rows[position].copy(text = "changed $position"))
+        }
+        assertTrue(changedPositions.all { it in SCROLL_ROWS_COUNT until SCROLL_ROWS_COUNT + VISIBLE_ROWS_COUNT })
+        recyclerView.layout()
+        // rows scrolled off last are attached back from cache without binding
+        recyclerView.scrollBy(-SCROLL_BACK_ROWS_COUNT * ROW_HEIGHT)
+        assertShownItems()
+    }
+
+    private fun assertShownItems() {
+        val view = recyclerView.view
+        for (i in 0 until view.childCount) {
+            val child = view.getChildAt(i)
+            val position = view.getChildAdapterPosition(child)
+            assertEquals("position $position", adapter.items[position % ITEMS_COUNT].text, (child as TextView).text.toString())
+        }
+    }
+
+    private companion object {
+
+        const val ITEMS_COUNT = 10
+
+        const val VISIBLE_ROWS_COUNT = BenchmarkRecyclerView.HEIGHT / ROW_HEIGHT
+
+        const val SCROLL_ROWS_COUNT = 25
+        const val SCROLL_BACK_ROWS_COUNT = 5
+    }
+}
\ No newline at end of file
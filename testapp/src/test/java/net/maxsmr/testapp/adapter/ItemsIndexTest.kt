@@ -0,0 +1,105 @@
+package net.maxsmr.testapp.adapter
+
+import android.content.Context
+import android.os.Build
+import androidx.test.core.app.ApplicationProvider
+import net.maxsmr.android.recyclerview.testing.Row
+import net.maxsmr.android.recyclerview.testing.createRows
+import net.maxsmr.testapp.benchmark.HolderCounter
+import net.maxsmr.testapp.benchmark.RowAdapter
+import org.junit.Assert.assertEquals
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+
+/**
+ * Lookups by item in BaseRecyclerViewAdapter with items index
+ * must be consistent with lookups in the list after any mutation
+ */
+@RunWith(RobolectricTestRunner::class)
+@Config(sdk = [Build.VERSION_CODES.P])
+class ItemsIndexTest {
+
+    private val context: Context = ApplicationProvider.getApplicationContext()
+
+    private val rows = createRows(ITEMS_COUNT)
+    private val otherRows = createRows(ITEMS_COUNT, "other").map { it.copy(id = it.id + ITEMS_COUNT) }
+
+    private val adapter = RowAdapter(context, HolderCounter())
+
+    @Before
+    fun setUp() {
+        adapter.isItemsIndexEnabled = true
+        adapter.setItems(rows)
+    }
+
+    @Test
+    fun appendAndRemoveLast() {
+        adapter.addItem(otherRows[0])
+        assertLookups()
+        adapter.addItems(otherRows.subList(1, 10))
+        assertLookups()
+        adapter.removeItemsRange(ITEMS_COUNT, ITEMS_COUNT + 4)
+        assertLookups()
+        adapter.removeItem(adapter.listItemCount - 1)
+        assertLookups()
+    }
+
+    @Test
+    fun insertAndRemoveInTheMiddle() {
+        adapter.addItem(10, otherRows[0])
+        assertLookups()
+        adapter.addItems(0, otherRows.subList(1, 10))
+        assertLookups()
+        adapter.removeItem(rows[50])
+        assertLookups()
+        adapter.removeItemsRange(0, 4)
+        assertLookups()
+    }
+
+    @Test
+    fun setReplaceAndSwap() {
+        adapter.setItem(5, otherRows[0])
+        assertLookups()
+        adapter.replaceItem(rows[6], otherRows[1])
+        assertLookups()
+        adapter.replaceItemsRange(10, 14, otherRows.subList(2, 7))
+        assertLookups()
+        adapter.swapItems(20, 30)
+        assertLookups()
+        adapter.swapItems(5, 20)
+        assertLookups()
+    }
+
+    @Test
+    fun changedContents() {
+        val changedRow = rows[3].copy(text = "changed")
+        assertEquals(-1, adapter.indexOf(changedRow))
+        adapter.setItem(3, changedRow)
+        assertEquals(3, adapter.indexOf(changedRow))
+        assertEquals(-1, adapter.indexOf(rows[3]))
+    }
+
+    @Test
+    fun duplicateKeys() {
+        adapter.itemKeyExtractor = { it.text.substringBefore(' ') }
+        assertLookups()
+        adapter.addItem(rows[0])
+        assertEquals(0, adapter.indexOf(rows[0]))
+        assertEquals(ITEMS_COUNT, adapter.lastIndexOf(rows[0]))
+    }
+
+    private fun assertLookups() {
+        for (row in rows + otherRows) {
+            assertEquals(row.toString(), adapter.items.indexOf(row), adapter.indexOf(row))
+            assertEquals(row.toString(), adapter.items.lastIndexOf(row), adapter.lastIndexOf(row))
+        }
+    }
+
+    private companion object {
+
+        const val ITEMS_COUNT = 100
+    }
+}
\ No newline at end of file
@@ -0,0 +1,99 @@
+package net.maxsmr.testapp.adapter
+
+import android.content.Context
+import android.os.Build
+import androidx.recyclerview.widget.RecyclerView
+import androidx.test.core.app.ApplicationProvider
+import net.maxsmr.android.recyclerview.testing.Row
+import net.maxsmr.android.recyclerview.testing.createRows
+import net.maxsmr.testapp.benchmark.HolderCounter
+import net.maxsmr.testapp.benchmark.RowAdapter
+import org.junit.Assert.assertEquals
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+
+/**
+ * Range removal, clear and range replacement of BaseRecyclerViewAdapter
+ * must result in bulk range notifications
+ */
+@RunWith(RobolectricTestRunner::class)
+@Config(sdk = [Build.VERSION_CODES.P])
+class RangeMutationsTest {
+
+    private val context: Context = ApplicationProvider.getApplicationContext()
+
+    private val rows = createRows(ITEMS_COUNT)
+
+    private val adapter = RowAdapter(context, HolderCounter())
+    private val observer = RecordingObserver()
+
+    @Before
+    fun setUp() {
+        adapter.setItems(rows)
+        adapter.registerAdapterDataObserver(observer)
+    }
+
+    @Test
+    fun removeItemsRange() {
+        val removed = adapter.removeItemsRange(10, 19)
+        assertEquals(rows.subList(10, 20), removed)
+        assertEquals(rows.subList(0, 10) + rows.subList(20, ITEMS_COUNT), adapter.items)
+        assertEquals(listOf("removed 10, 10"), observer.events)
+    }
+
+    @Test
+    fun removeAllItems() {
+        adapter.removeAllItems()
+        assertEquals(0, adapter.itemCount)
+        assertEquals(listOf("removed 0, $ITEMS_COUNT"), observer.events)
+    }
+
+    @Test
+    fun replaceItemsRangeWithLess() {
+        val newRows = createRows(3, "new")
+        adapter.replaceItemsRange(10, 19, newRows)
+        assertEquals(rows.subList(0, 10) + newRows + rows.subList(20, ITEMS_COUNT), adapter.items)
+        assertEquals(listOf("changed 10, 3", "removed 13, 7"), observer.events)
+    }
+
+    @Test
+    fun replaceItemsRangeWithMore() {
+        val newRows = createRows(15, "new")
+        adapter.replaceItemsRange(10, 19, newRows)
+        assertEquals(rows.subList(0, 10) + newRows + rows.subList(20, ITEMS_COUNT), adapter.items)
+        assertEquals(listOf("changed 10, 10", "inserted 20, 5"), observer.events)
+    }
+
+    private class RecordingObserver : RecyclerView.AdapterDataObserver() {
+
+        val events = mutableListOf<String>()
+
+        override fun onChanged() {
+            events.add("changed")
+        }
+
+        override fun onItemRangeChanged(positionStart: Int, itemCount: Int) {
+            events.add("changed $positionStart, $itemCount")
+        }
+
+        override fun onItemRangeChanged(positionStart: Int, itemCount: Int, payload: Any?) {
+            onItemRangeChanged(positionStart, itemCount)
+        }
+
+        override fun onItemRangeInserted(positionStart: Int, itemCount: Int) {
+            events.add("inserted $positionStart, $itemCount")
+        }
+
+        override fun onItemRangeRemoved(positionStart: Int, itemCount: Int) {
+            events.add("removed $positionStart, $itemCount")
+        }
+    }
+
+    private companion object {
+
+        const val ITEMS_COUNT = 100
+    }
+}
\ No newline at end of file
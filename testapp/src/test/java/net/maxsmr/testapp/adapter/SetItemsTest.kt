@@ -0,0 +1,190 @@
+package net.maxsmr.testapp.adapter
+
+import android.content.Context
+import android.os.Build
+import android.widget.TextView
+import androidx.recyclerview.widget.RecyclerView
+import androidx.test.core.app.ApplicationProvider
+import net.maxsmr.android.recyclerview.adapters.base.BaseRecyclerViewAdapter
+import net.maxsmr.android.recyclerview.testing.Row
+import net.maxsmr.android.recyclerview.testing.createRows
+import net.maxsmr.testapp.benchmark.BenchmarkRecyclerView
+import net.maxsmr.testapp.benchmark.HolderCounter
+import net.maxsmr.testapp.benchmark.RowAdapter
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+import org.robolectric.shadows.ShadowLooper
+import ru.surfstudio.android.easyadapter.diff.async.AsyncDiffScheduler
+import java.util.concurrent.Executor
+
+/**
+ * BaseRecyclerViewAdapter.setItems on non-empty attached adapter must notify it only with diff
+ * against the displayed items, and listeners must get the same events with sync and async diff calculation
+ */
+@RunWith(RobolectricTestRunner::class)
+@Config(sdk = [Build.VERSION_CODES.P])
+class SetItemsTest {
+
+    private val context: Context = ApplicationProvider.getApplicationContext()
+
+    private val rows = createRows(ITEMS_COUNT)
+
+    private val adapter = RowAdapter(context, HolderCounter())
+    private val observer = RecordingObserver(ITEMS_COUNT)
+    private val listener = RecordingListener()
+
+    private val recyclerView = BenchmarkRecyclerView(context)
+
+    @Before
+    fun setUp() {
+        AsyncDiffScheduler.executor = Executor { it.run() }
+        adapter.setItems(rows)
+        recyclerView.setAdapter(adapter)
+        recyclerView.layout()
+        adapter.registerAdapterDataObserver(observer)
+        adapter.registerItemsEventsListener(listener)
+    }
+
+    @After
+    fun tearDown() {
+        AsyncDiffScheduler.resetExecutor()
+    }
+
+    @Test
+    fun notifiesOnlyDiff() {
+        val changedRows = rows.mapIndexed { index, row -> if (index % 10 == 0) row.copy(text = "changed ${row.id}") else row }
+        adapter.setItems(changedRows)
+        assertEquals((0 until ITEMS_COUNT step 10).map { "changed $it, 1" }, observer.events)
+        recyclerView.layout()
+        assertShownItems()
+    }
+
+    @Test
+    fun notifiesRemovalsAndInsertions() {
+        val newRows = rows.subList(ITEMS_COUNT / 2, ITEMS_COUNT) + createRows(10, "new")
+        adapter.setItems(newRows)
+        // notified updates are applied to the displayed items, not to the cleared list
+        assertEquals(newRows.size, observer.itemCount)
+        recyclerView.layout()
+        assertShownItems()
+    }
+
+    @Test
+    fun notifiesDataSetChangedAfterMutation() {
+        adapter.removeItem(0)
+        observer.events.clear()
+        adapter.setItems(rows)
+        // adapter is notified about removal, so diff against items before it is not applicable
+        assertEquals(listOf(DATA_SET_CHANGED), observer.events)
+        recyclerView.layout()
+        assertShownItems()
+    }
+
+    @Test
+    fun listenerEventsAreSameForAsyncDiff() {
+        val newRows = createRows(10, "new")
+        adapter.setItems(newRows)
+        val syncEvents = listener.events.toList()
+        listener.events.clear()
+        adapter.isAsyncDiffCalculationEnabled = true
+        adapter.setItems(rows)
+        ShadowLooper.idleMainLooper()
+        adapter.setItems(newRows)
+        ShadowLooper.idleMainLooper()
+        assertEquals(listOf("removed", "set"), syncEvents)
+        assertEquals(syncEvents + syncEvents, listener.events)
+    }
+
+    private fun assertShownItems() {
+        val view = recyclerView.view
+        for (i in 0 until view.childCount) {
+            val child = view.getChildAt(i)
+            val position = view.getChildAdapterPosition(child)
+            assertEquals("position $position", adapter.items[position].text, (child as TextView).text.toString())
+        }
+    }
+
+    private class RecordingObserver(var itemCount: Int) : RecyclerView.AdapterDataObserver() {
+
+        val events = mutableListOf<String>()
+
+        override fun onChanged() {
+            events.add(DATA_SET_CHANGED)
+        }
+
+        override fun onItemRangeChanged(positionStart: Int, itemCount: Int) {
+            events.add("changed $positionStart, $itemCount")
+        }
+
+        override fun onItemRangeChanged(positionStart: Int, itemCount: Int, payload: Any?) {
+            onItemRangeChanged(positionStart, itemCount)
+        }
+
+        override fun onItemRangeInserted(positionStart: Int, itemCount: Int) {
+            events.add("inserted $positionStart, $itemCount")
+            this.itemCount += itemCount
+        }
+
+        override fun onItemRangeRemoved(positionStart: Int, itemCount: Int) {
+            events.add("removed $positionStart, $itemCount")
+            this.itemCount -= itemCount
+        }
+
+        override fun onItemRangeMoved(fromPosition: Int, toPosition: Int, itemCount: Int) {
+            events.add("moved $fromPosition, $toPosition")
+        }
+    }
+
+    private class RecordingListener : BaseRecyclerViewAdapter.ItemsEventsListener<Row> {
+
+        val events = mutableListOf<String>()
+
+        override fun onItemClick(position: Int, item: Row?) {
+        }
+
+        override fun onItemLongClick(position: Int, item: Row?) = false
+
+        override fun onItemFocusChanged(position: Int, item: Row?) {
+        }
+
+        override fun onItemAdded(to: Int, item: Row?, previousSize: Int) {
+            events.add("added")
+        }
+
+        override fun onItemsAdded(to: Int, items: Collection<Row?>, previousSize: Int) {
+            events.add("added")
+        }
+
+        override fun onItemSet(to: Int, item: Row?) {
+            events.add("set")
+        }
+
+        override fun onItemsSet(items: List<Row?>) {
+            events.add("set")
+        }
+
+        override fun onItemRemoved(position: Int, item: Row?) {
+            events.add("removed")
+        }
+
+        override fun onItemsRangeRemoved(from: Int, to: Int, previousSize: Int, removedItems: List<Row?>) {
+            events.add("removed")
+        }
+
+        override fun onItemsSwapped(fromPosition: Int, fromItem: Row?, toPosition: Int, toItem: Row?) {
+            events.add("swapped")
+        }
+    }
+
+    private companion object {
+
+        const val ITEMS_COUNT = 100
+
+        const val DATA_SET_CHANGED = "data set changed"
+    }
+}
\ No newline at end of file
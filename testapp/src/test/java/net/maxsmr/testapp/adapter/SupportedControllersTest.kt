@@ -0,0 +1,102 @@
+package net.maxsmr.testapp.adapter
+
+import android.content.Context
+import android.os.Build
+import android.view.View
+import android.view.ViewGroup
+import android.widget.FrameLayout
+import androidx.test.core.app.ApplicationProvider
+import net.maxsmr.android.recyclerview.testing.Row
+import net.maxsmr.android.recyclerview.testing.createRows
+import org.junit.Assert.assertSame
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+import org.robolectric.shadows.ShadowLooper
+import ru.surfstudio.android.easyadapter.EasyAdapter
+import ru.surfstudio.android.easyadapter.ItemList
+import ru.surfstudio.android.easyadapter.controller.BindableItemController
+import ru.surfstudio.android.easyadapter.holder.BindableViewHolder
+
+/**
+ * EasyAdapter must create holders with the controller instance of the item they are created for,
+ * even if items are kept between updates and only their controllers are recreated
+ */
+@RunWith(RobolectricTestRunner::class)
+@Config(sdk = [Build.VERSION_CODES.P])
+class SupportedControllersTest {
+
+    private val context: Context = ApplicationProvider.getApplicationContext()
+
+    private val parent = FrameLayout(context)
+
+    private val rows = createRows(ITEMS_COUNT)
+
+    private val adapter = EasyAdapter()
+
+    @Test
+    fun keptItemsWithNewController() {
+        setItems(ItemList.create(rows, RowController()))
+        val controller = RowController()
+        setItems(ItemList.create(rows, controller))
+        assertSame(controller, createHolder().controller)
+    }
+
+    @Test
+    fun removedItemsWithNewController() {
+        setItems(ItemList.create(rows, RowController()))
+        val controller = RowController()
+        setItems(ItemList.create(rows.subList(0, ITEMS_COUNT / 2), controller))
+        assertSame(controller, createHolder().controller)
+    }
+
+    @Test
+    fun insertedItemsWithNewController() {
+        setItems(ItemList.create(rows.subList(0, ITEMS_COUNT / 2), RowController()))
+        val controller = RowController()
+        setItems(ItemList.create(rows, controller))
+        assertSame(controller, createHolder().controller)
+    }
+
+    @Test
+    fun controllerOfItemWins() {
+        setItems(ItemList.create(rows, RowController()))
+        val firstController = RowController()
+        val lastController = RowController()
+        setItems(ItemList.create()
+                .addAll(rows.subList(0, ITEMS_COUNT / 2), firstController)
+                .addAll(rows.subList(ITEMS_COUNT / 2, ITEMS_COUNT), lastController))
+        assertSame(lastController, createHolder(ITEMS_COUNT - 1).controller)
+        assertSame(firstController, createHolder(0).controller)
+    }
+
+    /**
+     * Set items and apply the diff result, posted to the main thread
+     */
+    private fun setItems(items: ItemList) {
+        adapter.setItems(items)
+        ShadowLooper.idleMainLooper()
+    }
+
+    private fun createHolder(position: Int = 0) =
+            adapter.onCreateViewHolder(parent, adapter.getItemViewType(position)) as RowController.Holder
+
+    private class RowController : BindableItemController<Row, RowController.Holder>() {
+
+        override fun createViewHolder(parent: ViewGroup) = Holder(View(parent.context), this)
+
+        override fun getItemId(data: Row): String = data.id.toString()
+
+        class Holder(view: View, val controller: RowController) : BindableViewHolder<Row>(view) {
+
+            override fun bind(item: Row?) {
+            }
+        }
+    }
+
+    private companion object {
+
+        const val ITEMS_COUNT = 10
+    }
+}
\ No newline at end of file
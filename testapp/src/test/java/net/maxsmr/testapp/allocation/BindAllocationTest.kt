@@ -0,0 +1,147 @@
+package net.maxsmr.testapp.allocation
+
+import android.content.Context
+import android.os.Build
+import android.view.View
+import android.view.ViewGroup
+import androidx.recyclerview.widget.RecyclerView
+import androidx.test.core.app.ApplicationProvider
+import net.maxsmr.android.recyclerview.adapters.base.BaseRecyclerViewAdapter
+import net.maxsmr.android.recyclerview.testing.AllocationBudget
+import net.maxsmr.android.recyclerview.testing.Row
+import net.maxsmr.android.recyclerview.testing.ScenarioMeter
+import net.maxsmr.android.recyclerview.testing.createRows
+import net.maxsmr.testapp.benchmark.BenchmarkRecyclerView
+import net.maxsmr.testapp.benchmark.ROW_HEIGHT
+import org.junit.Assume.assumeTrue
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+import ru.surfstudio.android.easyadapter.EasyAdapter
+import ru.surfstudio.android.easyadapter.ItemList
+import ru.surfstudio.android.easyadapter.controller.BindableItemController
+import ru.surfstudio.android.easyadapter.holder.BindableViewHolder
+
+/**
+ * Allocation budgets of scroll-and-bind loops.
+ *
+ * Every scenario is compared with [PlainRowAdapter] scrolled the same way and doing the same framework calls,
+ * so allocations of RecyclerView itself and of Robolectric instrumentation are excluded
+ * and only the adapter overhead is checked against budget.
+ */
+@RunWith(RobolectricTestRunner::class)
+@Config(sdk = [Build.VERSION_CODES.P])
+class BindAllocationTest {
+
+    private val context: Context = ApplicationProvider.getApplicationContext()
+
+    private val meter = ScenarioMeter()
+
+    private val rows = createRows(ITEMS_COUNT)
+
+    @Before
+    fun setUp() {
+        assumeTrue(meter.isAllocationTrackingSupported)
+    }
+
+    @Test
+    fun baseAdapterScroll() {
+        val baseline = measureScroll(PlainRowAdapter(rows, true))
+        val allocated = measureScroll(SilentRowAdapter(context).apply { setItems(rows) })
+        AllocationBudget.ALLOCATION_FREE.assertWithin("BaseRecyclerViewAdapter scroll", BINDS_COUNT, allocated - baseline)
+    }
+
+    @Test
+    fun easyAdapterScroll() {
+        val baseline = measureScroll(PlainRowAdapter(rows, false))
+        val allocated = measureScroll(EasyAdapter().apply { setItems(ItemList.create(rows, SilentRowController())) })
+        AllocationBudget.ALLOCATION_FREE.assertWithin("EasyAdapter scroll", BINDS_COUNT, allocated - baseline)
+    }
+
+    /**
+     * @return median bytes allocated by scrolling [BINDS_COUNT] rows
+     */
+    private fun measureScroll(adapter: RecyclerView.Adapter<*>): Long {
+        val recyclerView = BenchmarkRecyclerView(context)
+        recyclerView.setAdapter(adapter)
+        recyclerView.layout()
+        return meter.measure(setUp = {
+            recyclerView.scrollToStart()
+        }) {
+            repeat(SCROLL_STEPS_COUNT) {
+                recyclerView.scrollBy(SCROLL_STEP_ROWS_COUNT * ROW_HEIGHT)
+            }
+        }.allocatedBytes
+    }
+
+    private class SilentRowAdapter(context: Context) : BaseRecyclerViewAdapter<Row, SilentRowAdapter.ViewHolder>(context) {
+
+        override fun onCreateViewHolder(parent: ViewGroup, viewType: Int) = ViewHolder(createRowView(parent))
+
+        class ViewHolder(view: View) : BaseRecyclerViewAdapter.ViewHolder<Row>(view)
+    }
+
+    private class SilentRowController : BindableItemController<Row, SilentRowController.Holder>() {
+
+        override fun createViewHolder(parent: ViewGroup) = Holder(createRowView(parent))
+
+        override fun getItemId(data: Row): String = data.id.toString()
+
+        class Holder(view: View) : BindableViewHolder<Row>(view) {
+
+            override fun bind(item: Row?) {
+            }
+        }
+    }
+
+    /**
+     * Baseline adapter without any overhead
+     *
+     * @param setListeners set preallocated listeners on bind, like [BaseRecyclerViewAdapter] does
+     */
+    private class PlainRowAdapter(
+            private val rows: List<Row>,
+            private val setListeners: Boolean
+    ) : RecyclerView.Adapter<PlainRowAdapter.Holder>() {
+
+        override fun onCreateViewHolder(parent: ViewGroup, viewType: Int) = Holder(createRowView(parent))
+
+        override fun onBindViewHolder(holder: Holder, position: Int) {
+            if (setListeners) {
+                holder.itemView.setOnClickListener(holder.listener)
+                holder.itemView.setOnLongClickListener(holder.listener)
+                holder.itemView.visibility = View.VISIBLE
+            }
+        }
+
+        override fun getItemCount() = rows.size
+
+        class Holder(view: View) : RecyclerView.ViewHolder(view) {
+
+            val listener = Listener()
+        }
+
+        class Listener : View.OnClickListener, View.OnLongClickListener {
+
+            override fun onClick(v: View) {
+            }
+
+            override fun onLongClick(v: View) = false
+        }
+    }
+
+    private companion object {
+
+        const val ITEMS_COUNT = 1000
+
+        const val SCROLL_STEPS_COUNT = 40
+        const val SCROLL_STEP_ROWS_COUNT = 5
+        const val BINDS_COUNT = SCROLL_STEPS_COUNT * SCROLL_STEP_ROWS_COUNT
+
+        fun createRowView(parent: ViewGroup) = View(parent.context).apply {
+            layoutParams = RecyclerView.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ROW_HEIGHT)
+        }
+    }
+}
\ No newline at end of file
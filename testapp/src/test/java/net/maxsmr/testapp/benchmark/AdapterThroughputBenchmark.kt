@@ -0,0 +1,242 @@
+package net.maxsmr.testapp.benchmark
+
+import android.content.Context
+import android.graphics.Color
+import android.graphics.drawable.GradientDrawable
+import android.os.Build
+import androidx.recyclerview.widget.RecyclerView
+import androidx.test.core.app.ApplicationProvider
+import net.maxsmr.android.recyclerview.manager.WrappingLinearLayoutManager
+import net.maxsmr.android.recyclerview.testing.Row
+import net.maxsmr.android.recyclerview.testing.ScenarioMeter
+import net.maxsmr.android.recyclerview.testing.createRows
+import net.maxsmr.android.recyclerview.views.decoration.Divider
+import net.maxsmr.android.recyclerview.views.decoration.DividerItemDecoration
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import org.junit.experimental.categories.Category
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+import ru.surfstudio.android.easyadapter.EasyAdapter
+import ru.surfstudio.android.easyadapter.ItemList
+
+/**
+ * Throughput of adapters attached to [BenchmarkRecyclerView]: create, bind, layout and draw passes
+ * of typical scenarios, with allocated bytes and amount of created and bound holders per run.
+ *
+ * Runs headless under Robolectric, so it doesn't need device or emulator:
+ * `./gradlew :testapp:testDebugUnitTest -Pbenchmarks --tests "net.maxsmr.testapp.benchmark.AdapterThroughputBenchmark"`.
+ * Absolute numbers include Robolectric instrumentation and are comparable only between runs on the same host.
+ * Results are printed, only the shape of passes (amount of laid out children) is asserted.
+ */
+@RunWith(RobolectricTestRunner::class)
+@Config(sdk = [Build.VERSION_CODES.P])
+@Category(Benchmark::class)
+class AdapterThroughputBenchmark {
+
+    private val context: Context = ApplicationProvider.getApplicationContext()
+
+    private val meter = ScenarioMeter()
+    private val counter = HolderCounter()
+
+    @Test
+    fun easyAdapterFirstLayout() {
+        val items = ItemList.create(createRows(ITEMS_COUNT), RowController(counter))
+        lateinit var recyclerView: BenchmarkRecyclerView
+        val measurement = meter.measure(setUp = {
+            recyclerView = BenchmarkRecyclerView(context)
+            recyclerView.setAdapter(EasyAdapter().apply { setItems(items) })
+            counter.reset()
+        }) {
+            recyclerView.layout()
+            recyclerView.draw()
+        }
+        report("EasyAdapter first layout", measurement)
+        assertEquals(VISIBLE_ROWS_COUNT, counter.createdCount)
+        assertEquals(VISIBLE_ROWS_COUNT, counter.boundCount)
+    }
+
+    @Test
+    fun easyAdapterScroll() {
+        val recyclerView = BenchmarkRecyclerView(context)
+        recyclerView.setAdapter(EasyAdapter().apply { setItems(ItemList.create(createRows(ITEMS_COUNT), RowController(counter))) })
+        recyclerView.layout()
+        val measurement = meter.measure(setUp = {
+            recyclerView.scrollToStart()
+            counter.reset()
+        }) {
+            scroll(recyclerView)
+        }
+        report("EasyAdapter scroll", measurement)
+        assertTrue(counter.boundCount >= SCROLL_STEPS_COUNT * SCROLL_STEP_ROWS_COUNT)
+    }
+
+    @Test
+    fun easyAdapterSetItems() {
+        val controller = RowController(counter)
+        val items = ItemList.create(createRows(ITEMS_COUNT), controller)
+        val changedItems = ItemList.create(changeEveryHundredth(createRows(ITEMS_COUNT)), controller)
+        val adapter = EasyAdapter()
+        val recyclerView = BenchmarkRecyclerView(context)
+        recyclerView.setAdapter(adapter.apply { setItems(items) })
+        recyclerView.layout()
+        var isChanged = false
+        val measurement = meter.measure(setUp = {
+            counter.reset()
+        }) {
+            isChanged = !isChanged
+            adapter.setItems(if (isChanged) changedItems else items)
+            recyclerView.layout()
+            recyclerView.draw()
+        }
+        report("EasyAdapter setItems, 1% changed", measurement)
+        assertEquals(0, counter.createdCount)
+    }
+
+    @Test
+    fun baseAdapterFirstLayout() {
+        val rows = createRows(ITEMS_COUNT)
+        lateinit var recyclerView: BenchmarkRecyclerView
+        val measurement = meter.measure(setUp = {
+            recyclerView = BenchmarkRecyclerView(context)
+            recyclerView.setAdapter(RowAdapter(context, counter).apply { setItems(rows) })
+            counter.reset()
+        }) {
+            recyclerView.layout()
+            recyclerView.draw()
+        }
+        report("BaseRecyclerViewAdapter first layout", measurement)
+        assertEquals(VISIBLE_ROWS_COUNT, counter.createdCount)
+        assertEquals(VISIBLE_ROWS_COUNT, counter.boundCount)
+    }
+
+    @Test
+    fun baseAdapterScroll() {
+        val recyclerView = BenchmarkRecyclerView(context)
+        recyclerView.setAdapter(RowAdapter(context, counter).apply { setItems(createRows(ITEMS_COUNT)) })
+        recyclerView.layout()
+        val measurement = meter.measure(setUp = {
+            recyclerView.scrollToStart()
+            counter.reset()
+        }) {
+            scroll(recyclerView)
+        }
+        report("BaseRecyclerViewAdapter scroll", measurement)
+        assertTrue(counter.boundCount >= SCROLL_STEPS_COUNT * SCROLL_STEP_ROWS_COUNT)
+    }
+
+    @Test
+    fun baseAdapterMutations() {
+        val rows = createRows(ITEMS_COUNT)
+        val insertedRows = createRows(MUTATIONS_COUNT, "inserted")
+        val adapter = RowAdapter(context, counter)
+        val recyclerView = BenchmarkRecyclerView(context)
+        recyclerView.setAdapter(adapter)
+        val measurement = meter.measure(setUp = {
+            adapter.setItems(rows)
+            recyclerView.scrollToStart()
+            counter.reset()
+        }) {
+            for (row in insertedRows) {
+                adapter.addItem(0, row)
+            }
+            for (i in 0 until MUTATIONS_COUNT) {
+                adapter.setItem(i, rows[i])
+            }
+            for (i in 0 until MUTATIONS_COUNT) {
+                adapter.removeItem(0)
+            }
+            recyclerView.layout()
+            recyclerView.draw()
+        }
+        report("BaseRecyclerViewAdapter $MUTATIONS_COUNT adds, sets, removes", measurement)
+        assertEquals(ITEMS_COUNT, adapter.itemCount)
+    }
+
+    @Test
+    fun dividerDecorationDraw() {
+        val recyclerView = BenchmarkRecyclerView(context)
+        recyclerView.setAdapter(RowAdapter(context, counter).apply { setItems(createRows(ITEMS_COUNT)) })
+        recyclerView.layout()
+        report("plain draw x$DRAW_PASSES_COUNT", meter.measure { draw(recyclerView) })
+
+        val divider = Divider.Image(GradientDrawable().apply {
+            setColor(Color.GRAY)
+            setSize(BenchmarkRecyclerView.WIDTH, DIVIDER_HEIGHT)
+        })
+        recyclerView.view.addItemDecoration(DividerItemDecoration(
+                DividerItemDecoration.Mode.ALL_EXCEPT_LAST,
+                DividerItemDecoration.DividerPosition.AFTER_ITEM,
+                RecyclerView.VERTICAL,
+                divider,
+                dividerBlock = null
+        ))
+        recyclerView.layout()
+        report("DividerItemDecoration draw x$DRAW_PASSES_COUNT", meter.measure { draw(recyclerView) })
+        assertEquals(ROW_HEIGHT + DIVIDER_HEIGHT, recyclerView.view.getChildAt(1).top)
+    }
+
+    @Test
+    fun wrappingLayoutManagerMeasure() {
+        val recyclerView = BenchmarkRecyclerView(context, WrappingLinearLayoutManager(context))
+        recyclerView.setAdapter(RowAdapter(context, counter).apply { setItems(createRows(WRAPPED_ITEMS_COUNT)) })
+        val measurement = meter.measure(setUp = {
+            recyclerView.view.requestLayout()
+            counter.reset()
+        }) {
+            recyclerView.layoutWrapping()
+        }
+        report("WrappingLinearLayoutManager measure of $WRAPPED_ITEMS_COUNT rows", measurement)
+        // every row is measured, not only visible ones
+        assertTrue(counter.boundCount >= WRAPPED_ITEMS_COUNT)
+    }
+
+    private fun scroll(recyclerView: BenchmarkRecyclerView) {
+        repeat(SCROLL_STEPS_COUNT) {
+            recyclerView.scrollBy(SCROLL_STEP_ROWS_COUNT * ROW_HEIGHT)
+            recyclerView.draw()
+        }
+    }
+
+    private fun draw(recyclerView: BenchmarkRecyclerView) {
+        repeat(DRAW_PASSES_COUNT) {
+            recyclerView.draw()
+        }
+    }
+
+    private fun changeEveryHundredth(rows: List<Row>): List<Row> =
+            rows.mapIndexed { index, row -> if (index % 100 == 0) row.copy(text = "changed ${row.id}") else row }
+
+    private fun report(scenario: String, measurement: ScenarioMeter.Measurement) {
+        val allocated = if (measurement.allocatedBytes != ScenarioMeter.Measurement.UNKNOWN) {
+            "${measurement.allocatedBytes / 1024} KB"
+        } else {
+            "n/a"
+        }
+        println(String.format(
+                "%-60s %10d us %12s allocated %6d created %6d bound",
+                scenario,
+                measurement.medianNanos / 1000,
+                allocated,
+                counter.createdCount,
+                counter.boundCount
+        ))
+    }
+
+    private companion object {
+
+        const val ITEMS_COUNT = 1000
+        const val WRAPPED_ITEMS_COUNT = 50
+        const val MUTATIONS_COUNT = 100
+
+        const val VISIBLE_ROWS_COUNT = BenchmarkRecyclerView.HEIGHT / ROW_HEIGHT
+
+        const val SCROLL_STEPS_COUNT = 40
+        const val SCROLL_STEP_ROWS_COUNT = 5
+
+        const val DRAW_PASSES_COUNT = 10
+        const val DIVIDER_HEIGHT = 2
+    }
+}
\ No newline at end of file
@@ -0,0 +1,7 @@
+package net.maxsmr.testapp.benchmark
+
+/**
+ * JUnit category of benchmarks: they take long and only print results, so they are excluded from regular test runs.
+ * Run them with `./gradlew :testapp:testDebugUnitTest -Pbenchmarks`.
+ */
+interface Benchmark
\ No newline at end of file
@@ -0,0 +1,100 @@
+package net.maxsmr.testapp.benchmark
+
+import android.content.Context
+import android.view.ViewGroup
+import android.widget.TextView
+import androidx.recyclerview.widget.RecyclerView
+import net.maxsmr.android.recyclerview.adapters.base.BaseRecyclerViewAdapter
+import net.maxsmr.android.recyclerview.testing.Row
+import ru.surfstudio.android.easyadapter.controller.BindableItemController
+import ru.surfstudio.android.easyadapter.holder.BindableViewHolder
+
+/**
+ * Rows of benchmark lists have fixed height, so amount of laid out children
+ * doesn't depend on text measuring of the host
+ */
+const val ROW_HEIGHT = 96
+
+/**
+ * Counts created and bound holders of benchmark adapters
+ */
+class HolderCounter {
+
+    var createdCount = 0
+        private set
+
+    var boundCount = 0
+        private set
+
+    fun onCreated() {
+        createdCount++
+    }
+
+    fun onBound() {
+        boundCount++
+    }
+
+    fun reset() {
+        createdCount = 0
+        boundCount = 0
+    }
+}
+
+private fun createRowView(parent: ViewGroup) = TextView(parent.context).apply {
+    layoutParams = RecyclerView.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ROW_HEIGHT)
+}
+
+/**
+ * [BindableItemController] of [Row] for EasyAdapter scenarios
+ */
+class RowController(private val counter: HolderCounter) : BindableItemController<Row, RowController.Holder>() {
+
+    override fun createViewHolder(parent: ViewGroup): Holder {
+        counter.onCreated()
+        return Holder(parent, counter)
+    }
+
+    override fun getItemId(data: Row): String = data.id.toString()
+
+    override fun getItemLongId(data: Row): Long = data.id.toLong()
+
+    class Holder(parent: ViewGroup, private val counter: HolderCounter) : BindableViewHolder<Row>(createRowView(parent)) {
+
+        private val textView = itemView as TextView
+
+        override fun bind(item: Row?) {
+            counter.onBound()
+            textView.text = item?.text
+        }
+    }
+}
+
+/**
+ * [BaseRecyclerViewAdapter] of [Row] for BaseRecyclerViewAdapter scenarios
+ */
+class RowAdapter(
+        context: Context,
+        private val counter: HolderCounter
+) : BaseRecyclerViewAdapter<Row, RowAdapter.ViewHolder>(context) {
+
+    override fun onCreateViewHolder(parent: ViewGroup, viewType: Int): ViewHolder {
+        counter.onCreated()
+        return ViewHolder(parent, counter)
+    }
+
+    override fun getStringIdForItem(item: Row): String = item.id.toString()
+
+    class ViewHolder(
+            parent: ViewGroup,
+            private val counter: HolderCounter
+    ) : BaseRecyclerViewAdapter.ViewHolder<Row>(createRowView(parent)) {
+
+        private val textView = itemView as TextView
+
+        override fun bindData(position: Int, item: Row, count: Int) {
+            super.bindData(position, item, count)
+            counter.onBound()
+            textView.text = item.text
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,78 @@
+package net.maxsmr.testapp.benchmark
+
+import android.content.Context
+import android.graphics.Bitmap
+import android.graphics.Canvas
+import android.view.View
+import androidx.recyclerview.widget.LinearLayoutManager
+import androidx.recyclerview.widget.RecyclerView
+
+/**
+ * [RecyclerView] of fixed size which passes are driven by hand:
+ * measure, layout and draw are performed synchronously, without window, animations and prefetch,
+ * so every pass costs the same on each run.
+ */
+class BenchmarkRecyclerView(
+        context: Context,
+        layoutManager: RecyclerView.LayoutManager = LinearLayoutManager(context),
+        val width: Int = WIDTH,
+        val height: Int = HEIGHT
+) {
+
+    val view = RecyclerView(context).apply {
+        this.layoutManager = layoutManager
+        itemAnimator = null
+        layoutManager.isItemPrefetchEnabled = false
+    }
+
+    private val canvas = Canvas(Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888))
+
+    fun setAdapter(adapter: RecyclerView.Adapter<*>) {
+        view.adapter = adapter
+    }
+
+    /**
+     * Measure with exact [width] and [height] and layout children,
+     * pending adapter updates are consumed here
+     */
+    fun layout() {
+        view.measure(exactly(width), exactly(height))
+        view.layout(0, 0, width, height)
+    }
+
+    /**
+     * Measure with exact [width] and [height] at most and layout children,
+     * for layout managers which wrap their content
+     */
+    fun layoutWrapping() {
+        view.measure(exactly(width), View.MeasureSpec.makeMeasureSpec(height, View.MeasureSpec.AT_MOST))
+        view.layout(0, 0, view.measuredWidth, view.measuredHeight)
+    }
+
+    fun draw() {
+        view.draw(canvas)
+    }
+
+    /**
+     * Scroll by [dy] pixels, with layout of appeared children
+     */
+    fun scrollBy(dy: Int) {
+        view.scrollBy(0, dy)
+    }
+
+    /**
+     * Return to the first item, with layout
+     */
+    fun scrollToStart() {
+        view.scrollToPosition(0)
+        layout()
+    }
+
+    private fun exactly(size: Int) = View.MeasureSpec.makeMeasureSpec(size, View.MeasureSpec.EXACTLY)
+
+    companion object {
+
+        const val WIDTH = 1080
+        const val HEIGHT = 1920
+    }
+}
\ No newline at end of file
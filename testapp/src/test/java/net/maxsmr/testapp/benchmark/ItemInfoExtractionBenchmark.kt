@@ -0,0 +1,107 @@
+package net.maxsmr.testapp.benchmark
+
+import org.junit.After
+import org.junit.Assert.assertArrayEquals
+import org.junit.Before
+import org.junit.Test
+import org.junit.experimental.categories.Category
+import ru.surfstudio.android.easyadapter.diff.ParallelSnapshotBuilder
+import ru.surfstudio.android.easyadapter.diff.async.AsyncDiffScheduler
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+
+/**
+ * Compares sequential and parallel snapshot building to find the crossover point
+ * for [ParallelSnapshotBuilder.parallelThreshold].
+ *
+ * Hashing of every item imitates `getItemHash` of data class with nested payload.
+ * Results are printed as a table, so it's a benchmark rather than a regular test:
+ * only determinism of parallel building is asserted.
+ * Run with `./gradlew :testapp:testDebugUnitTest -Pbenchmarks --tests "net.maxsmr.testapp.benchmark.ItemInfoExtractionBenchmark"`.
+ */
+@Category(Benchmark::class)
+class ItemInfoExtractionBenchmark {
+
+    private lateinit var executor: ExecutorService
+
+    @Before
+    fun setUp() {
+        // default executor changes thread priority with android.os.Process, unavailable on the host
+        executor = Executors.newFixedThreadPool(AsyncDiffScheduler.DEFAULT_WORKERS_COUNT)
+        AsyncDiffScheduler.executor = executor
+    }
+
+    @After
+    fun tearDown() {
+        AsyncDiffScheduler.resetExecutor()
+        executor.shutdown()
+    }
+
+    @Test
+    fun findCrossover() {
+        println("parallelism: ${ParallelSnapshotBuilder.PARALLELISM}")
+        println(String.format("%8s %14s %14s %8s", "size", "sequential,us", "parallel,us", "speedup"))
+        var crossover: Int? = null
+        for (size in SIZES) {
+            val items = createItems(size)
+            val sequential = LongArray(size)
+            val parallel = LongArray(size)
+            val sequentialTime = measure { extract(items, sequential, Int.MAX_VALUE) }
+            val parallelTime = measure { extract(items, parallel, 0) }
+            assertArrayEquals(sequential, parallel)
+
+            val speedup = sequentialTime.toDouble() / parallelTime
+            // parallel building must stay faster for all larger sizes
+            if (speedup <= 1.0) {
+                crossover = null
+            } else if (crossover == null) {
+                crossover = size
+            }
+            println(String.format("%8d %14d %14d %8.2f", size, sequentialTime / 1000, parallelTime / 1000, speedup))
+        }
+        println("crossover: ${crossover ?: "not reached"}")
+    }
+
+    private fun extract(items: List<Payload>, hashes: LongArray, threshold: Int) {
+        ParallelSnapshotBuilder.forEachRange(items.size, threshold, object : ParallelSnapshotBuilder.RangeTask {
+            override fun compute(fromIndex: Int, toIndex: Int) {
+                for (i in fromIndex until toIndex) {
+                    hashes[i] = items[i].hashCode().toLong()
+                }
+            }
+        })
+    }
+
+    /**
+     * @return median time of single run in nanoseconds
+     */
+    private inline fun measure(action: () -> Unit): Long {
+        repeat(WARMUP_ITERATIONS) { action() }
+        val times = LongArray(MEASURE_ITERATIONS) {
+            val start = System.nanoTime()
+            action()
+            System.nanoTime() - start
+        }
+        times.sort()
+        return times[times.size / 2]
+    }
+
+    private fun createItems(size: Int): List<Payload> =
+            List(size) { index ->
+                Payload(
+                        index.toString(),
+                        List(NESTED_PAYLOAD_SIZE) { "title $index, line $it" }
+                )
+            }
+
+    private data class Payload(val id: String, val lines: List<String>)
+
+    companion object {
+
+        private val SIZES = intArrayOf(512, 1024, 2048, 4096, 8192, 16384, 65536)
+
+        private const val NESTED_PAYLOAD_SIZE = 16
+        private const val WARMUP_ITERATIONS = 20
+        private const val MEASURE_ITERATIONS = 30
+    }
+}
\ No newline at end of file
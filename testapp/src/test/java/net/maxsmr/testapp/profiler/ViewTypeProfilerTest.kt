@@ -0,0 +1,87 @@
+package net.maxsmr.testapp.profiler
+
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import ru.surfstudio.android.easyadapter.profiler.ViewTypeProfiler
+import ru.surfstudio.android.easyadapter.profiler.ViewTypeProfiler.Stage
+import java.util.*
+
+class ViewTypeProfilerTest {
+
+    private val profiler = ViewTypeProfiler()
+
+    @Test
+    fun stagesAreRecordedPerViewType() {
+        repeat(3) { measure(Stage.BIND, 1, HeaderController) { sleepMillis(2) } }
+        measure(Stage.CREATE, 1, HeaderController) { }
+        measure(Stage.BIND, 2, RowController) { }
+
+        val profiles = profiler.snapshot()
+        assertEquals(listOf(1, 2), profiles.map { it.viewType })
+
+        val header = profiles[0]
+        assertEquals("HeaderController", header.name)
+        assertEquals(3L, header[Stage.BIND].count)
+        assertEquals(1L, header[Stage.CREATE].count)
+        assertEquals(0L, header[Stage.RECYCLE].count)
+        assertTrue(header[Stage.BIND].medianNanos >= 2_000_000L)
+        assertTrue(header[Stage.BIND].totalTimeNanos >= 6_000_000L)
+
+        assertEquals(1L, profiles[1][Stage.BIND].count)
+    }
+
+    @Test
+    fun dumpContainsOnlyRecordedStages() {
+        measure(Stage.PARTIAL_BIND, 5, RowController) { }
+        val dump = profiler.dump()
+        assertTrue(dump.contains("RowController(5)"))
+        assertTrue(dump.contains("partialBind"))
+        assertTrue(!dump.contains("recycle"))
+    }
+
+    @Test
+    fun dumpIsLocaleIndependent() {
+        measure(Stage.BIND, 1, RowController) { }
+        val defaultLocale = Locale.getDefault()
+        // Arabic locale formats numbers with its own digits
+        Locale.setDefault(Locale.forLanguageTag("ar-EG"))
+        try {
+            val dump = profiler.dump()
+            assertTrue(dump, dump.contains("RowController(1)"))
+            assertTrue(dump, dump.all { it.toInt() < 128 })
+        } finally {
+            Locale.setDefault(defaultLocale)
+        }
+    }
+
+    @Test
+    fun viewTypeIsNamedByFirstKnownOwner() {
+        measure(Stage.RECYCLE, 1, null) { }
+        assertEquals("1", profiler.snapshot()[0].name)
+        measure(Stage.BIND, 1, RowController) { }
+        measure(Stage.CREATE, 1, HeaderController) { }
+        assertEquals("RowController", profiler.snapshot()[0].name)
+    }
+
+    @Test
+    fun resetClearsProfiles() {
+        measure(Stage.BIND, 1, RowController) { }
+        profiler.reset()
+        assertTrue(profiler.snapshot().isEmpty())
+    }
+
+    private inline fun measure(stage: Stage, viewType: Int, owner: Any?, block: () -> Unit) {
+        val startTime = profiler.begin(stage, viewType, owner)
+        block()
+        profiler.end(stage, viewType, owner, startTime)
+    }
+
+    private fun sleepMillis(millis: Long) {
+        Thread.sleep(millis)
+    }
+
+    private object HeaderController
+
+    private object RowController
+}